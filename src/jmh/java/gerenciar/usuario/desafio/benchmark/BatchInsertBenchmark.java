@@ -0,0 +1,95 @@
+package gerenciar.usuario.desafio.benchmark;
+
+import gerenciar.usuario.desafio.DesafioApplication;
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.port.input.IUserUseCase;
+import gerenciar.usuario.desafio.port.output.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cadastro de {@value #ROWS} usuários contra o H2 em memória, um a um ({@code create}, uma transação e um commit
+ * por linha) e em lote ({@code createAll}, JDBC batch com um flush por bloco de
+ * {@code hibernate.jdbc.batch_size}). Com {@link OperationsPerInvocation} o resultado já sai em linhas por
+ * segundo, e com {@code -prof gc} o {@code gc.alloc.rate.norm} mostra a alocação por linha.
+ *
+ * <p>O H2 não tem ida e volta de rede, então a diferença medida aqui subestima a do MySQL, onde cada commit custa
+ * pelo menos uma viagem ao servidor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchInsertBenchmark {
+
+    private static final int ROWS = 500;
+
+    private ConfigurableApplicationContext context;
+    private IUserUseCase useCase;
+    private UserRepository repository;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(DesafioApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false",
+                        "--techmanage.jfr.start-on-startup=false",
+                        "--logging.level.root=WARN");
+        useCase = context.getBean(IUserUseCase.class);
+        repository = context.getBean(UserRepository.class);
+    }
+
+    // A tabela volta a ficar vazia a cada iteração, para o custo dos índices não crescer ao longo da medição
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        repository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int createOneByOne() {
+        for (UserDTO user : nextUsers()) {
+            useCase.create(user);
+        }
+        return ROWS;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int createAll() {
+        return useCase.createAll(nextUsers()).size();
+    }
+
+    // E-mails sempre novos, para nenhuma linha cair na checagem de duplicados
+    private List<UserDTO> nextUsers() {
+        List<UserDTO> users = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            long n = sequence++;
+            users.add(UserDTO.builder()
+                    .fullName("Usuário " + n)
+                    .email("usuario" + n + "@email.com")
+                    .phone("+55 11 99999-" + String.format("%04d", n % 10_000))
+                    .birthDate(LocalDate.of(1990, 1, 1))
+                    .userType(UserType.VIEWER)
+                    .build());
+        }
+        return users;
+    }
+}
@@ -0,0 +1,91 @@
+package gerenciar.usuario.desafio.benchmark;
+
+import gerenciar.usuario.desafio.DesafioApplication;
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
+import gerenciar.usuario.desafio.adapter.input.mapper.UserMapper;
+import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.port.input.IUserUseCase;
+import gerenciar.usuario.desafio.port.output.UserRepository;
+import gerenciar.usuario.desafio.port.output.UserRow;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem de {@value #ROWS} usuários do mesmo tipo contra o H2 em memória: carregando entidades e copiando por
+ * {@code UserDTO} até a resposta, como antes, e com a projeção {@link UserRow} da consulta convertida uma única vez
+ * em {@code UserResponse}. As duas variantes rodam numa transação somente leitura, com o mesmo filtro por tipo.
+ * Com {@code -prof gc}, {@code gc.alloc.rate.norm} dá os bytes alocados por chamada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository repository;
+    private TransactionTemplate readOnly;
+    private UserFilter byType;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(DesafioApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false",
+                        "--techmanage.jfr.start-on-startup=false",
+                        "--logging.level.root=WARN");
+        repository = context.getBean(UserRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        byType = UserFilter.builder().types(Set.of(UserType.ADMIN)).build();
+
+        List<UserDTO> users = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            users.add(UserDTO.builder()
+                    .fullName("Usuário " + i)
+                    .email("usuario" + i + "@email.com")
+                    .phone("+55 11 99999-" + String.format("%04d", i % 10_000))
+                    .birthDate(LocalDate.of(1990, 1, 1))
+                    .userType(UserType.ADMIN)
+                    .build());
+        }
+        context.getBean(IUserUseCase.class).createAll(users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserResponse> entityToResponse() {
+        return readOnly.execute(status -> repository.findByUserType(UserType.ADMIN).stream()
+                .map(UserMapper::toDTO)
+                .map(UserMapper::toResponse)
+                .toList());
+    }
+
+    @Benchmark
+    public List<UserResponse> projectionToResponse() {
+        return readOnly.execute(status -> repository.findFiltered(byType, ROWS + 1).stream()
+                .map(UserMapper::toResponse)
+                .toList());
+    }
+}
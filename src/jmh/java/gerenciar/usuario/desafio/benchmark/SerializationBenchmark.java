@@ -0,0 +1,48 @@
+package gerenciar.usuario.desafio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização de uma página de {@link UserResponse}, como no {@code GET /api/users}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private List<UserResponse> page;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, UserResponse.class));
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(new UserResponse((long) i, "Usuário " + i, "usuario" + i + "@email.com",
+                    "+55 11 99999-" + String.format("%04d", i), LocalDate.of(1990, 1, 1), UserType.VIEWER));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+}
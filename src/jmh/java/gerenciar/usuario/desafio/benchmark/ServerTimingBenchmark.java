@@ -0,0 +1,78 @@
+package gerenciar.usuario.desafio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
+import gerenciar.usuario.desafio.adapter.input.timing.RequestTimings;
+import gerenciar.usuario.desafio.adapter.input.timing.TimedJacksonConverter;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do Server-Timing por requisição: a contabilidade das fases e a escrita do JSON com e sem a medição
+ * (com medição o corpo passa por um buffer antes de ir para a resposta).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerTimingBenchmark {
+
+    private TimedJacksonConverter converter;
+    private List<UserResponse> page;
+
+    @Setup
+    public void setup() {
+        ObjectMapper mapper = JsonMapper.builder().findAndAddModules().build();
+        converter = new TimedJacksonConverter(mapper);
+        page = new ArrayList<>(50);
+        for (int i = 0; i < 50; i++) {
+            page.add(new UserResponse((long) i, "Usuário " + i, "usuario" + i + "@email.com",
+                    "+55 11 99999-" + String.format("%04d", i), LocalDate.of(1990, 1, 1), UserType.VIEWER));
+        }
+    }
+
+    @Benchmark
+    public String phaseBookkeeping() {
+        RequestTimings timings = RequestTimings.begin();
+        long start = System.nanoTime();
+        timings.add(RequestTimings.Phase.VALIDATION, System.nanoTime() - start);
+        if (timings.enterDb()) {
+            timings.exitDb();
+            timings.add(RequestTimings.Phase.DB, System.nanoTime() - start);
+        }
+        timings.add(RequestTimings.Phase.SERIALIZATION, System.nanoTime() - start);
+        String header = timings.toHeader(System.nanoTime() - timings.startNanos());
+        RequestTimings.end();
+        return header;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage writePageUntimed() throws IOException {
+        MockHttpOutputMessage out = new MockHttpOutputMessage();
+        converter.write(page, MediaType.APPLICATION_JSON, out);
+        return out;
+    }
+
+    @Benchmark
+    public MockHttpOutputMessage writePageTimed() throws IOException {
+        RequestTimings.begin();
+        try {
+            MockHttpOutputMessage out = new MockHttpOutputMessage();
+            converter.write(page, MediaType.APPLICATION_JSON, out);
+            return out;
+        } finally {
+            RequestTimings.end();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package gerenciar.usuario.desafio.benchmark;
+
+import gerenciar.usuario.desafio.DesafioApplication;
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.mapper.UserMapper;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.port.input.IUserUseCase;
+import gerenciar.usuario.desafio.port.output.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo das fronteiras de transação contra o H2 em memória, com a aplicação inteira de pé e o cache desligado.
+ *
+ * <p>A listagem por tipo roda sem transação (como antes), numa transação comum e numa somente leitura, que é o que
+ * o {@code UserUseCase} passou a abrir. {@code patch_twoTransactions} reproduz o {@code PATCH} anterior, com o
+ * {@code UPDATE} e a releitura em transações separadas. Transações, conexões e comandos, lidos das estatísticas do
+ * Hibernate, saem como resultados secundários ({@link HibernateCounters}); com {@code -prof gc} o
+ * {@code gc.alloc.rate.norm} mostra a alocação por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionBenchmark {
+
+    private static final int ROWS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private IUserUseCase useCase;
+    private UserRepository repository;
+    private Statistics statistics;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Long patchedId;
+    private long toggle;
+
+    /**
+     * Operações, transações, conexões e comandos de cada iteração, lidos das estatísticas do Hibernate. O JMH soma
+     * os contadores entre as iterações; a média por operação é a razão entre eles e {@code operations}.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HibernateCounters {
+
+        public long operations;
+        public long transactions;
+        public long connections;
+        public long statements;
+
+        @Setup(Level.Iteration)
+        public void reset(TransactionBenchmark benchmark) {
+            benchmark.statistics.clear();
+            operations = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void collect(TransactionBenchmark benchmark) {
+            Statistics statistics = benchmark.statistics;
+            transactions = statistics.getTransactionCount();
+            connections = statistics.getConnectCount();
+            statements = statistics.getPrepareStatementCount();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(DesafioApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--techmanage.cache.user.max-size=0",
+                        "--techmanage.jfr.start-on-startup=false",
+                        "--logging.level.root=WARN");
+        useCase = context.getBean(IUserUseCase.class);
+        repository = context.getBean(UserRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        List<UserDTO> users = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            users.add(UserDTO.builder()
+                    .fullName("Usuário " + i)
+                    .email("usuario" + i + "@email.com")
+                    .phone("+55 11 99999-" + String.format("%04d", i))
+                    .birthDate(LocalDate.of(1990, 1, 1))
+                    .userType(UserType.VIEWER)
+                    .build());
+        }
+        useCase.createAll(users);
+        patchedId = repository.findAll().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserDTO> findByUserType_noTransaction(HibernateCounters counters) {
+        counters.operations++;
+        return findByUserType();
+    }
+
+    @Benchmark
+    public List<UserDTO> findByUserType_readWriteTransaction(HibernateCounters counters) {
+        counters.operations++;
+        return readWrite.execute(status -> findByUserType());
+    }
+
+    @Benchmark
+    public List<UserDTO> findByUserType_readOnlyTransaction(HibernateCounters counters) {
+        counters.operations++;
+        return readOnly.execute(status -> findByUserType());
+    }
+
+    @Benchmark
+    public UserDTO patch_singleTransaction(HibernateCounters counters) {
+        counters.operations++;
+        return useCase.patch(patchedId, nextChange());
+    }
+
+    @Benchmark
+    public UserDTO patch_twoTransactions(HibernateCounters counters) {
+        counters.operations++;
+        repository.updateChangedFields(patchedId, null, nextChange());
+        return repository.findById(patchedId).map(UserMapper::toDTO).orElseThrow();
+    }
+
+    // Mesma consulta e mapeamento do UserUseCase.findByUserType; só a fronteira de transação muda entre as variantes
+    private List<UserDTO> findByUserType() {
+        return repository.findByUserType(UserType.VIEWER).stream()
+                .map(UserMapper::toDTO)
+                .toList();
+    }
+
+    private UserDTO nextChange() {
+        return UserDTO.builder().fullName("Nome " + (toggle++ & 1)).build();
+    }
+}
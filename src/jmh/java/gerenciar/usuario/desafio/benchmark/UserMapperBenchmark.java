@@ -0,0 +1,52 @@
+package gerenciar.usuario.desafio.benchmark;
+
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.mapper.UserMapper;
+import gerenciar.usuario.desafio.adapter.input.request.UserRequest;
+import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
+import gerenciar.usuario.desafio.domain.entity.User;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões feitas em toda requisição de escrita ({@code request -> DTO -> entidade}) e de leitura
+ * ({@code entidade -> DTO -> response}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMapperBenchmark {
+
+    private UserRequest request;
+    private User entity;
+
+    @Setup
+    public void setup() {
+        request = UserRequest.builder()
+                .fullName("João Silva")
+                .email("joao@email.com")
+                .phone("+55 11 99999-9999")
+                .birthDate(LocalDate.of(1990, 5, 10))
+                .userType("admin")
+                .build();
+        entity = new User(1L, "João Silva", "joao silva", "joao@email.com", "joao@email.com", "+55 11 99999-9999",
+                5511999999999L, LocalDate.of(1990, 5, 10), UserType.ADMIN, 3L);
+    }
+
+    @Benchmark
+    public User requestToEntity() {
+        return UserMapper.toEntity(UserMapper.toDTO(request));
+    }
+
+    @Benchmark
+    public UserResponse entityToResponse() {
+        UserDTO dto = UserMapper.toDTO(entity);
+        return UserMapper.toResponse(dto);
+    }
+}
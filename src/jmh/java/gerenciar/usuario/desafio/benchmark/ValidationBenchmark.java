@@ -0,0 +1,87 @@
+package gerenciar.usuario.desafio.benchmark;
+
+import gerenciar.usuario.desafio.adapter.input.request.UserRequest;
+import gerenciar.usuario.desafio.domain.utils.EnumValidator;
+import gerenciar.usuario.desafio.domain.utils.PhoneValidator;
+import gerenciar.usuario.desafio.domain.utils.ValidEnum;
+import gerenciar.usuario.desafio.domain.utils.ValidPhone;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validadores customizados isolados e a validação completa do {@link UserRequest} feita pelo {@code @Valid}.
+ *
+ * <p>Os validadores isolados recebem apenas valores válidos: nesse caminho o {@code ConstraintValidatorContext}
+ * não é usado. Os caminhos de erro são medidos pela validação completa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private PhoneValidator phoneValidator;
+    private EnumValidator enumValidator;
+    private ValidatorFactory factory;
+    private Validator validator;
+    private UserRequest validRequest;
+    private UserRequest invalidRequest;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+        phoneValidator = new PhoneValidator();
+        phoneValidator.initialize(UserRequest.class.getDeclaredField("phone").getAnnotation(ValidPhone.class));
+        enumValidator = new EnumValidator();
+        enumValidator.initialize(UserRequest.class.getDeclaredField("userType").getAnnotation(ValidEnum.class));
+
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+        validRequest = UserRequest.builder()
+                .fullName("João Silva")
+                .email("joao@email.com")
+                .phone("+55 11 99999-9999")
+                .birthDate(LocalDate.of(1990, 5, 10))
+                .userType("ADMIN")
+                .build();
+        invalidRequest = UserRequest.builder()
+                .fullName("")
+                .email("joao-email.com")
+                .phone("11999999999")
+                .userType("ROOT")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public boolean phoneValidator() {
+        return phoneValidator.isValid("+55 11 99999-9999", null);
+    }
+
+    @Benchmark
+    public boolean enumValidator() {
+        return enumValidator.isValid("editor", null);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequest>> beanValidationValid() {
+        return validator.validate(validRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<UserRequest>> beanValidationInvalid() {
+        return validator.validate(invalidRequest);
+    }
+}
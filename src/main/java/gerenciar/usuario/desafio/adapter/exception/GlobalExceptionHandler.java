@@ -2,16 +2,28 @@ package gerenciar.usuario.desafio.adapter.exception;
 
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import gerenciar.usuario.desafio.domain.exception.ApiException;
+import gerenciar.usuario.desafio.domain.exception.BadRequestException;
+import gerenciar.usuario.desafio.domain.exception.DeadlineExceededException;
+import gerenciar.usuario.desafio.domain.exception.PreconditionRequiredException;
+import gerenciar.usuario.desafio.domain.exception.ServiceUnavailableException;
+import gerenciar.usuario.desafio.domain.exception.TooManyRequestsException;
 import gerenciar.usuario.desafio.domain.exception.UserNotFoundException;
+import gerenciar.usuario.desafio.domain.exception.UserVersionConflictException;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.ResolvableType;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -53,6 +65,107 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(UserVersionConflictException.class)
+    public ResponseEntity<ApiException> handleVersionConflict(
+            UserVersionConflictException ex, HttpServletRequest request) {
+
+        ApiException error = new ApiException(
+                ex.getMessage(),
+                LocalDateTime.now(),
+                HttpStatus.CONFLICT.value(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<ApiException> handlePreconditionRequired(
+            PreconditionRequiredException ex, HttpServletRequest request) {
+
+        ApiException error = new ApiException(
+                ex.getMessage(),
+                LocalDateTime.now(),
+                HttpStatus.PRECONDITION_REQUIRED.value(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(error);
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiException> handleBadRequest(
+            BadRequestException ex, HttpServletRequest request) {
+
+        ApiException error = new ApiException(
+                ex.getMessage(),
+                LocalDateTime.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiException> handleServiceUnavailable(
+            ServiceUnavailableException ex, HttpServletRequest request) {
+
+        ApiException error = new ApiException(
+                ex.getMessage(),
+                LocalDateTime.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiException> handleTooManyRequests(
+            TooManyRequestsException ex, HttpServletRequest request) {
+
+        ApiException error = new ApiException(
+                ex.getMessage(),
+                LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    // Prazo vencido antes de ir ao banco, ou consulta interrompida pelo setQueryTimeout derivado do prazo
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<ApiException> handleDeadlineExceeded(
+            RuntimeException ex, HttpServletRequest request) {
+
+        ApiException error = new ApiException(
+                "Prazo da requisição esgotado.",
+                LocalDateTime.now(),
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                null
+        );
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(error);
+    }
+
+    // Sem conexão para abrir a transação: o prazo venceu na espera pelo pool, ou o pool está esgotado
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ApiException> handleCannotCreateTransaction(
+            CannotCreateTransactionException ex, HttpServletRequest request) {
+
+        if (NestedExceptionUtils.getMostSpecificCause(ex) instanceof DeadlineExceededException deadline) {
+            return handleDeadlineExceeded(deadline, request);
+        }
+        return handleServiceUnavailable(
+                new ServiceUnavailableException("Servidor sobrecarregado. Tente novamente em instantes."), request);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiException> handleValidationException(
             MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -108,10 +221,18 @@ public class GlobalExceptionHandler {
 
         String mensagem = "Parâmetro inválido.";
 
-        if (ex.getRequiredType() != null && ex.getRequiredType().isEnum()) {
+        // Em parâmetros com vários valores (type=ADMIN,EDITOR) o tipo que interessa é o dos elementos
+        Class<?> requiredType = ex.getRequiredType() != null && Collection.class.isAssignableFrom(ex.getRequiredType())
+                ? ResolvableType.forMethodParameter(ex.getParameter()).asCollection().resolveGeneric()
+                : ex.getRequiredType();
+        if (requiredType != null && requiredType.isEnum()) {
             String field = ex.getName();
-            Object[] enumValues = ex.getRequiredType().getEnumConstants();
-            mensagem = String.format("Tipo de usuário inválido. Valores aceitos: %s", Arrays.toString(enumValues));
+            Object[] enumValues = requiredType.getEnumConstants();
+            mensagem = "type".equals(field)
+                    ? String.format("Tipo de usuário inválido. Valores aceitos: %s", Arrays.toString(enumValues))
+                    : String.format("Valor inválido para '%s'. Valores aceitos: %s", field, Arrays.toString(enumValues));
+        } else if (requiredType == LocalDate.class) {
+            mensagem = String.format("Data inválida para '%s'. Use o formato AAAA-MM-DD.", ex.getName());
         }
 
         ApiException error = new ApiException(
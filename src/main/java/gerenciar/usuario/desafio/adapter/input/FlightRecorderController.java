@@ -0,0 +1,56 @@
+package gerenciar.usuario.desafio.adapter.input;
+
+import gerenciar.usuario.desafio.adapter.input.jfr.FlightRecorderService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.Map;
+
+// Só existe com techmanage.jfr.endpoint-enabled=true: o arquivo gerado expõe detalhes internos da JVM
+@RestController
+@RequestMapping("api/diagnostics/jfr")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "techmanage.jfr.endpoint-enabled", havingValue = "true")
+public class FlightRecorderController {
+
+    private final FlightRecorderService flightRecorder;
+
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> start() throws IOException, ParseException {
+        boolean started = flightRecorder.start();
+        return ResponseEntity.status(started ? HttpStatus.CREATED : HttpStatus.OK)
+                .body(Map.of("recording", true, "message",
+                        started ? "Gravação JFR iniciada." : "A gravação JFR já estava em andamento."));
+    }
+
+    @PostMapping("/dump")
+    public void dump(HttpServletResponse response) throws IOException {
+        Path file = flightRecorder.dumpToTempFile();
+        try {
+            response.setContentType("application/octet-stream");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"techmanage.jfr\"");
+            response.setContentLengthLong(Files.size(file));
+            Files.copy(file, response.getOutputStream());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, Object>> stop() {
+        boolean stopped = flightRecorder.stop();
+        return ResponseEntity.ok(Map.of("recording", false, "message",
+                stopped ? "Gravação JFR encerrada." : "Nenhuma gravação JFR em andamento."));
+    }
+}
@@ -0,0 +1,104 @@
+package gerenciar.usuario.desafio.adapter.input;
+
+import gerenciar.usuario.desafio.adapter.input.config.RequestDeadline;
+import gerenciar.usuario.desafio.adapter.input.dto.BatchItemDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.mapper.UserMapper;
+import gerenciar.usuario.desafio.adapter.input.request.UserRequest;
+import gerenciar.usuario.desafio.adapter.input.response.BatchItemResponse;
+import gerenciar.usuario.desafio.adapter.input.timing.RequestTimings;
+import gerenciar.usuario.desafio.domain.exception.BadRequestException;
+import gerenciar.usuario.desafio.port.input.IUserUseCase;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("api/users")
+@RequiredArgsConstructor
+public class UserBatchController {
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final IUserUseCase userUseCase;
+    private final Validator validator;
+
+    @PostMapping("/batch")
+    @RequestDeadline("${techmanage.deadline.batch:60s}")
+    public ResponseEntity<Map<String, Object>> createUsers(@RequestBody List<UserRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("O lote deve conter entre 1 e " + MAX_BATCH_SIZE + " usuários.");
+        }
+
+        BatchItemResponse[] results = new BatchItemResponse[requests.size()];
+        List<UserDTO> valid = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            Map<String, String> errors = validate(requests.get(i));
+            if (errors.isEmpty()) {
+                valid.add(UserMapper.toDTO(requests.get(i)));
+                validIndexes.add(i);
+            } else {
+                results[i] = BatchItemResponse.builder()
+                        .index(i)
+                        .status(BatchItemDTO.Status.INVALID)
+                        .errors(errors)
+                        .build();
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            for (BatchItemDTO item : userUseCase.createAll(valid)) {
+                int index = validIndexes.get(item.getIndex());
+                results[index] = BatchItemResponse.builder()
+                        .index(index)
+                        .status(item.getStatus())
+                        .result(item.getUser() == null ? null : UserMapper.toResponse(item.getUser()))
+                        .errors(item.getErrors())
+                        .build();
+            }
+        }
+
+        long created = Arrays.stream(results)
+                .filter(r -> r.getStatus() == BatchItemDTO.Status.CREATED)
+                .count();
+
+        var response = new HashMap<String, Object>();
+        response.put("message", created + " de " + requests.size() + " usuários cadastrados.");
+        response.put("created", created);
+        response.put("failed", requests.size() - created);
+        response.put("results", Arrays.asList(results));
+
+        HttpStatus status = created == requests.size() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    private Map<String, String> validate(UserRequest request) {
+        if (request == null) {
+            return Map.of("body", "Item do lote não pode ser nulo.");
+        }
+        long start = System.nanoTime();
+        Set<ConstraintViolation<UserRequest>> violations;
+        try {
+            violations = validator.validate(request);
+        } finally {
+            RequestTimings.addSince(RequestTimings.Phase.VALIDATION, start);
+        }
+        return violations.stream()
+                .collect(Collectors.toMap(
+                        v -> v.getPropertyPath().toString(),
+                        ConstraintViolation::getMessage,
+                        (existing, replacement) -> existing
+                ));
+    }
+}
@@ -1,28 +1,60 @@
 package gerenciar.usuario.desafio.adapter.input;
 
+import gerenciar.usuario.desafio.adapter.input.dto.CursorPage;
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
+import gerenciar.usuario.desafio.adapter.input.mapper.CursorCodec;
 import gerenciar.usuario.desafio.adapter.input.mapper.UserMapper;
+import gerenciar.usuario.desafio.adapter.input.mapper.VersionTag;
+import gerenciar.usuario.desafio.adapter.input.request.UserPatchRequest;
 import gerenciar.usuario.desafio.adapter.input.request.UserRequest;
+import gerenciar.usuario.desafio.adapter.input.response.PageResponse;
 import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
+import gerenciar.usuario.desafio.domain.cache.EmailFilter;
+import gerenciar.usuario.desafio.domain.cache.UserCache;
+import gerenciar.usuario.desafio.domain.cache.UserFilterIndex;
+import gerenciar.usuario.desafio.domain.cache.UserSearchIndex;
+import gerenciar.usuario.desafio.domain.cache.UserStats;
 import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.domain.exception.BadRequestException;
+import gerenciar.usuario.desafio.domain.exception.InvalidCursorException;
+import gerenciar.usuario.desafio.domain.exception.PreconditionRequiredException;
 import gerenciar.usuario.desafio.port.input.IUserUseCase;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @RestController
 @RequestMapping("api/users")
 @RequiredArgsConstructor
 public class UserController {
 
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+    static final int MAX_BULK_IDS = 1000;
+    static final int DEFAULT_SEARCH_SIZE = 10;
+    static final int MAX_SEARCH_SIZE = 50;
+
     private final IUserUseCase userUseCase;
     private final UserMapper userMapper;
 
+    // true: PUT e PATCH sem If-Match recebem 428, e nenhuma escrita sobrescreve às cegas a de outro cliente
+    @Value("${techmanage.update.require-if-match:false}")
+    private boolean requireIfMatch;
+
     @PostMapping
     public ResponseEntity<Map<String, Object>> createUser(@RequestBody @Valid UserRequest request) {
         var dto = userMapper.toDTO(request);
@@ -35,50 +67,213 @@ public class UserController {
 
 
     @GetMapping
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        var listDTO = userUseCase.findAll();
-        var responseList = listDTO.stream()
-                .map(UserMapper::toResponse)
+    public ResponseEntity<PageResponse<UserResponse>> getAllUsers(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+
+        int pageSize = pageSize(limit);
+        var page = userUseCase.findPage(CursorCodec.decode(cursor), pageSize);
+        return ResponseEntity.ok(toPageResponse(page, pageSize));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<String, Object>> getUsersByIds(@RequestParam("ids") List<Long> ids) {
+        checkIds(ids, MAX_PAGE_SIZE);
+        var users = userUseCase.findAllById(ids);
+        Set<Long> foundIds = new HashSet<>();
+        List<UserResponse> items = new ArrayList<>(users.size());
+        for (var dto : users) {
+            foundIds.add(dto.getId());
+            items.add(UserMapper.toResponse(dto));
+        }
+        List<Long> missing = ids.stream()
+                .distinct()
+                .filter(id -> !foundIds.contains(id))
                 .toList();
-        return ResponseEntity.ok(responseList);
+
+        var response = new HashMap<String, Object>();
+        response.put("items", items);
+        response.put("missing", missing);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
         var dto = userUseCase.findById(id);
         var response = UserMapper.toResponse(dto);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(VersionTag.toETag(dto.getVersion()))
+                .body(response);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<UserCache.Stats> getCacheStats() {
+        return ResponseEntity.ok(userUseCase.cacheStats());
+    }
+
+    @GetMapping("/email-filter/stats")
+    public ResponseEntity<EmailFilter.Stats> getEmailFilterStats() {
+        return ResponseEntity.ok(userUseCase.emailFilterStats());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<UserStats.Stats> getStats() {
+        return ResponseEntity.ok(userUseCase.stats());
+    }
+
+    @GetMapping("/filter-index/stats")
+    public ResponseEntity<UserFilterIndex.Stats> getFilterIndexStats() {
+        return ResponseEntity.ok(userUseCase.filterIndexStats());
     }
 
     @GetMapping("/filter")
-    public ResponseEntity<List<UserResponse>> getUsersByType(@RequestParam("type") UserType userType) {
-        var listDTO = userUseCase.findByUserType(userType);
-        var responseList = listDTO.stream()
-                .map(UserMapper::toResponse)
-                .toList();
-        return ResponseEntity.ok(responseList);
+    public ResponseEntity<PageResponse<UserResponse>> filterUsers(
+            @RequestParam(value = "type", required = false) Set<UserType> types,
+            @RequestParam(value = "bornFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate bornFrom,
+            @RequestParam(value = "bornTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate bornTo,
+            @RequestParam(value = "name", required = false) String name,
+            @RequestParam(value = "sort", required = false) String sort,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+
+        boolean descending = sort != null && sort.startsWith("-");
+        UserFilter.Sort order = sort == null ? UserFilter.Sort.ID
+                : UserFilter.Sort.fromParam(descending ? sort.substring(1) : sort);
+        if (order == null) {
+            throw new BadRequestException(
+                    "Ordenação inválida. Use id, name ou birthDate, com - na frente para ordem decrescente.");
+        }
+        var filter = UserFilter.builder()
+                .types(types == null ? Set.of() : types)
+                .bornFrom(bornFrom)
+                .bornTo(bornTo)
+                .namePrefix(name)
+                .sort(order)
+                .descending(descending)
+                .build();
+        // O cursor só vale para a ordenação que o gerou, com a mesma direção; id crescente usa o cursor da listagem
+        String cursorSort = order == UserFilter.Sort.ID && !descending ? null : sort;
+        var after = CursorCodec.decodeKeyset(cursor);
+        if (after != null) {
+            if (!Objects.equals(cursorSort, after.sort())) {
+                throw new InvalidCursorException("Cursor de paginação inválido.");
+            }
+            filter.setAfterKey(after.key());
+            filter.setAfterId(after.id());
+        }
+
+        int pageSize = pageSize(limit);
+        var page = userUseCase.filter(filter, pageSize);
+        return ResponseEntity.ok(new PageResponse<>(page.getItems(), pageSize,
+                CursorCodec.encode(cursorSort, page.getNextAfterKey(), page.getNextAfterId())));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<List<UserResponse>> searchUsers(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        int size = limit == null ? DEFAULT_SEARCH_SIZE : Math.max(1, Math.min(limit, MAX_SEARCH_SIZE));
+        return ResponseEntity.ok(userUseCase.search(query, size));
+    }
+
+    @GetMapping("/search/stats")
+    public ResponseEntity<UserSearchIndex.Stats> getSearchIndexStats() {
+        return ResponseEntity.ok(userUseCase.searchIndexStats());
+    }
+
+    @GetMapping("/by-email")
+    public ResponseEntity<UserResponse> getUserByEmail(@RequestParam("email") String email) {
+        return ResponseEntity.ok(userUseCase.findByEmail(email));
+    }
+
+    @GetMapping("/by-phone")
+    public ResponseEntity<List<UserResponse>> getUsersByPhone(@RequestParam("phone") String phone) {
+        return ResponseEntity.ok(userUseCase.findByPhone(phone));
+    }
 
     @PutMapping("/{id}")
     public ResponseEntity<Map<String, Object>> updateUser(
             @PathVariable @Valid Long id,
-            @RequestBody @Valid UserRequest request) {
+            @RequestBody @Valid UserRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
+        checkIfMatch(ifMatch);
         var dto = UserMapper.toDTO(request);
         dto.setId(id);
+        dto.setVersion(VersionTag.fromIfMatch(ifMatch));
         var updated = userUseCase.update(id, dto);
         var response = new HashMap<String, Object>();
         response.put("message", "Usuário atualizado com sucesso!");
         response.put("result", UserMapper.toResponse(updated));
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(VersionTag.toETag(updated.getVersion()))
+                .body(response);
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> patchUser(
+            @PathVariable Long id,
+            @RequestBody @Valid UserPatchRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        checkIfMatch(ifMatch);
+        if (request.isEmpty()) {
+            throw new BadRequestException("Nenhum campo informado para atualização.");
+        }
+        var changes = UserMapper.toDTO(request);
+        changes.setVersion(VersionTag.fromIfMatch(ifMatch));
+        var updated = userUseCase.patch(id, changes);
+        var response = new HashMap<String, Object>();
+        response.put("message", "Usuário atualizado com sucesso!");
+        response.put("result", UserMapper.toResponse(updated));
+        return ResponseEntity.ok()
+                .eTag(VersionTag.toETag(updated.getVersion()))
+                .body(response);
     }
 
 
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> deleteUsers(@RequestParam("ids") List<Long> ids) {
+        checkIds(ids, MAX_BULK_IDS);
+        var result = userUseCase.deleteAll(ids);
+        var response = new HashMap<String, Object>();
+        response.put("deleted", result.getDeleted());
+        response.put("missing", result.getMissing());
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         userUseCase.delete(id);
         return ResponseEntity.noContent().build();
     }
 
+    private static void checkIds(List<Long> ids, int max) {
+        if (ids.isEmpty() || ids.size() > max) {
+            throw new BadRequestException("Informe entre 1 e " + max + " ids.");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new BadRequestException("A lista de ids não pode ter elementos vazios.");
+        }
+    }
+
+    private void checkIfMatch(String ifMatch) {
+        if (requireIfMatch && (ifMatch == null || ifMatch.isBlank())) {
+            throw new PreconditionRequiredException(
+                    "Informe no cabeçalho If-Match o ETag da última leitura do usuário.");
+        }
+    }
+
+    private static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static PageResponse<UserResponse> toPageResponse(CursorPage<UserResponse> page, int pageSize) {
+        return new PageResponse<>(page.getItems(), pageSize, CursorCodec.encode(page.getNextAfterId()));
+    }
 }
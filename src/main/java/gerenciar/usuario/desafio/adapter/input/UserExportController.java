@@ -0,0 +1,47 @@
+package gerenciar.usuario.desafio.adapter.input;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gerenciar.usuario.desafio.adapter.input.config.RequestDeadline;
+import gerenciar.usuario.desafio.adapter.input.export.ExportFormat;
+import gerenciar.usuario.desafio.adapter.input.export.UserExportWriter;
+import gerenciar.usuario.desafio.port.input.IUserUseCase;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("api/users")
+@RequiredArgsConstructor
+public class UserExportController {
+
+    private final IUserUseCase userUseCase;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping("/export")
+    @RequestDeadline("${techmanage.deadline.export:0s}")
+    public void exportUsers(
+            @RequestParam(value = "format", defaultValue = "ndjson") ExportFormat format,
+            HttpServletResponse response) throws IOException {
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"users." + format.getExtension() + "\"");
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        UserExportWriter writer = new UserExportWriter(format, out, objectMapper);
+        writer.writeHeader();
+        userUseCase.exportAll(writer);
+        out.flush();
+    }
+}
@@ -0,0 +1,157 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import gerenciar.usuario.desafio.domain.exception.ServiceUnavailableException;
+import gerenciar.usuario.desafio.domain.exception.TooManyRequestsException;
+import gerenciar.usuario.desafio.domain.utils.Deadlines;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Controle de admissão das rotas da API, com orçamentos separados para leitura (GET, HEAD, OPTIONS) e escrita.
+ *
+ * <p>Cada orçamento tem um token bucket por cliente ({@link ClientRateLimiter}) e um limite de requisições em
+ * execução; os limites de leitura e escrita somados cabem no pool do Hikari ({@link ConcurrencyLimits}). Quem esgota o próprio balde recebe 429; quem encontra o limite cheio
+ * por mais que {@code queueTimeout} recebe 503. Os dois vêm com {@code Retry-After}, e a recusa acontece antes de
+ * qualquer espera pelo pool de conexões, que com {@code connection-timeout} de 20s faria a requisição falhar tarde.
+ * Como os orçamentos são separados, uma rajada de leituras não impede as escritas, e vice-versa.
+ *
+ * <p>As leituras atendidas da memória ({@link InMemoryReads}) passam só pela taxa: elas não pegam conexão, e
+ * prendê-las ao limite de leitura faria um acerto de cache esperar por vaga do pool.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    static final String REJECTED_METRIC = "techmanage.admission.rejected";
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final Budget reads;
+    private final Budget writes;
+    private final Predicate<HttpServletRequest> inMemory;
+    private final long queueTimeoutNanos;
+    private final String clientHeader;
+    private final MeterRegistry registry;
+
+    public AdmissionControlInterceptor(Budget reads, Budget writes, Duration queueTimeout, String clientHeader,
+                                       MeterRegistry registry) {
+        this(reads, writes, request -> false, queueTimeout, clientHeader, registry);
+    }
+
+    public AdmissionControlInterceptor(Budget reads, Budget writes, Predicate<HttpServletRequest> inMemory,
+                                       Duration queueTimeout, String clientHeader, MeterRegistry registry) {
+        this.reads = reads;
+        this.writes = writes;
+        this.inMemory = inMemory;
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.clientHeader = clientHeader;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        boolean read = isRead(request);
+        Budget budget = read ? reads : writes;
+
+        long waitNanos = budget.rate.tryAcquire(clientOf(request));
+        if (waitNanos > 0) {
+            rejected(budget, "rate");
+            throw new TooManyRequestsException("Limite de requisições excedido. Tente novamente em instantes.",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+        if (read && inMemory.test(request)) {
+            return true;
+        }
+        long queueNanos = Math.min(queueTimeoutNanos, Deadlines.remainingNanos());
+        if (!budget.permits.tryAcquire(queueNanos, TimeUnit.NANOSECONDS)) {
+            rejected(budget, "concurrency");
+            throw new ServiceUnavailableException("Servidor sobrecarregado. Tente novamente em instantes.");
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, budget);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Budget budget) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            budget.permits.release();
+        }
+    }
+
+    public int availableReadPermits() {
+        return reads.permits.availablePermits();
+    }
+
+    public int availableWritePermits() {
+        return writes.permits.availablePermits();
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    // Sem o cabeçalho configurado (ou sem valor nele), o cliente é o endereço de origem
+    private String clientOf(HttpServletRequest request) {
+        if (clientHeader != null && !clientHeader.isBlank()) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isBlank()) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void rejected(Budget budget, String reason) {
+        registry.counter(REJECTED_METRIC, "kind", budget.kind, "reason", reason).increment();
+    }
+
+    /**
+     * Limites de execução simultânea de leitura e escrita que cabem juntos no pool de {@code poolSize} conexões,
+     * para que os dois orçamentos cheios nunca esperem por conexão. Um limite 0 é derivado do pool: 40% dele para
+     * escrita (no mínimo 1) e o resto para leitura. Limites explícitos que somem mais que o pool são recusados.
+     */
+    public record ConcurrencyLimits(int reads, int writes) {
+
+        public static ConcurrencyLimits fromPool(int poolSize, int reads, int writes) {
+            if (poolSize < 2) {
+                throw new IllegalStateException(
+                        "O controle de admissão precisa de um pool com ao menos 2 conexões, mas ele tem " + poolSize + ".");
+            }
+            if (writes <= 0) {
+                writes = reads > 0 ? poolSize - reads : Math.max(1, poolSize * 2 / 5);
+            }
+            if (reads <= 0) {
+                reads = poolSize - writes;
+            }
+            if (reads < 1 || writes < 1 || reads + writes > poolSize) {
+                throw new IllegalStateException("Os limites de execução de leitura (" + reads + ") e de escrita ("
+                        + writes + ") precisam ser positivos e caber juntos no pool de " + poolSize + " conexões.");
+            }
+            return new ConcurrencyLimits(reads, writes);
+        }
+    }
+
+    /**
+     * Taxa por cliente ({@code permitsPerSecond}, com rajada de {@code burst}) e limite de execução simultânea.
+     */
+    public static class Budget {
+
+        private final String kind;
+        private final ClientRateLimiter rate;
+        private final Semaphore permits;
+
+        public Budget(String kind, ClientRateLimiter rate, int maxConcurrent) {
+            this.kind = kind;
+            this.rate = rate;
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+    }
+}
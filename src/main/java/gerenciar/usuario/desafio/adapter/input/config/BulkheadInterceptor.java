@@ -0,0 +1,54 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import gerenciar.usuario.desafio.domain.exception.ServiceUnavailableException;
+import gerenciar.usuario.desafio.domain.utils.Deadlines;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita quantas requisições da API executam ao mesmo tempo.
+ *
+ * <p>Com threads de plataforma o limite vem, na prática, do pool do Tomcat; com threads virtuais cada requisição
+ * ganha a sua thread e todas acabariam enfileiradas no pool do Hikari até estourar o {@code connection-timeout}.
+ * O semáforo segura o excesso antes de chegar ao banco e, se a espera passar de {@code acquireTimeout},
+ * a requisição é recusada com 503 em vez de ocupar memória indefinidamente.
+ */
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    public BulkheadInterceptor(int maxConcurrent, Duration acquireTimeout) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (!permits.tryAcquire(Math.min(acquireTimeoutNanos, Deadlines.remainingNanos()), TimeUnit.NANOSECONDS)) {
+            throw new ServiceUnavailableException("Servidor sobrecarregado. Tente novamente em instantes.");
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.release();
+        }
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
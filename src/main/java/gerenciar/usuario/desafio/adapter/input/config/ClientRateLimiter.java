@@ -0,0 +1,89 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Um token bucket por cliente: {@code burst} fichas de capacidade, repostas a {@code permitsPerSecond} por segundo.
+ *
+ * <p>Cada balde é guardado como um único {@code long}: o instante em que ele volta a ficar cheio (o "GCRA", que é
+ * equivalente ao token bucket). Consumir uma ficha adianta esse instante em um intervalo, via CAS, sem lock e sem
+ * thread de reposição. Balde cheio é balde ocioso; esses são descartados quando o mapa chega a {@code maxClients}.
+ *
+ * <p>Se nem a varredura abre espaço, o cliente novo não ganha balde próprio: todos os que ficaram de fora dividem
+ * um balde de excedentes, com a mesma taxa de um cliente. O mapa passa de {@code maxClients} no máximo pelas
+ * inserções que correm ao mesmo tempo que a checagem de tamanho.
+ */
+public class ClientRateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int maxClients;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> fullAt = new ConcurrentHashMap<>();
+    private final AtomicLong overflow;
+    private final AtomicLong lastSweep;
+
+    public ClientRateLimiter(double permitsPerSecond, int burst, int maxClients) {
+        this(permitsPerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(double permitsPerSecond, int burst, int maxClients, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond e burst devem ser positivos");
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.capacityNanos = intervalNanos * burst;
+        this.maxClients = maxClients;
+        this.clock = clock;
+        this.lastSweep = new AtomicLong(clock.getAsLong());
+        this.overflow = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * Consome uma ficha do balde de {@code client}.
+     *
+     * @return {@code 0} se havia ficha; senão, quantos nanossegundos faltam para a próxima
+     */
+    public long tryAcquire(String client) {
+        long now = clock.getAsLong();
+        AtomicLong bucket = fullAt.get(client);
+        if (bucket == null) {
+            if (fullAt.size() >= maxClients) {
+                sweep(now);
+            }
+            bucket = fullAt.size() < maxClients
+                    ? fullAt.computeIfAbsent(client, key -> new AtomicLong(now))
+                    : overflow;
+        }
+        while (true) {
+            long current = bucket.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long excess = next - now - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int clients() {
+        return fullAt.size();
+    }
+
+    // Um balde removido no meio de um tryAcquire concorrente perde no máximo aquela ficha; com o mapa cheio de
+    // clientes ativos a varredura roda no máximo uma vez por segundo
+    private void sweep(long now) {
+        long last = lastSweep.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+            return;
+        }
+        fullAt.values().removeIf(bucket -> bucket.get() <= now);
+    }
+}
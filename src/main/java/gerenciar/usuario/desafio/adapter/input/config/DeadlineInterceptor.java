@@ -0,0 +1,78 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import gerenciar.usuario.desafio.domain.exception.BadRequestException;
+import gerenciar.usuario.desafio.domain.utils.Deadlines;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Abre o prazo ({@link Deadlines}) de cada requisição da API.
+ *
+ * <p>O prazo é o padrão da rota ({@link RequestDeadline}, senão {@code defaultDeadline}), encurtado pelo cabeçalho
+ * {@code header} quando o cliente avisa que desiste antes disso (ex.: {@code X-Request-Timeout: 1500ms}; número
+ * puro vale em milissegundos). O cabeçalho só encurta: um cliente não consegue prender uma conexão por mais tempo
+ * que a rota permite.
+ */
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    private final String header;
+    private final Duration defaultDeadline;
+    private final UnaryOperator<String> placeholders;
+    private final Map<HandlerMethod, Duration> routeDeadlines = new ConcurrentHashMap<>();
+
+    public DeadlineInterceptor(String header, Duration defaultDeadline, UnaryOperator<String> placeholders) {
+        this.header = header;
+        this.defaultDeadline = defaultDeadline;
+        this.placeholders = placeholders;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Duration deadline = handler instanceof HandlerMethod method
+                ? routeDeadlines.computeIfAbsent(method, this::routeDeadline)
+                : defaultDeadline;
+
+        String requested = request.getHeader(header);
+        if (requested != null && !requested.isBlank()) {
+            Duration fromClient = parse(requested);
+            if (deadline.isZero() || fromClient.compareTo(deadline) < 0) {
+                deadline = fromClient;
+            }
+        }
+
+        if (!deadline.isZero()) {
+            Deadlines.start(deadline);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Deadlines.clear();
+    }
+
+    private Duration routeDeadline(HandlerMethod method) {
+        RequestDeadline annotation = method.getMethodAnnotation(RequestDeadline.class);
+        return annotation == null ? defaultDeadline : DurationStyle.detectAndParse(placeholders.apply(annotation.value()));
+    }
+
+    private Duration parse(String value) {
+        try {
+            Duration duration = DurationStyle.detectAndParse(value.trim());
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(value);
+            }
+            return duration;
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Cabeçalho " + header + " inválido. Use milissegundos ou uma duração como 2s.");
+        }
+    }
+}
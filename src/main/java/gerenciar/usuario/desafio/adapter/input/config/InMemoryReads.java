@@ -0,0 +1,44 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import gerenciar.usuario.desafio.domain.cache.UserCache;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Leituras atendidas da memória, que não disputam o pool de conexões e por isso ficam fora do limite de execução
+ * de leitura do {@link AdmissionControlInterceptor}:
+ *
+ * <ul>
+ *     <li>{@code /api/users/stats} e as estatísticas dos componentes ({@code /api/users/*}{@code /stats});</li>
+ *     <li>{@code /api/users/search}, que consulta o índice em memória e traz os usuários do cache;</li>
+ *     <li>{@code GET /api/users/{id}} quando o usuário está no {@link UserCache}.</li>
+ * </ul>
+ *
+ * O que escapa da memória (uma falta de cache na busca, ou uma entrada removida entre esta checagem e o controller)
+ * vai ao banco sem vaga, com a espera pelo pool limitada pelo prazo da requisição.
+ */
+public class InMemoryReads implements Predicate<HttpServletRequest> {
+
+    private static final Pattern STATS = Pattern.compile("/api/users(/[^/]+)?/stats/?");
+    private static final Pattern SEARCH = Pattern.compile("/api/users/search/?");
+    private static final Pattern BY_ID = Pattern.compile("/api/users/(\\d{1,18})/?");
+
+    private final UserCache userCache;
+
+    public InMemoryReads(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    @Override
+    public boolean test(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (STATS.matcher(path).matches() || SEARCH.matcher(path).matches()) {
+            return true;
+        }
+        Matcher byId = BY_ID.matcher(path);
+        return byId.matches() && userCache.contains(Long.valueOf(byId.group(1)));
+    }
+}
@@ -0,0 +1,53 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gerenciar.usuario.desafio.adapter.input.timing.TimedJacksonConverter;
+import gerenciar.usuario.desafio.domain.cache.EmailFilter;
+import gerenciar.usuario.desafio.domain.cache.UserCache;
+import gerenciar.usuario.desafio.port.output.StatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class MetricsConfig {
+
+    // Habilita o @Timed do UserUseCase
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Substitui o conversor JSON padrão do Boot pelo que mede a serialização
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJacksonConverter(objectMapper);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    @Bean
+    public MeterBinder userCacheMetrics(UserCache userCache, EmailFilter emailFilter) {
+        return registry -> {
+            FunctionCounter.builder("techmanage.cache.user.hits", userCache, cache -> cache.stats().getHits())
+                    .register(registry);
+            FunctionCounter.builder("techmanage.cache.user.misses", userCache, cache -> cache.stats().getMisses())
+                    .register(registry);
+            Gauge.builder("techmanage.cache.user.size", userCache, cache -> cache.stats().getSize())
+                    .register(registry);
+            Gauge.builder("techmanage.email-filter.false-positive-rate", emailFilter,
+                            filter -> filter.stats().getFalsePositiveRate())
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import gerenciar.usuario.desafio.port.output.datasource.ReadAfterWrite;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Leva o último commit de cada cliente de uma requisição para a outra, para que a leitura após escrita do
+ * roteamento primário/réplica valha por cliente.
+ *
+ * <p>Uma requisição que faz commit responde com o cookie {@link #COOKIE} (instante do commit, em milissegundos),
+ * válido pelo {@code sticky-window}; enquanto o cliente o devolver, as leituras dele vão para o primário. Um
+ * instante no futuro é tratado como agora.
+ */
+@Component
+@ConditionalOnProperty(prefix = "techmanage.datasource.replica", name = "url")
+public class ReadAfterWriteFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "techmanage_last_write";
+
+    private final Duration stickyWindow;
+
+    public ReadAfterWriteFilter(@Value("${techmanage.datasource.replica.sticky-window:2s}") Duration stickyWindow) {
+        this.stickyWindow = stickyWindow;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return stickyWindow.isZero() || stickyWindow.isNegative() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadAfterWrite.begin(lastWriteMillis(request), millis -> {
+            if (!response.isCommitted()) {
+                response.setHeader(HttpHeaders.SET_COOKIE, cookie(millis));
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadAfterWrite.end();
+        }
+    }
+
+    private static long lastWriteMillis(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return 0;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private String cookie(long millis) {
+        return ResponseCookie.from(COOKIE, Long.toString(millis))
+                .path("/api")
+                .maxAge(stickyWindow.plusMillis(999).toSeconds())
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build()
+                .toString();
+    }
+}
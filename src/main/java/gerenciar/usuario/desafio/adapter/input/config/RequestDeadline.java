@@ -0,0 +1,14 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Prazo padrão da rota, no lugar de {@code techmanage.deadline.default}. Aceita durações ({@code 30s}, {@code 5m})
+ * e placeholders de propriedade; {@code 0s} deixa a rota sem prazo, salvo o que o cliente enviar no cabeçalho.
+ */
+@Documented
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestDeadline {
+    String value();
+}
@@ -0,0 +1,59 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import gerenciar.usuario.desafio.port.output.StatementCounter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Registra quantos comandos SQL cada requisição executou ({@code techmanage.http.statements}), por rota,
+ * e avisa no log quando uma requisição passa de {@code warnThreshold} comandos (sinal típico de N+1).
+ */
+public class StatementMetricsInterceptor implements HandlerInterceptor {
+
+    static final String METRIC = "techmanage.http.statements";
+
+    private static final Logger log = LoggerFactory.getLogger(StatementMetricsInterceptor.class);
+    private static final String START_ATTRIBUTE = StatementMetricsInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry registry;
+    private final long warnThreshold;
+
+    public StatementMetricsInterceptor(MeterRegistry registry, long warnThreshold) {
+        this.registry = registry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, StatementCounter.total());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        long statements = StatementCounter.total() - (Long) start;
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder(METRIC)
+                .description("Comandos SQL por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(statements);
+
+        if (warnThreshold > 0 && statements > warnThreshold) {
+            log.warn("method={} uri={} statements={} threshold={}", request.getMethod(), uri, statements, warnThreshold);
+        }
+    }
+}
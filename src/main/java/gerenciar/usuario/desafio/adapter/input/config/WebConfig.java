@@ -0,0 +1,106 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import gerenciar.usuario.desafio.adapter.input.timing.TimedValidator;
+import gerenciar.usuario.desafio.domain.cache.UserCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final Validator validator;
+    private final Environment environment;
+    private final UserCache userCache;
+
+    @Value("${techmanage.sql.warn-statements-per-request:20}")
+    private long warnStatementsPerRequest;
+
+    @Value("${techmanage.bulkhead.max-concurrent:0}")
+    private int bulkheadMaxConcurrent;
+
+    @Value("${techmanage.bulkhead.acquire-timeout:2s}")
+    private Duration bulkheadAcquireTimeout;
+
+    @Value("${techmanage.deadline.header:X-Request-Timeout}")
+    private String deadlineHeader;
+
+    @Value("${techmanage.deadline.default:10s}")
+    private Duration defaultDeadline;
+
+    @Value("${techmanage.admission.enabled:false}")
+    private boolean admissionEnabled;
+
+    @Value("${techmanage.admission.client-header:}")
+    private String admissionClientHeader;
+
+    @Value("${techmanage.admission.max-clients:10000}")
+    private int admissionMaxClients;
+
+    @Value("${techmanage.admission.queue-timeout:100ms}")
+    private Duration admissionQueueTimeout;
+
+    @Value("${techmanage.admission.reads.permits-per-second:50}")
+    private double readsPerSecond;
+
+    @Value("${techmanage.admission.reads.burst:100}")
+    private int readsBurst;
+
+    @Value("${techmanage.admission.reads.max-concurrent:0}")
+    private int readsMaxConcurrent;
+
+    @Value("${techmanage.admission.writes.permits-per-second:10}")
+    private double writesPerSecond;
+
+    @Value("${techmanage.admission.writes.burst:20}")
+    private int writesBurst;
+
+    @Value("${techmanage.admission.writes.max-concurrent:0}")
+    private int writesMaxConcurrent;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    // O @Valid dos controllers passa pelo mesmo validador, agora cronometrado para o Server-Timing
+    @Override
+    public org.springframework.validation.Validator getValidator() {
+        return new TimedValidator(new SpringValidatorAdapter(validator));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Primeiro o prazo, para que a espera na admissão e no bulkhead também conte contra ele
+        registry.addInterceptor(new DeadlineInterceptor(deadlineHeader, defaultDeadline, environment::resolvePlaceholders))
+                .addPathPatterns("/api/**");
+        registry.addInterceptor(new StatementMetricsInterceptor(meterRegistry, warnStatementsPerRequest))
+                .addPathPatterns("/api/**");
+        // A admissão vem antes do bulkhead: o que passar da taxa ou do limite é recusado sem esperar na fila dele
+        if (admissionEnabled) {
+            AdmissionControlInterceptor.ConcurrencyLimits limits = AdmissionControlInterceptor.ConcurrencyLimits
+                    .fromPool(poolSize, readsMaxConcurrent, writesMaxConcurrent);
+            registry.addInterceptor(new AdmissionControlInterceptor(
+                            new AdmissionControlInterceptor.Budget("read",
+                                    new ClientRateLimiter(readsPerSecond, readsBurst, admissionMaxClients),
+                                    limits.reads()),
+                            new AdmissionControlInterceptor.Budget("write",
+                                    new ClientRateLimiter(writesPerSecond, writesBurst, admissionMaxClients),
+                                    limits.writes()),
+                            new InMemoryReads(userCache), admissionQueueTimeout, admissionClientHeader, meterRegistry))
+                    .addPathPatterns("/api/**");
+        }
+        if (bulkheadMaxConcurrent > 0) {
+            registry.addInterceptor(new BulkheadInterceptor(bulkheadMaxConcurrent, bulkheadAcquireTimeout))
+                    .addPathPatterns("/api/**");
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package gerenciar.usuario.desafio.adapter.input.dto;
+
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchItemDTO {
+
+    public enum Status {
+        CREATED,
+        INVALID,
+        DUPLICATE_EMAIL
+    }
+
+    private int index;
+    private Status status;
+    private UserDTO user;
+    private Map<String, String> errors;
+}
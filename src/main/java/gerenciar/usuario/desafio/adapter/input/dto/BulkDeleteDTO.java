@@ -0,0 +1,16 @@
+package gerenciar.usuario.desafio.adapter.input.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkDeleteDTO {
+
+    private int deleted;
+    private List<Long> missing;
+}
@@ -0,0 +1,24 @@
+package gerenciar.usuario.desafio.adapter.input.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private Long nextAfterId;
+    // Chave de ordenação do último item quando a página não é ordenada só por id (ver UserFilter)
+    private String nextAfterKey;
+
+    public CursorPage(List<T> items, Long nextAfterId) {
+        this(items, nextAfterId, null);
+    }
+
+    public boolean hasNext() {
+        return nextAfterId != null;
+    }
+}
@@ -18,4 +18,5 @@ public class UserDTO {
     private String phone;
     private LocalDate birthDate;
     private UserType userType;
+    private Long version;
 }
\ No newline at end of file
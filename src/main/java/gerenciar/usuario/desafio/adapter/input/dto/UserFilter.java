@@ -0,0 +1,64 @@
+package gerenciar.usuario.desafio.adapter.input.dto;
+
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Critérios do {@code GET /api/users/filter}. Critério nulo (ou {@code types} vazio) não restringe nada.
+ *
+ * <p>O cursor é a posição do último item da página anterior na ordenação pedida: {@code afterId} e, fora da
+ * ordenação por id, {@code afterKey} (o nome normalizado gravado ou a data de nascimento em ISO).
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserFilter {
+
+    @Builder.Default
+    private Set<UserType> types = Set.of();
+    private LocalDate bornFrom;
+    private LocalDate bornTo;
+    private String namePrefix;
+    @Builder.Default
+    private Sort sort = Sort.ID;
+    private boolean descending;
+    private String afterKey;
+    private Long afterId;
+
+    public boolean hasNamePrefix() {
+        return namePrefix != null && !namePrefix.isBlank();
+    }
+
+    public enum Sort {
+        ID("id"),
+        NAME("name"),
+        BIRTH_DATE("birthDate");
+
+        private final String param;
+
+        Sort(String param) {
+            this.param = param;
+        }
+
+        public String param() {
+            return param;
+        }
+
+        /**
+         * @return a ordenação com esse nome no parâmetro {@code sort}, ou {@code null} se não existir
+         */
+        public static Sort fromParam(String param) {
+            for (Sort sort : values()) {
+                if (sort.param.equals(param)) {
+                    return sort;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package gerenciar.usuario.desafio.adapter.input.export;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+// Permite ?format=ndjson|csv em minúsculas, como os clientes de sincronização enviam
+@Component
+public class ExportFormatConverter implements Converter<String, ExportFormat> {
+
+    @Override
+    public ExportFormat convert(String source) {
+        return ExportFormat.valueOf(source.trim().toUpperCase(Locale.ROOT));
+    }
+}
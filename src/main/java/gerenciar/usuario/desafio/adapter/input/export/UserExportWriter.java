@@ -0,0 +1,76 @@
+package gerenciar.usuario.desafio.adapter.input.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.mapper.UserMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.Consumer;
+
+/**
+ * Escreve cada usuário no {@link Writer} assim que ele chega, sem acumular linhas em memória.
+ */
+public class UserExportWriter implements Consumer<UserDTO> {
+
+    static final String CSV_HEADER = "id,fullName,email,phone,birthDate,userType";
+
+    private final ExportFormat format;
+    private final Writer out;
+    private final ObjectMapper objectMapper;
+
+    public UserExportWriter(ExportFormat format, Writer out, ObjectMapper objectMapper) {
+        this.format = format;
+        this.out = out;
+        this.objectMapper = objectMapper;
+    }
+
+    public void writeHeader() {
+        if (format == ExportFormat.CSV) {
+            writeLine(CSV_HEADER);
+        }
+    }
+
+    @Override
+    public void accept(UserDTO dto) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                out.write(objectMapper.writeValueAsString(UserMapper.toResponse(dto)));
+                out.write('\n');
+            } else {
+                writeLine(toCsv(dto));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private void writeLine(String line) {
+        try {
+            out.write(line);
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String toCsv(UserDTO dto) {
+        return dto.getId() + ","
+                + csvField(dto.getFullName()) + ","
+                + csvField(dto.getEmail()) + ","
+                + csvField(dto.getPhone()) + ","
+                + dto.getBirthDate() + ","
+                + dto.getUserType();
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
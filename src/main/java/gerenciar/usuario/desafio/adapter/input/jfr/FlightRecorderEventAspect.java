@@ -0,0 +1,102 @@
+package gerenciar.usuario.desafio.adapter.input.jfr;
+
+import gerenciar.usuario.desafio.adapter.input.dto.BulkDeleteDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.CursorPage;
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Emite os eventos JFR do use case e do repositório. Sem gravação ativa o custo é criar o evento e
+ * perguntar {@code isEnabled()}: nenhum argumento é inspecionado e nada é gravado.
+ */
+@Aspect
+@Component
+public class FlightRecorderEventAspect {
+
+    @Around("execution(* gerenciar.usuario.desafio.port.input.IUserUseCase+.*(..))")
+    public Object recordUseCase(ProceedingJoinPoint call) throws Throwable {
+        UserOperationEvent event = new UserOperationEvent();
+        if (!event.isEnabled()) {
+            return call.proceed();
+        }
+        event.begin();
+        try {
+            Object result = call.proceed();
+            event.rows = rows(result);
+            if (result instanceof UserDTO dto) {
+                event.userId = dto.getId() == null ? -1 : dto.getId();
+            }
+            return result;
+        } catch (Throwable ex) {
+            event.error = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = call.getSignature().getName();
+                for (Object arg : call.getArgs()) {
+                    if (arg instanceof Long id) {
+                        event.userId = id;
+                    } else if (arg instanceof UserType type) {
+                        event.userType = type.name();
+                    } else if (arg instanceof UserDTO dto && dto.getUserType() != null) {
+                        event.userType = dto.getUserType().name();
+                    }
+                }
+                event.commit();
+            }
+        }
+    }
+
+    @Around("execution(* gerenciar.usuario.desafio.port.output.UserRepository+.*(..))")
+    public Object recordRepository(ProceedingJoinPoint call) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return call.proceed();
+        }
+        event.begin();
+        try {
+            Object result = call.proceed();
+            event.rows = rows(result);
+            return result;
+        } catch (Throwable ex) {
+            event.error = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = call.getSignature().getName();
+                event.commit();
+            }
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof CursorPage<?> page) {
+            return page.getItems().size();
+        }
+        if (result instanceof BulkDeleteDTO bulk) {
+            return bulk.getDeleted();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        if (result instanceof UserDTO) {
+            return 1;
+        }
+        return -1;
+    }
+}
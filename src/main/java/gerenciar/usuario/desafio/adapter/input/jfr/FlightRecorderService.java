@@ -0,0 +1,111 @@
+package gerenciar.usuario.desafio.adapter.input.jfr;
+
+import gerenciar.usuario.desafio.domain.exception.BadRequestException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Controla uma gravação do JDK Flight Recorder com a configuração {@code profile} mais os eventos da aplicação.
+ * A gravação fica em memória (limitada por {@code max-age}) até ser descarregada em arquivo.
+ */
+@Component
+public class FlightRecorderService {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Duration maxAge;
+    private final boolean startOnStartup;
+    private Recording recording;
+
+    public FlightRecorderService(@Value("${techmanage.jfr.max-age:15m}") Duration maxAge,
+                                 @Value("${techmanage.jfr.start-on-startup:false}") boolean startOnStartup) {
+        this.maxAge = maxAge;
+        this.startOnStartup = startOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnStartup() throws IOException, ParseException {
+        if (startOnStartup) {
+            start();
+        }
+    }
+
+    /**
+     * @return {@code false} se já havia uma gravação em andamento
+     */
+    public boolean start() throws IOException, ParseException {
+        lock.lock();
+        try {
+            if (recording != null) {
+                return false;
+            }
+            Recording started = new Recording(Configuration.getConfiguration("profile"));
+            started.setName("techmanage");
+            started.setMaxAge(maxAge);
+            started.enable(UserOperationEvent.class);
+            started.enable(RepositoryCallEvent.class);
+            started.start();
+            recording = started;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava em {@code target} tudo o que foi registrado até agora, sem interromper a gravação.
+     */
+    public void dump(Path target) throws IOException {
+        lock.lock();
+        try {
+            if (recording == null) {
+                throw new BadRequestException("Nenhuma gravação JFR em andamento.");
+            }
+            recording.dump(target);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Path dumpToTempFile() throws IOException {
+        Path target = Files.createTempFile("techmanage-", ".jfr");
+        try {
+            dump(target);
+            return target;
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(target);
+            throw ex;
+        }
+    }
+
+    /**
+     * @return {@code false} se não havia gravação em andamento
+     */
+    public boolean stop() {
+        lock.lock();
+        try {
+            if (recording == null) {
+                return false;
+            }
+            recording.close();
+            recording = null;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+}
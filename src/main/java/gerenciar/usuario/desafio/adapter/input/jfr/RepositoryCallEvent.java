@@ -0,0 +1,26 @@
+package gerenciar.usuario.desafio.adapter.input.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("techmanage.RepositoryCall")
+@Label("Repository Call")
+@Description("Chamada a um método do UserRepository")
+@Category({"TechManage", "Persistence"})
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Rows")
+    @Description("Linhas retornadas ou afetadas, ou -1 quando não se aplica (ex.: Stream)")
+    long rows = -1;
+
+    @Label("Error")
+    String error;
+}
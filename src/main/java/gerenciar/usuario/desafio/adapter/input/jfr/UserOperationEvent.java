@@ -0,0 +1,33 @@
+package gerenciar.usuario.desafio.adapter.input.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("techmanage.UserOperation")
+@Label("User Operation")
+@Description("Chamada a um método do IUserUseCase")
+@Category({"TechManage", "Use Case"})
+@StackTrace(false)
+public class UserOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("User Id")
+    @Description("Id do usuário envolvido, ou -1 quando não se aplica")
+    long userId = -1;
+
+    @Label("User Type")
+    String userType;
+
+    @Label("Rows")
+    @Description("Quantidade de usuários retornados ou afetados, ou -1 quando não se aplica")
+    long rows = -1;
+
+    @Label("Error")
+    String error;
+}
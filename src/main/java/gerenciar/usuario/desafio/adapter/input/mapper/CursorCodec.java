@@ -0,0 +1,87 @@
+package gerenciar.usuario.desafio.adapter.input.mapper;
+
+import gerenciar.usuario.desafio.domain.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Converte o último id de uma página em um cursor opaco (Base64 URL-safe) e vice-versa.
+ * O cliente nunca deve interpretar o conteúdo do cursor, apenas devolvê-lo no parâmetro {@code cursor}.
+ *
+ * <p>Páginas em outra ordenação (nome, nascimento ou id decrescente) levam também a ordenação, com o {@code -} da
+ * direção, e a chave do último item, no formato {@code k:<ordenação>:<id>:<chave>}; a chave fica por último porque
+ * pode conter {@code :}, e fica vazia na ordenação por id.
+ */
+public final class CursorCodec {
+
+    private static final String PREFIX = "id:";
+    private static final String KEY_PREFIX = "k:";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Long afterId) {
+        if (afterId == null) {
+            return null;
+        }
+        byte[] raw = (PREFIX + afterId).getBytes(StandardCharsets.US_ASCII);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * @param sort ordenação como no parâmetro {@code sort}; {@code null} gera o cursor só de id
+     */
+    public static String encode(String sort, String afterKey, Long afterId) {
+        if (afterId == null || sort == null) {
+            return encode(afterId);
+        }
+        String key = afterKey == null ? "" : afterKey;
+        byte[] raw = (KEY_PREFIX + sort + ":" + afterId + ":" + key).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    public static Long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Cursor de paginação inválido.");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Cursor de paginação inválido.");
+        }
+    }
+
+    /**
+     * Aceita os dois formatos; num cursor só de id, {@link Keyset#sort()} e {@link Keyset#key()} vêm nulos.
+     *
+     * @return {@code null} quando não há cursor
+     */
+    public static Keyset decodeKeyset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (raw.startsWith(PREFIX)) {
+                return new Keyset(null, null, Long.parseLong(raw.substring(PREFIX.length())));
+            }
+            int sortEnd = raw.indexOf(':', KEY_PREFIX.length());
+            int idEnd = sortEnd < 0 ? -1 : raw.indexOf(':', sortEnd + 1);
+            if (!raw.startsWith(KEY_PREFIX) || idEnd < 0) {
+                throw new InvalidCursorException("Cursor de paginação inválido.");
+            }
+            return new Keyset(raw.substring(KEY_PREFIX.length(), sortEnd),
+                    raw.substring(idEnd + 1), Long.parseLong(raw.substring(sortEnd + 1, idEnd)));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Cursor de paginação inválido.");
+        }
+    }
+
+    public record Keyset(String sort, String key, Long id) {
+    }
+}
@@ -1,10 +1,12 @@
 package gerenciar.usuario.desafio.adapter.input.mapper;
 
 import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.request.UserPatchRequest;
 import gerenciar.usuario.desafio.adapter.input.request.UserRequest;
 import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
 import gerenciar.usuario.desafio.domain.entity.User;
 import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.port.output.UserRow;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,7 +18,7 @@ public class UserMapper {
                 .email(request.getEmail())
                 .phone(request.getPhone())
                 .birthDate(request.getBirthDate())
-                .userType(UserType.valueOf(request.getUserType()))
+                .userType(UserType.valueOf(request.getUserType().toUpperCase()))
                 .build();
     }
 
@@ -28,6 +30,7 @@ public class UserMapper {
                 .phone(dto.getPhone())
                 .birthDate(dto.getBirthDate())
                 .userType(dto.getUserType())
+                .version(dto.getVersion())
                 .build();
     }
 
@@ -39,9 +42,25 @@ public class UserMapper {
                 .phone(entity.getPhone())
                 .birthDate(entity.getBirthDate())
                 .userType(entity.getUserType())
+                .version(entity.getVersion())
                 .build();
     }
 
+    public static UserDTO toDTO(UserPatchRequest request) {
+        return UserDTO.builder()
+                .fullName(request.getFullName())
+                .email(request.getEmail())
+                .phone(request.getPhone())
+                .birthDate(request.getBirthDate())
+                .userType(request.getUserType())
+                .build();
+    }
+
+    // Listagens: uma única cópia por linha, sem builder
+    public static UserResponse toResponse(UserRow row) {
+        return new UserResponse(row.id(), row.fullName(), row.email(), row.phone(), row.birthDate(), row.userType());
+    }
+
     public static UserResponse toResponse(UserDTO dto) {
         return UserResponse.builder()
                 .id(dto.getId())
@@ -0,0 +1,34 @@
+package gerenciar.usuario.desafio.adapter.input.mapper;
+
+import gerenciar.usuario.desafio.domain.exception.BadRequestException;
+
+/**
+ * Converte a versão do usuário em ETag ({@code "3"}) e lê a versão esperada do cabeçalho {@code If-Match}.
+ */
+public final class VersionTag {
+
+    private VersionTag() {
+    }
+
+    public static String toETag(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    public static Long fromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            throw new BadRequestException("Cabeçalho If-Match inválido.");
+        }
+    }
+}
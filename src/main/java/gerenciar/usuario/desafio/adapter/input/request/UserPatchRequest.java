@@ -0,0 +1,38 @@
+package gerenciar.usuario.desafio.adapter.input.request;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.domain.utils.ValidPhone;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Campos ausentes (null) não são alterados
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPatchRequest {
+
+    @Pattern(regexp = ".*\\S.*", message = "Nome completo não pode ser vazio")
+    private String fullName;
+
+    @Email(message = "Formato de e-mail inválido. Ex: exemplo@dominio.com")
+    @Pattern(regexp = ".*\\S.*", message = "E-mail não pode ser vazio")
+    private String email;
+
+    @ValidPhone(required = false)
+    private String phone;
+
+    private LocalDate birthDate;
+
+    private UserType userType;
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return fullName == null && email == null && phone == null && birthDate == null && userType == null;
+    }
+}
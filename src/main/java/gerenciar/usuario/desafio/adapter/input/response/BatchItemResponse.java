@@ -0,0 +1,21 @@
+package gerenciar.usuario.desafio.adapter.input.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import gerenciar.usuario.desafio.adapter.input.dto.BatchItemDTO;
+import lombok.*;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResponse {
+
+    private int index;
+    private BatchItemDTO.Status status;
+    private UserResponse result;
+    private Map<String, String> errors;
+}
@@ -0,0 +1,33 @@
+package gerenciar.usuario.desafio.adapter.input.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Soma na fase {@code db} o tempo das chamadas ao {@code UserRepository}, incluindo a espera por conexão do Hikari.
+ * Métodos que devolvem {@code Stream} contam só até a abertura do cursor.
+ */
+@Aspect
+@Component
+public class RepositoryTimingAspect {
+
+    @Around("execution(* gerenciar.usuario.desafio.port.output.UserRepository+.*(..))")
+    public Object time(ProceedingJoinPoint call) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            return call.proceed();
+        }
+        boolean outermost = timings.enterDb();
+        long start = System.nanoTime();
+        try {
+            return call.proceed();
+        } finally {
+            timings.exitDb();
+            if (outermost) {
+                timings.add(RequestTimings.Phase.DB, System.nanoTime() - start);
+            }
+        }
+    }
+}
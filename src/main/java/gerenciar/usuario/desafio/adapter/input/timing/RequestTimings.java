@@ -0,0 +1,142 @@
+package gerenciar.usuario.desafio.adapter.input.timing;
+
+/**
+ * Tempo gasto em cada fase da requisição atual, acumulado na própria thread.
+ *
+ * <p>Validação, banco e serialização são medidos nos pontos em que acontecem; o que sobra do tempo total
+ * (controller, use case, {@code UserMapper}, transação) aparece como {@code app}.
+ */
+public final class RequestTimings {
+
+    public static final String HEADER = "Server-Timing";
+
+    public enum Phase {
+        VALIDATION("validation"),
+        DB("db"),
+        SERIALIZATION("serialization");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final long[] phaseNanos = new long[PHASES.length];
+    private int dbCalls;
+    private int dbDepth;
+
+    private RequestTimings(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    public static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings(System.nanoTime());
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    /**
+     * @return as medições da requisição atual ou {@code null} fora de uma requisição medida
+     */
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    public void add(Phase phase, long nanos) {
+        phaseNanos[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * Soma à requisição atual, se houver, o tempo decorrido desde {@code startNanos}.
+     */
+    public static void addSince(Phase phase, long startNanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.add(phase, System.nanoTime() - startNanos);
+        }
+    }
+
+    public long get(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    /**
+     * Marca a entrada em uma chamada ao banco; só a chamada mais externa deve ser cronometrada.
+     *
+     * @return {@code true} se esta é a chamada mais externa
+     */
+    public boolean enterDb() {
+        if (dbDepth++ == 0) {
+            dbCalls++;
+            return true;
+        }
+        return false;
+    }
+
+    public void exitDb() {
+        dbDepth--;
+    }
+
+    public int dbCalls() {
+        return dbCalls;
+    }
+
+    /**
+     * Tempo não atribuído a nenhuma fase medida.
+     */
+    public long appNanos(long totalNanos) {
+        long measured = 0;
+        for (long nanos : phaseNanos) {
+            measured += nanos;
+        }
+        return Math.max(0, totalNanos - measured);
+    }
+
+    /**
+     * Valor do cabeçalho {@code Server-Timing}, com durações em milissegundos.
+     */
+    public String toHeader(long totalNanos) {
+        StringBuilder header = new StringBuilder(112);
+        for (Phase phase : PHASES) {
+            appendMetric(header, phase.metricName, phaseNanos[phase.ordinal()]).append(", ");
+        }
+        appendMetric(header, "app", appNanos(totalNanos)).append(", ");
+        return appendMetric(header, "total", totalNanos).toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder header, String name, long nanos) {
+        header.append(name).append(";dur=");
+        return appendMillis(header, nanos);
+    }
+
+    // Milissegundos com três casas, sem String.format
+    static StringBuilder appendMillis(StringBuilder out, long nanos) {
+        long micros = nanos / 1_000;
+        long fraction = micros % 1_000;
+        out.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+}
@@ -0,0 +1,81 @@
+package gerenciar.usuario.desafio.adapter.input.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Abre a medição de cada requisição da API, garante o {@code Server-Timing} nas respostas sem corpo JSON
+ * e registra uma amostra das requisições (e todas as lentas) em log estruturado {@code chave=valor}.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean enabled;
+    private final double logSampleRate;
+    private final long slowThresholdNanos;
+
+    public ServerTimingFilter(@Value("${techmanage.timing.enabled:true}") boolean enabled,
+                              @Value("${techmanage.timing.log-sample-rate:0.01}") double logSampleRate,
+                              @Value("${techmanage.timing.slow-threshold:500ms}") Duration slowThreshold) {
+        this.enabled = enabled;
+        this.logSampleRate = logSampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long total = System.nanoTime() - timings.startNanos();
+            if (!response.isCommitted() && !response.containsHeader(RequestTimings.HEADER)) {
+                response.setHeader(RequestTimings.HEADER, timings.toHeader(total));
+            }
+            RequestTimings.end();
+            if (total >= slowThresholdNanos || ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+                logTimings(request, response, timings, total);
+            }
+        }
+    }
+
+    private static void logTimings(HttpServletRequest request, HttpServletResponse response,
+                                   RequestTimings timings, long total) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(192)
+                .append("method=").append(request.getMethod())
+                .append(" uri=").append(request.getRequestURI())
+                .append(" status=").append(response.getStatus())
+                .append(" db_calls=").append(timings.dbCalls());
+        for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+            line.append(' ').append(phase.getMetricName()).append("_ms=");
+            RequestTimings.appendMillis(line, timings.get(phase));
+        }
+        line.append(" app_ms=");
+        RequestTimings.appendMillis(line, timings.appNanos(total));
+        line.append(" total_ms=");
+        RequestTimings.appendMillis(line, total);
+        log.info(line.toString());
+    }
+}
@@ -0,0 +1,54 @@
+package gerenciar.usuario.desafio.adapter.input.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Conversor JSON que mede a serialização e grava o {@code Server-Timing} antes do corpo.
+ *
+ * <p>O cabeçalho precisa sair antes do primeiro byte do corpo, mas o tempo de serialização só é conhecido no fim:
+ * por isso, quando a requisição está sendo medida, o JSON é gerado em memória e copiado para a resposta depois.
+ */
+public class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJacksonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+
+        long start = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        long end = System.nanoTime();
+        timings.add(RequestTimings.Phase.SERIALIZATION, end - start);
+
+        HttpHeaders headers = outputMessage.getHeaders();
+        headers.set(RequestTimings.HEADER, timings.toHeader(end - timings.startNanos()));
+        headers.setContentLength(buffer.size());
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,206 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conjunto imutável de inteiros não negativos no formato dos "roaring bitmaps": os valores são agrupados em blocos
+ * de 65536 pelos 16 bits altos, e cada bloco guarda só os 16 bits baixos, como lista ordenada de {@code char}
+ * (2 bytes por valor) enquanto tiver até {@value #ARRAY_MAX} valores, ou como mapa de bits de 8 KB quando for mais
+ * denso. Blocos sem nenhum valor não ocupam nada.
+ *
+ * <p>É montado uma vez, em ordem crescente, por {@link Builder}, e lido por {@link Union}.
+ */
+final class CompressedBitmap {
+
+    // Acima disso o mapa de bits (1024 longs) fica menor que a lista de chars
+    static final int ARRAY_MAX = 4096;
+
+    private static final int WORDS = 1024;
+
+    private final char[] keys;
+    // char[] ordenado ou long[WORDS], um por chave
+    private final Object[] containers;
+    private final int cardinality;
+
+    private CompressedBitmap(char[] keys, Object[] containers, int cardinality) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinality = cardinality;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    boolean contains(int value) {
+        int index = Arrays.binarySearch(keys, (char) (value >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        char low = (char) value;
+        return containers[index] instanceof long[] words
+                ? (words[low >>> 6] & (1L << low)) != 0
+                : Arrays.binarySearch((char[]) containers[index], low) >= 0;
+    }
+
+    long sizeInBytes() {
+        long bytes = keys.length * 2L;
+        for (Object container : containers) {
+            bytes += container instanceof long[] words ? words.length * 8L : ((char[]) container).length * 2L;
+        }
+        return bytes;
+    }
+
+    static final class Builder {
+
+        private char[] keys = new char[4];
+        private Object[] containers = new Object[4];
+        private int size;
+        private int cardinality;
+
+        private int high = -1;
+        private char[] values = new char[16];
+        private long[] words;
+        private int count;
+        private int last = -1;
+
+        /**
+         * @param value maior que todos os já adicionados
+         */
+        Builder add(int value) {
+            if (value <= last) {
+                throw new IllegalArgumentException("valores fora de ordem: " + value + " depois de " + last);
+            }
+            last = value;
+            int key = value >>> 16;
+            if (key != high) {
+                seal();
+                high = key;
+            }
+            char low = (char) value;
+            if (words != null) {
+                words[low >>> 6] |= 1L << low;
+            } else if (count == ARRAY_MAX) {
+                words = new long[WORDS];
+                for (int i = 0; i < count; i++) {
+                    words[values[i] >>> 6] |= 1L << values[i];
+                }
+                words[low >>> 6] |= 1L << low;
+            } else {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, Math.min(ARRAY_MAX, count * 2));
+                }
+                values[count] = low;
+            }
+            count++;
+            return this;
+        }
+
+        CompressedBitmap build() {
+            seal();
+            return new CompressedBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size), cardinality);
+        }
+
+        private void seal() {
+            if (count == 0) {
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                containers = Arrays.copyOf(containers, size * 2);
+            }
+            keys[size] = (char) high;
+            containers[size] = words != null ? words : Arrays.copyOf(values, count);
+            size++;
+            cardinality += count;
+            values = new char[16];
+            words = null;
+            count = 0;
+        }
+    }
+
+    /**
+     * Percorre em ordem crescente a união de vários bitmaps, um bloco de 65536 por vez: os blocos com a mesma chave
+     * são combinados com OR num mapa de bits de trabalho, sem materializar a união inteira.
+     */
+    static final class Union {
+
+        private final CompressedBitmap[] bitmaps;
+        // Próxima chave ainda não lida de cada bitmap
+        private final int[] positions;
+        private final long[] words = new long[WORDS];
+        private int high = -1;
+        private int word = WORDS;
+
+        Union(List<CompressedBitmap> bitmaps, int start) {
+            this.bitmaps = bitmaps.toArray(CompressedBitmap[]::new);
+            this.positions = new int[this.bitmaps.length];
+            char startKey = (char) (start >>> 16);
+            for (int i = 0; i < this.bitmaps.length; i++) {
+                int index = Arrays.binarySearch(this.bitmaps[i].keys, startKey);
+                positions[i] = index >= 0 ? index : -index - 1;
+            }
+            if (loadNextBlock() && high == start >>> 16) {
+                int low = start & 0xFFFF;
+                Arrays.fill(words, 0, low >>> 6, 0L);
+                words[low >>> 6] &= -1L << low;
+                word = 0;
+            }
+        }
+
+        /**
+         * @return o próximo valor da união, ou {@code -1} no fim
+         */
+        int next() {
+            while (true) {
+                while (word < WORDS) {
+                    long bits = words[word];
+                    if (bits != 0) {
+                        words[word] = bits & (bits - 1);
+                        return (high << 16) | (word << 6) | Long.numberOfTrailingZeros(bits);
+                    }
+                    word++;
+                }
+                if (!loadNextBlock()) {
+                    return -1;
+                }
+            }
+        }
+
+        private boolean loadNextBlock() {
+            int key = Integer.MAX_VALUE;
+            for (int i = 0; i < bitmaps.length; i++) {
+                if (positions[i] < bitmaps[i].keys.length) {
+                    key = Math.min(key, bitmaps[i].keys[positions[i]]);
+                }
+            }
+            if (key == Integer.MAX_VALUE) {
+                return false;
+            }
+            Arrays.fill(words, 0L);
+            for (int i = 0; i < bitmaps.length; i++) {
+                CompressedBitmap bitmap = bitmaps[i];
+                if (positions[i] < bitmap.keys.length && bitmap.keys[positions[i]] == key) {
+                    if (bitmap.containers[positions[i]] instanceof long[] block) {
+                        for (int w = 0; w < WORDS; w++) {
+                            words[w] |= block[w];
+                        }
+                    } else {
+                        for (char low : (char[]) bitmap.containers[positions[i]]) {
+                            words[low >>> 6] |= 1L << low;
+                        }
+                    }
+                    positions[i]++;
+                }
+            }
+            high = key;
+            word = 0;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom dos e-mails normalizados já cadastrados, usado antes do {@code INSERT}.
+ *
+ * <p>Uma resposta negativa é definitiva: o e-mail não existe e o cadastro segue sem consultar o banco. Uma positiva
+ * só diz que o e-mail <em>pode</em> existir e precisa ser confirmada por uma consulta ao índice único; os casos em que
+ * a consulta não encontra nada são os falsos positivos contabilizados em {@link #stats()}.
+ *
+ * <p>O filtro não suporta remoção: exclusões e trocas de e-mail deixam os bits do valor antigo ligados. Isso só custa
+ * uma consulta a mais para aquele e-mail, e a deriva aparece na taxa de falsos positivos observada. Enquanto a carga
+ * inicial não termina, toda consulta responde "talvez".
+ */
+@Component
+public class EmailFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final boolean enabled;
+    private volatile boolean ready;
+
+    private final LongAdder added = new LongAdder();
+    private final LongAdder removed = new LongAdder();
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder truePositives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public EmailFilter(@Value("${techmanage.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                       @Value("${techmanage.email-filter.fpp:0.01}") double fpp) {
+        this.enabled = expectedInsertions > 0;
+        long bits = enabled ? optimalBitCount(expectedInsertions, fpp) : 64;
+        this.words = new AtomicLongArray((int) ((bits + 63) / 64));
+        this.bitCount = words.length() * 64L;
+        this.hashCount = enabled ? Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2))) : 0;
+    }
+
+    /**
+     * @return {@code false} somente quando o e-mail certamente não está cadastrado
+     */
+    public boolean mightContain(String normalizedEmail) {
+        if (!ready) {
+            return true;
+        }
+        long hash = hash(normalizedEmail);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            if (!isSet(index(h1, h2, i))) {
+                negatives.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String normalizedEmail) {
+        if (!enabled || normalizedEmail == null) {
+            return;
+        }
+        long hash = hash(normalizedEmail);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            set(index(h1, h2, i));
+        }
+        added.increment();
+    }
+
+    /**
+     * Resultado da consulta ao banco feita depois de um "talvez".
+     */
+    public void recordLookup(boolean existed) {
+        if (!ready) {
+            return;
+        }
+        if (existed) {
+            truePositives.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    public void recordRemovals(long count) {
+        removed.add(count);
+    }
+
+    /**
+     * Chamado ao fim da carga inicial; a partir daí as respostas negativas passam a valer.
+     */
+    public void markReady() {
+        ready = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Stats stats() {
+        long setBits = 0;
+        for (int i = 0; i < words.length(); i++) {
+            setBits += Long.bitCount(words.get(i));
+        }
+        double estimated = enabled ? Math.pow((double) setBits / bitCount, hashCount) : 1.0;
+        long fp = falsePositives.sum();
+        long tn = negatives.sum();
+        double observed = fp + tn == 0 ? 0.0 : (double) fp / (fp + tn);
+        return new Stats(ready, bitCount, hashCount, added.sum(), removed.sum(),
+                tn, truePositives.sum(), fp, observed, estimated);
+    }
+
+    private int index(int h1, int h2, int i) {
+        int combined = h1 + i * h2;
+        return (int) ((combined & 0x7fffffffL) % bitCount);
+    }
+
+    private boolean isSet(int bit) {
+        return (words.get(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    private void set(int bit) {
+        int word = bit >>> 6;
+        long mask = 1L << bit;
+        long current;
+        while (((current = words.get(word)) & mask) == 0) {
+            if (words.compareAndSet(word, current, current | mask)) {
+                return;
+            }
+        }
+    }
+
+    // FNV-1a de 64 bits seguido do finalizador do MurmurHash3; as duas metades alimentam o hashing duplo
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long optimalBitCount(long expectedInsertions, double fpp) {
+        double bits = -expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2));
+        return Math.min((long) Math.ceil(bits), Integer.MAX_VALUE);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private boolean ready;
+        private long bits;
+        private int hashes;
+        private long added;
+        private long removed;
+        private long negatives;
+        private long truePositives;
+        private long falsePositives;
+        private double falsePositiveRate;
+        private double estimatedFalsePositiveRate;
+    }
+}
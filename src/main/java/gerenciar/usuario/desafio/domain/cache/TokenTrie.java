@@ -0,0 +1,114 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import java.util.Arrays;
+
+/**
+ * Dicionário das palavras indexadas por {@link UserSearchIndex}, em árvore de prefixos: cada palavra distinta recebe
+ * um número na primeira vez que aparece.
+ *
+ * <p>A busca percorre a árvore calculando, nó a nó, uma linha da matriz de distância de edição (Levenshtein) entre o
+ * termo procurado e o caminho até ali. Um ramo é abandonado assim que nenhuma posição da linha cabe no limite de
+ * edições, então o custo depende do termo, e não do tamanho do dicionário. Não é seguro para uso concorrente: quem
+ * usa controla o acesso.
+ */
+final class TokenTrie {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node();
+    private int size;
+
+    /**
+     * Número da palavra, que é incluída se ainda não existir.
+     */
+    int idOf(String token) {
+        Node node = root;
+        for (int i = 0; i < token.length(); i++) {
+            node = node.childOrAdd(token.charAt(i));
+        }
+        if (node.token < 0) {
+            node.token = size++;
+        }
+        return node.token;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Entrega a {@code consumer} cada palavra a no máximo {@code maxEdits} edições de {@code term}, com a menor
+     * distância encontrada. Com {@code prefix}, basta que um prefixo da palavra esteja a essa distância: "ana" encontra
+     * "anabela", e "anq" também, com uma edição.
+     */
+    void match(String term, boolean prefix, int maxEdits, Match consumer) {
+        int[] row = new int[term.length() + 1];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = i;
+        }
+        for (int i = 0; i < root.labels.length; i++) {
+            walk(root.children[i], root.labels[i], row, term, prefix, maxEdits, Integer.MAX_VALUE, consumer);
+        }
+    }
+
+    // inherited: menor distância de um ancestral que já casou como prefixo; tudo abaixo dele casa também
+    private static void walk(Node node, char label, int[] previous, String term, boolean prefix, int maxEdits,
+                             int inherited, Match consumer) {
+        int n = term.length();
+        int[] row = new int[n + 1];
+        row[0] = previous[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i <= n; i++) {
+            int substitution = previous[i - 1] + (term.charAt(i - 1) == label ? 0 : 1);
+            row[i] = Math.min(substitution, Math.min(row[i - 1], previous[i]) + 1);
+            rowMin = Math.min(rowMin, row[i]);
+        }
+        int distance = prefix ? Math.min(inherited, row[n]) : row[n];
+        if (node.token >= 0 && distance <= maxEdits) {
+            consumer.accept(node.token, distance, row[n] == 0);
+        }
+        if (rowMin > maxEdits && !(prefix && distance <= maxEdits)) {
+            return;
+        }
+        int passDown = prefix ? distance : inherited;
+        for (int i = 0; i < node.labels.length; i++) {
+            walk(node.children[i], node.labels[i], row, term, prefix, maxEdits, passDown, consumer);
+        }
+    }
+
+    @FunctionalInterface
+    interface Match {
+        /**
+         * @param whole a palavra é exatamente o termo
+         */
+        void accept(int token, int edits, boolean whole);
+    }
+
+    // Filhos em arrays ordenados pelo caractere: bem menor que um mapa por nó
+    private static final class Node {
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private int token = -1;
+
+        Node childOrAdd(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int at = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newLabels[at] = label;
+            newChildren[at] = new Node();
+            System.arraycopy(labels, at, newLabels, at + 1, labels.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            labels = newLabels;
+            children = newChildren;
+            return newChildren[at];
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache em memória do {@code findById}, limitado por tamanho (LRU) e com TTL opcional.
+ *
+ * <p>As entradas são divididas em partições com trava própria ({@link ReentrantLock}, que não prende a thread
+ * portadora quando a requisição roda em thread virtual) para que leituras concorrentes do endpoint
+ * mais acessado não disputem um único lock. Cada partição guarda um contador de invalidações: quem carregou
+ * do banco só publica o valor se nenhuma escrita invalidou a partição nesse meio tempo, evitando que um
+ * {@code update} seja sobrescrito por uma leitura antiga.
+ *
+ * <p>O {@link UserDTO} tem setters, então o cache guarda uma cópia imutável dos campos e devolve um DTO novo a cada
+ * acerto: quem recebe pode alterá-lo sem afetar as outras requisições.
+ */
+@Component
+public class UserCache {
+
+    private static final int STRIPES = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final long ttlNanos;
+    private final boolean enabled;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UserCache(@Value("${techmanage.cache.user.max-size:10000}") int maxSize,
+                     @Value("${techmanage.cache.user.ttl:0s}") Duration ttl) {
+        this.enabled = maxSize > 0;
+        this.ttlNanos = ttl.isZero() || ttl.isNegative() ? 0 : ttl.toNanos();
+        int perStripe = Math.max(1, maxSize / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    public UserDTO get(Long id) {
+        if (!enabled) {
+            return null;
+        }
+        Stripe stripe = stripeFor(id);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(id);
+            if (entry != null && !entry.isExpired(System.nanoTime())) {
+                hits.increment();
+                return entry.toDTO();
+            }
+            if (entry != null) {
+                stripe.entries.remove(id);
+                evictions.increment();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Diz se o usuário está no cache e ainda vale, sem contar acerto nem falta e sem remover o que expirou.
+     */
+    public boolean contains(Long id) {
+        if (!enabled) {
+            return false;
+        }
+        Stripe stripe = stripeFor(id);
+        stripe.lock.lock();
+        try {
+            Entry entry = stripe.entries.get(id);
+            return entry != null && !entry.isExpired(System.nanoTime());
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Marca o momento da leitura no banco; deve ser chamado antes da consulta e repassado para {@link #put}.
+     */
+    public long stamp(Long id) {
+        Stripe stripe = stripeFor(id);
+        stripe.lock.lock();
+        try {
+            return stripe.invalidations;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void put(Long id, UserDTO value, long stamp) {
+        if (!enabled) {
+            return;
+        }
+        Stripe stripe = stripeFor(id);
+        stripe.lock.lock();
+        try {
+            if (stripe.invalidations != stamp) {
+                return;
+            }
+            long expiresAt = ttlNanos == 0 ? Long.MAX_VALUE : System.nanoTime() + ttlNanos;
+            stripe.entries.put(id, Entry.of(value, expiresAt));
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void evict(Long id) {
+        Stripe stripe = stripeFor(id);
+        stripe.lock.lock();
+        try {
+            stripe.invalidations++;
+            if (stripe.entries.remove(id) != null) {
+                evictions.increment();
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public Stats stats() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.entries.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private Stripe stripeFor(Long id) {
+        return stripes[(Long.hashCode(id) & 0x7fffffff) % STRIPES];
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private long hits;
+        private long misses;
+        private long evictions;
+        private long size;
+    }
+
+    // Só tipos imutáveis: a entrada pode ser lida por várias requisições ao mesmo tempo
+    private record Entry(Long id, String fullName, String email, String phone, LocalDate birthDate,
+                         UserType userType, Long version, long expiresAt) {
+
+        static Entry of(UserDTO dto, long expiresAt) {
+            return new Entry(dto.getId(), dto.getFullName(), dto.getEmail(), dto.getPhone(), dto.getBirthDate(),
+                    dto.getUserType(), dto.getVersion(), expiresAt);
+        }
+
+        UserDTO toDTO() {
+            return new UserDTO(id, fullName, email, phone, birthDate, userType, version);
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt > 0 && expiresAt != Long.MAX_VALUE;
+        }
+    }
+
+    private final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, Entry> entries;
+        private long invalidations;
+
+        private Stripe(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Índice em memória de tipo × ano de nascimento → ids, que responde o {@code GET /api/users/filter} por tipo e faixa
+ * de nascimento (ordenado por id) sem varrer a tabela: a página sai da união dos bitmaps das células pedidas e só as
+ * linhas dela são lidas, por chave primária.
+ *
+ * <p>A base é imutável e montada a partir do banco, na subida e a cada
+ * {@code techmanage.filter-index.rebuild-interval}, com as linhas chegando uma a uma por um {@link Loader}, sem
+ * lista intermediária. Os usuários recebem posições densas na ordem de chegada (0, 1, 2...), e cada célula guarda
+ * as posições dos seus usuários num {@link CompressedBitmap}. Cada shard é um segmento de posições em ordem de id;
+ * a página junta os segmentos pelo id. Ano de nascimento, e não faixa de idade, porque não muda com o tempo: uma faixa de
+ * idade é um intervalo de anos, e só os anos das pontas de um intervalo de datas precisam conferir o dia.
+ *
+ * <p>Cadastros, alterações e exclusões confirmados depois da montagem ficam num mapa ordenado por id que prevalece
+ * sobre a base; a próxima montagem os absorve. O índice só enxerga as escritas feitas nesta instância: com mais de
+ * uma ({@code techmanage.instances}), as páginas deixariam de fora, até a montagem seguinte, os usuários que as
+ * outras cadastraram ou alteraram, por isso ele fica desligado.
+ */
+@Component
+public class UserFilterIndex {
+
+    private static final Set<UserType> ALL_TYPES = EnumSet.allOf(UserType.class);
+
+    private final boolean enabled;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, Change> changes = new ConcurrentSkipListMap<>();
+    private volatile Base base;
+    private volatile LocalDateTime builtAt;
+    private volatile long buildMillis;
+
+    public UserFilterIndex(@Value("${techmanage.filter-index.enabled:true}") boolean enabled,
+                           @Value("${techmanage.instances:1}") int instances) {
+        this.enabled = enabled && instances <= 1;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && base != null;
+    }
+
+    public void put(long id, UserType type, LocalDate birthDate) {
+        if (enabled) {
+            changes.put(id, new Change(type, (int) birthDate.toEpochDay(), sequence.incrementAndGet()));
+        }
+    }
+
+    public void remove(long id) {
+        if (enabled) {
+            changes.put(id, new Change(null, 0, sequence.incrementAndGet()));
+        }
+    }
+
+    /**
+     * Marca o início de uma montagem; deve ser lida antes da consulta ao banco e repassada para {@link #install}.
+     */
+    public long mark() {
+        return sequence.get();
+    }
+
+    /**
+     * Começa uma montagem; as linhas de cada shard entram por {@link Loader#add}, depois de
+     * {@link Loader#startSegment}, e a base só passa a valer em {@link #install}.
+     */
+    public Loader loader() {
+        return new Loader();
+    }
+
+    /**
+     * Troca a base pela montada em {@code loader} e descarta as mudanças registradas até {@code mark}: elas foram
+     * confirmadas antes de a consulta começar e já vieram nela. As posteriores continuam valendo sobre a base.
+     */
+    public void install(long mark, Loader loader) {
+        if (!enabled) {
+            return;
+        }
+        base = loader.build();
+        for (Map.Entry<Long, Change> entry : changes.entrySet()) {
+            if (entry.getValue().sequence() <= mark) {
+                changes.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        buildMillis = (System.nanoTime() - loader.started) / 1_000_000;
+        builtAt = LocalDateTime.now();
+    }
+
+    // Base de um segmento só, para os testes
+    void install(long mark, Collection<UserStatsRow> rows) {
+        Loader loader = loader();
+        loader.startSegment();
+        rows.forEach(loader::add);
+        install(mark, loader);
+    }
+
+    /**
+     * Ids de até {@code max} usuários com tipo em {@code types} (vazio: qualquer um) e nascimento entre
+     * {@code bornFrom} e {@code bornTo} (nulos: sem limite), em ordem crescente e maiores que {@code afterId}.
+     */
+    public List<Long> findIds(Set<UserType> types, LocalDate bornFrom, LocalDate bornTo, Long afterId, int max) {
+        Base current = base;
+        if (current == null) {
+            throw new IllegalStateException("índice de filtros ainda não carregado");
+        }
+        int fromDay = bornFrom == null ? Integer.MIN_VALUE : (int) bornFrom.toEpochDay();
+        int toDay = bornTo == null ? Integer.MAX_VALUE : (int) bornTo.toEpochDay();
+        Set<UserType> wanted = types.isEmpty() ? ALL_TYPES : types;
+
+        List<CompressedBitmap> cells = current.cells(wanted, bornFrom, bornTo);
+        BaseCursor fromBase = new BaseCursor(current, cells, afterId, fromDay, toDay);
+        NavigableMap<Long, Change> pending = afterId == null ? changes : changes.tailMap(afterId, false);
+        Iterator<Map.Entry<Long, Change>> fromChanges = pending.entrySet().iterator();
+
+        List<Long> ids = new ArrayList<>(max);
+        long nextBase = fromBase.next();
+        long nextChange = nextMatch(fromChanges, wanted, fromDay, toDay);
+        while (ids.size() < max && (nextBase >= 0 || nextChange >= 0)) {
+            if (nextChange < 0 || (nextBase >= 0 && nextBase < nextChange)) {
+                ids.add(nextBase);
+                nextBase = fromBase.next();
+            } else {
+                ids.add(nextChange);
+                nextChange = nextMatch(fromChanges, wanted, fromDay, toDay);
+            }
+        }
+        return ids;
+    }
+
+    public Stats stats() {
+        Base current = base;
+        return new Stats(isReady(), current == null ? 0 : current.ids.length, changes.size(),
+                current == null ? 0 : current.sizeInBytes(), builtAt, buildMillis);
+    }
+
+    private static long nextMatch(Iterator<Map.Entry<Long, Change>> iterator, Set<UserType> types,
+                                  int fromDay, int toDay) {
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Change> entry = iterator.next();
+            Change change = entry.getValue();
+            if (change.type() != null && types.contains(change.type())
+                    && change.birthDay() >= fromDay && change.birthDay() <= toDay) {
+                return entry.getKey();
+            }
+        }
+        return -1;
+    }
+
+    // Tipo nulo: usuário excluído
+    private record Change(UserType type, int birthDay, long sequence) {
+    }
+
+    /**
+     * Recebe as linhas da montagem, um segmento (shard) por vez e em ordem crescente de id dentro dele, e já as põe
+     * nos bitmaps: a memória é a da base que está sendo montada, sem guardar as linhas.
+     */
+    public static final class Loader {
+
+        private final long started = System.nanoTime();
+        private final Map<UserType, TreeMap<Integer, CompressedBitmap.Builder>> builders =
+                new EnumMap<>(UserType.class);
+        private long[] ids = new long[1024];
+        private int[] birthDays = new int[1024];
+        private int[] segmentStarts = new int[4];
+        private int segments;
+        private int size;
+
+        private Loader() {
+        }
+
+        public void startSegment() {
+            if (segments == segmentStarts.length) {
+                segmentStarts = Arrays.copyOf(segmentStarts, segments * 2);
+            }
+            segmentStarts[segments++] = size;
+        }
+
+        public void add(UserStatsRow row) {
+            if (segments == 0) {
+                throw new IllegalStateException("startSegment não foi chamado");
+            }
+            if (size > segmentStarts[segments - 1] && row.id() <= ids[size - 1]) {
+                throw new IllegalArgumentException("usuários fora da ordem de id no segmento");
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                birthDays = Arrays.copyOf(birthDays, size * 2);
+            }
+            ids[size] = row.id();
+            birthDays[size] = (int) row.birthDate().toEpochDay();
+            builders.computeIfAbsent(row.userType(), type -> new TreeMap<>())
+                    .computeIfAbsent(row.birthDate().getYear(), year -> CompressedBitmap.builder())
+                    .add(size);
+            size++;
+        }
+
+        private Base build() {
+            Map<UserType, TreeMap<Integer, CompressedBitmap>> cells = new EnumMap<>(UserType.class);
+            builders.forEach((type, years) -> {
+                TreeMap<Integer, CompressedBitmap> built = new TreeMap<>();
+                years.forEach((year, builder) -> built.put(year, builder.build()));
+                cells.put(type, built);
+            });
+            int[] bounds = Arrays.copyOf(segmentStarts, segments + 1);
+            bounds[segments] = size;
+            return new Base(Arrays.copyOf(ids, size), Arrays.copyOf(birthDays, size), bounds, cells);
+        }
+    }
+
+    private static final class Base {
+
+        private final long[] ids;
+        private final int[] birthDays;
+        // Início de cada segmento, mais o fim do último
+        private final int[] segmentBounds;
+        private final Map<UserType, TreeMap<Integer, CompressedBitmap>> cells;
+
+        private Base(long[] ids, int[] birthDays, int[] segmentBounds,
+                     Map<UserType, TreeMap<Integer, CompressedBitmap>> cells) {
+            this.ids = ids;
+            this.birthDays = birthDays;
+            this.segmentBounds = segmentBounds;
+            this.cells = cells;
+        }
+
+        List<CompressedBitmap> cells(Set<UserType> types, LocalDate bornFrom, LocalDate bornTo) {
+            int fromYear = bornFrom == null ? Integer.MIN_VALUE : bornFrom.getYear();
+            int toYear = bornTo == null ? Integer.MAX_VALUE : bornTo.getYear();
+            List<CompressedBitmap> selected = new ArrayList<>();
+            if (fromYear > toYear) {
+                return selected;
+            }
+            for (UserType type : types) {
+                TreeMap<Integer, CompressedBitmap> years = cells.get(type);
+                if (years != null) {
+                    selected.addAll(years.subMap(fromYear, true, toYear, true).values());
+                }
+            }
+            return selected;
+        }
+
+        long sizeInBytes() {
+            long bytes = ids.length * 8L + birthDays.length * 4L;
+            for (TreeMap<Integer, CompressedBitmap> years : cells.values()) {
+                for (CompressedBitmap bitmap : years.values()) {
+                    bytes += bitmap.sizeInBytes();
+                }
+            }
+            return bytes;
+        }
+    }
+
+    // Ids da base em ordem crescente: cada segmento é percorrido na ordem das posições, e o menor id entre eles sai
+    // primeiro. Pula os que têm mudança registrada (ela prevalece) e, nos anos das pontas, os nascidos fora do
+    // intervalo de datas
+    private final class BaseCursor {
+
+        private final Base base;
+        private final CompressedBitmap.Union[] unions;
+        private final long[] heads;
+        private final int fromDay;
+        private final int toDay;
+
+        BaseCursor(Base base, List<CompressedBitmap> cells, Long afterId, int fromDay, int toDay) {
+            this.base = base;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            int segments = base.segmentBounds.length - 1;
+            this.unions = new CompressedBitmap.Union[segments];
+            this.heads = new long[segments];
+            for (int segment = 0; segment < segments; segment++) {
+                int start = base.segmentBounds[segment];
+                if (afterId != null) {
+                    int found = Arrays.binarySearch(base.ids, start, base.segmentBounds[segment + 1], afterId);
+                    start = found >= 0 ? found + 1 : -found - 1;
+                }
+                unions[segment] = new CompressedBitmap.Union(cells, start);
+                heads[segment] = advance(segment);
+            }
+        }
+
+        long next() {
+            int lowest = -1;
+            for (int segment = 0; segment < heads.length; segment++) {
+                if (heads[segment] >= 0 && (lowest < 0 || heads[segment] < heads[lowest])) {
+                    lowest = segment;
+                }
+            }
+            if (lowest < 0) {
+                return -1;
+            }
+            long id = heads[lowest];
+            heads[lowest] = advance(lowest);
+            return id;
+        }
+
+        private long advance(int segment) {
+            int end = base.segmentBounds[segment + 1];
+            CompressedBitmap.Union union = unions[segment];
+            for (int position = union.next(); position >= 0 && position < end; position = union.next()) {
+                int birthDay = base.birthDays[position];
+                long id = base.ids[position];
+                if (birthDay >= fromDay && birthDay <= toDay && !changes.containsKey(id)) {
+                    return id;
+                }
+            }
+            return -1;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private boolean ready;
+        private int indexedUsers;
+        private int pendingChanges;
+        private long sizeInBytes;
+        private LocalDateTime builtAt;
+        private long buildMillis;
+    }
+}
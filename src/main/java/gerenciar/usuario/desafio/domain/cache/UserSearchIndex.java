@@ -0,0 +1,516 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import gerenciar.usuario.desafio.domain.utils.Names;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido em memória das palavras do nome e do e-mail, que atende o {@code GET /api/users/search} sem
+ * {@code LIKE '%...%'} no banco.
+ *
+ * <p>Nome e e-mail passam por {@link Names#normalize} e são quebrados em palavras em tudo que não é letra ou dígito
+ * ("joao.silva@email.com" vira joao, silva, email, com). Cada palavra distinta fica num {@link TokenTrie} e aponta
+ * para a lista, em ordem, dos documentos que a contêm. Um documento é a versão indexada de um usuário; alterar nome
+ * ou e-mail cria outro e marca o anterior como excluído.
+ *
+ * <p>Cada palavra da busca precisa casar com alguma palavra do usuário: igual, como prefixo (só a última, que o
+ * cliente ainda pode estar digitando) ou com até uma edição (palavras de 4 a 7 letras) ou duas (8 ou mais). O
+ * resultado são os {@code k} usuários de maior pontuação, somada por palavra: igual vale mais que prefixo, que vale
+ * mais que com erro de digitação.
+ *
+ * <p>O índice é montado por uma leitura em streaming na subida e remontado periodicamente, o que descarta os
+ * documentos excluídos e traz as escritas feitas por outras instâncias. Durante a remontagem, o índice em uso continua
+ * respondendo e as escritas confirmadas vão para os dois.
+ */
+@Component
+public class UserSearchIndex {
+
+    // Termos de até 3 letras sem erro, até 7 com um e, acima disso, dois
+    private static final int ONE_EDIT_FROM = 4;
+    private static final int TWO_EDITS_FROM = 8;
+    private static final int MAX_TERMS = 8;
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private static final int SCORE_WHOLE = 4;
+    private static final int SCORE_PREFIX = 3;
+    private static final int SCORE_ONE_EDIT = 2;
+    private static final int SCORE_TWO_EDITS = 1;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private volatile Index live;
+    private volatile Index loading;
+    private volatile LocalDateTime builtAt;
+    private volatile long buildMillis;
+    private long loadStarted;
+
+    public boolean isReady() {
+        return live != null;
+    }
+
+    // As escritas leem loading antes de live: na troca, live recebe o novo índice antes de loading ser limpo, então
+    // nenhuma escrita fica sem chegar ao índice que vai continuar em uso
+
+    public void put(long id, String fullName, String email) {
+        Index next = loading;
+        if (next != null) {
+            next.put(id, fullName, email);
+        }
+        Index current = live;
+        if (current != null) {
+            current.put(id, fullName, email);
+        }
+    }
+
+    /**
+     * Troca só os campos não nulos; os outros continuam os já indexados.
+     */
+    public void update(long id, String fullName, String email) {
+        Index next = loading;
+        if (next != null) {
+            next.update(id, fullName, email);
+        }
+        Index current = live;
+        if (current != null) {
+            current.update(id, fullName, email);
+        }
+    }
+
+    public void remove(long id) {
+        Index next = loading;
+        if (next != null) {
+            next.remove(id);
+        }
+        Index current = live;
+        if (current != null) {
+            current.remove(id);
+        }
+    }
+
+    /**
+     * Começa uma montagem; as linhas lidas do banco chegam por {@link #load} e a troca acontece em
+     * {@link #finishLoading}.
+     */
+    public synchronized void startLoading() {
+        if (loading != null) {
+            throw new IllegalStateException("montagem do índice de busca já em andamento");
+        }
+        loadStarted = System.nanoTime();
+        loading = new Index(true);
+    }
+
+    /**
+     * Uma linha da leitura em streaming. Escritas confirmadas durante a montagem já chegaram ao índice novo e valem
+     * mais que a linha, que pode ter sido lida antes delas.
+     */
+    public void load(long id, String fullName, String email) {
+        loading.load(id, fullName, email);
+    }
+
+    public synchronized void finishLoading() {
+        Index loaded = loading;
+        loaded.finishLoading();
+        live = loaded;
+        loading = null;
+        buildMillis = (System.nanoTime() - loadStarted) / 1_000_000;
+        builtAt = LocalDateTime.now();
+    }
+
+    public synchronized void abortLoading() {
+        loading = null;
+    }
+
+    /**
+     * Ids dos até {@code k} usuários que mais combinam com {@code query}, do mais para o menos relevante; empate
+     * fica com o id menor.
+     */
+    public List<Long> search(String query, int k) {
+        Index current = live;
+        if (current == null) {
+            throw new IllegalStateException("índice de busca ainda não carregado");
+        }
+        List<String> terms = tokenize(query);
+        if (terms.size() > MAX_TERMS) {
+            terms = terms.subList(0, MAX_TERMS);
+        }
+        return terms.isEmpty() ? List.of() : current.search(terms, k);
+    }
+
+    public Stats stats() {
+        Index current = live;
+        if (current == null) {
+            return new Stats(false, 0, 0, 0, null, 0);
+        }
+        return current.stats(builtAt, buildMillis);
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : SEPARATORS.split(Names.normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token);
+            }
+        }
+        return tokens;
+    }
+
+    private static int maxEdits(String term) {
+        return term.length() >= TWO_EDITS_FROM ? 2 : term.length() >= ONE_EDIT_FROM ? 1 : 0;
+    }
+
+    private static int score(int edits, boolean whole) {
+        if (whole) {
+            return SCORE_WHOLE;
+        }
+        return switch (edits) {
+            case 0 -> SCORE_PREFIX;
+            case 1 -> SCORE_ONE_EDIT;
+            default -> SCORE_TWO_EDITS;
+        };
+    }
+
+    // Primeira posição a partir de from com documento >= doc: salta dobrando a distância e termina com busca binária,
+    // então avançar por uma lista longa até documentos esparsos custa log da distância, e não a distância
+    static int seek(int[] list, int from, int size, int doc) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && list[high] < doc) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        int found = Arrays.binarySearch(list, low, high, doc);
+        return found >= 0 ? found : -found - 1;
+    }
+
+    // Documentos candidatos em ordem crescente, com a pontuação somada até aqui
+    private static final class Candidates {
+
+        private int[] docs = new int[64];
+        private int[] totals = new int[64];
+        private int count;
+
+        void addOrKeepBest(int doc, int score) {
+            if (count > 0 && docs[count - 1] == doc) {
+                totals[count - 1] = Math.max(totals[count - 1], score);
+                return;
+            }
+            if (count == docs.length) {
+                docs = Arrays.copyOf(docs, count * 2);
+                totals = Arrays.copyOf(totals, count * 2);
+            }
+            docs[count] = doc;
+            totals[count++] = score;
+        }
+    }
+
+    private static final class Index {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TokenTrie trie = new TokenTrie();
+        private final Map<Long, Integer> docOf = new HashMap<>();
+        private final BitSet deleted = new BitSet();
+
+        // Por palavra: documentos que a contêm, em ordem crescente (documentos novos sempre têm número maior)
+        private int[][] postings = new int[1024][];
+        private int[] postingSizes = new int[1024];
+
+        // Por documento
+        private long[] userIds = new long[1024];
+        private int[][] nameTokens = new int[1024][];
+        private int[][] emailTokens = new int[1024][];
+        private int docs;
+
+        // Só durante a montagem: usuários excluídos e alterações parciais que a leitura do banco não pode desfazer
+        private Set<Long> removedWhileLoading;
+        private Map<Long, String[]> updatedWhileLoading;
+
+        Index(boolean loading) {
+            if (loading) {
+                removedWhileLoading = new HashSet<>();
+                updatedWhileLoading = new HashMap<>();
+            }
+        }
+
+        void put(long id, String fullName, String email) {
+            lock.writeLock().lock();
+            try {
+                if (removedWhileLoading != null) {
+                    removedWhileLoading.remove(id);
+                    updatedWhileLoading.remove(id);
+                }
+                index(id, tokenIds(fullName), tokenIds(email));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void update(long id, String fullName, String email) {
+            lock.writeLock().lock();
+            try {
+                Integer doc = docOf.get(id);
+                if (doc != null) {
+                    index(id, fullName != null ? tokenIds(fullName) : nameTokens[doc],
+                            email != null ? tokenIds(email) : emailTokens[doc]);
+                } else if (fullName != null && email != null) {
+                    index(id, tokenIds(fullName), tokenIds(email));
+                } else if (updatedWhileLoading != null) {
+                    // A linha ainda não lida do banco pode ser anterior a esta alteração: fica guardada para ela
+                    updatedWhileLoading.merge(id, new String[]{fullName, email}, (previous, latest) -> new String[]{
+                            latest[0] != null ? latest[0] : previous[0],
+                            latest[1] != null ? latest[1] : previous[1]});
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                Integer doc = docOf.remove(id);
+                if (doc != null) {
+                    deleted.set(doc);
+                }
+                if (removedWhileLoading != null) {
+                    removedWhileLoading.add(id);
+                    updatedWhileLoading.remove(id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void load(long id, String fullName, String email) {
+            lock.writeLock().lock();
+            try {
+                if (docOf.containsKey(id) || removedWhileLoading.contains(id)) {
+                    return;
+                }
+                String[] updated = updatedWhileLoading.remove(id);
+                if (updated != null) {
+                    fullName = updated[0] != null ? updated[0] : fullName;
+                    email = updated[1] != null ? updated[1] : email;
+                }
+                index(id, tokenIds(fullName), tokenIds(email));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void finishLoading() {
+            lock.writeLock().lock();
+            try {
+                removedWhileLoading = null;
+                updatedWhileLoading = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Long> search(List<String> terms, int k) {
+            lock.readLock().lock();
+            try {
+                // Palavras da busca da mais seletiva para a menos: a primeira define os candidatos, as outras filtram
+                List<List<int[]>> matches = new ArrayList<>();
+                for (int i = 0; i < terms.size(); i++) {
+                    matches.add(matchesOf(terms.get(i), i == terms.size() - 1));
+                }
+                matches.sort(Comparator.comparingLong(this::postingCount));
+
+                Candidates candidates = candidatesOf(matches.get(0));
+                for (int m = 1; m < matches.size() && candidates.count > 0; m++) {
+                    keepMatching(candidates, matches.get(m));
+                }
+                return topK(candidates, k);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Stats stats(LocalDateTime builtAt, long buildMillis) {
+            lock.readLock().lock();
+            try {
+                return new Stats(true, docOf.size(), trie.size(), docs - docOf.size(), builtAt, buildMillis);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Pares {palavra, pontuação} do dicionário que casam com o termo
+        private List<int[]> matchesOf(String term, boolean prefix) {
+            List<int[]> found = new ArrayList<>();
+            trie.match(term, prefix, maxEdits(term), (token, edits, whole) -> {
+                if (token < postingSizes.length && postingSizes[token] > 0) {
+                    found.add(new int[]{token, score(edits, whole)});
+                }
+            });
+            return found;
+        }
+
+        private long postingCount(List<int[]> matched) {
+            long total = 0;
+            for (int[] match : matched) {
+                total += postingSizes[match[0]];
+            }
+            return total;
+        }
+
+        // União das listas das palavras casadas, que já estão em ordem: intercala as listas e fica com a melhor
+        // pontuação de cada documento. Só percorre os documentos dessas listas, e os excluídos ficam de fora
+        private Candidates candidatesOf(List<int[]> matched) {
+            Candidates candidates = new Candidates();
+            // Cabeças das listas: {índice em matched, posição}, com o menor documento no topo
+            PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, matched.size()),
+                    Comparator.comparingInt(head -> postings[matched.get(head[0])[0]][head[1]]));
+            for (int t = 0; t < matched.size(); t++) {
+                heads.add(new int[]{t, 0});
+            }
+            while (!heads.isEmpty()) {
+                int[] head = heads.poll();
+                int[] match = matched.get(head[0]);
+                int doc = postings[match[0]][head[1]];
+                if (!deleted.get(doc)) {
+                    candidates.addOrKeepBest(doc, match[1]);
+                }
+                if (++head[1] < postingSizes[match[0]]) {
+                    heads.add(head);
+                }
+            }
+            return candidates;
+        }
+
+        // Fica com os candidatos que alguma das palavras casadas contém, somando a melhor pontuação entre elas. Os
+        // candidatos estão em ordem, então cada lista é percorrida uma vez, aos saltos, sem olhar os outros documentos
+        private void keepMatching(Candidates candidates, List<int[]> matched) {
+            int[] positions = new int[matched.size()];
+            int kept = 0;
+            for (int c = 0; c < candidates.count; c++) {
+                int doc = candidates.docs[c];
+                int best = 0;
+                for (int t = 0; t < matched.size(); t++) {
+                    int token = matched.get(t)[0];
+                    int position = seek(postings[token], positions[t], postingSizes[token], doc);
+                    positions[t] = position;
+                    if (position < postingSizes[token] && postings[token][position] == doc) {
+                        best = Math.max(best, matched.get(t)[1]);
+                    }
+                }
+                if (best > 0) {
+                    candidates.docs[kept] = doc;
+                    candidates.totals[kept++] = candidates.totals[c] + best;
+                }
+            }
+            candidates.count = kept;
+        }
+
+        private List<Long> topK(Candidates candidates, int k) {
+            // Heap com o pior dos k melhores no topo
+            Comparator<int[]> ranking = Comparator.<int[]>comparingInt(entry -> entry[1])
+                    .thenComparing(entry -> -userIds[entry[0]]);
+            PriorityQueue<int[]> heap = new PriorityQueue<>(ranking);
+            for (int c = 0; c < candidates.count; c++) {
+                int[] entry = {candidates.docs[c], candidates.totals[c]};
+                if (heap.size() < k) {
+                    heap.add(entry);
+                } else if (ranking.compare(entry, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(entry);
+                }
+            }
+            List<int[]> ranked = new ArrayList<>(heap);
+            ranked.sort(ranking.reversed());
+            List<Long> ids = new ArrayList<>(ranked.size());
+            ranked.forEach(entry -> ids.add(userIds[entry[0]]));
+            return ids;
+        }
+
+        private int[] tokenIds(String text) {
+            List<String> tokens = tokenize(text);
+            int[] ids = new int[tokens.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = trie.idOf(tokens.get(i));
+            }
+            return ids;
+        }
+
+        // Novo documento para o usuário; o anterior, se houver, sai das buscas
+        private void index(long id, int[] name, int[] email) {
+            Integer previous = docOf.get(id);
+            if (previous != null) {
+                if (Arrays.equals(nameTokens[previous], name) && Arrays.equals(emailTokens[previous], email)) {
+                    return;
+                }
+                deleted.set(previous);
+            }
+            int doc = docs++;
+            if (doc == userIds.length) {
+                userIds = Arrays.copyOf(userIds, doc * 2);
+                nameTokens = Arrays.copyOf(nameTokens, doc * 2);
+                emailTokens = Arrays.copyOf(emailTokens, doc * 2);
+            }
+            userIds[doc] = id;
+            nameTokens[doc] = name;
+            emailTokens[doc] = email;
+            docOf.put(id, doc);
+
+            int[] distinct = new int[name.length + email.length];
+            System.arraycopy(name, 0, distinct, 0, name.length);
+            System.arraycopy(email, 0, distinct, name.length, email.length);
+            Arrays.sort(distinct);
+            for (int i = 0; i < distinct.length; i++) {
+                if (i == 0 || distinct[i] != distinct[i - 1]) {
+                    addPosting(distinct[i], doc);
+                }
+            }
+        }
+
+        private void addPosting(int token, int doc) {
+            if (token >= postings.length) {
+                int size = Math.max(token + 1, postings.length * 2);
+                postings = Arrays.copyOf(postings, size);
+                postingSizes = Arrays.copyOf(postingSizes, size);
+            }
+            int[] list = postings[token];
+            if (list == null) {
+                list = new int[2];
+                postings[token] = list;
+            } else if (postingSizes[token] == list.length) {
+                list = Arrays.copyOf(list, list.length * 2);
+                postings[token] = list;
+            }
+            list[postingSizes[token]++] = doc;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private boolean ready;
+        private int indexedUsers;
+        private int distinctTokens;
+        private int staleDocuments;
+        private LocalDateTime builtAt;
+        private long buildMillis;
+    }
+}
@@ -0,0 +1,7 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+/**
+ * Os campos de um usuário que entram em {@link UserSearchIndex}, lidos na carga do índice.
+ */
+public record UserSearchRow(Long id, String fullName, String email) {
+}
@@ -0,0 +1,177 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de usuários por tipo e ano de nascimento, mantidos em memória a cada cadastro, alteração e exclusão
+ * confirmados. Servem o {@code GET /api/users/stats} sem consultar a tabela.
+ *
+ * <p>Cada célula (tipo, ano) é um {@link LongAdder}, então escritas concorrentes não disputam o mesmo campo. Os
+ * totais por tipo e as faixas de idade são somados na leitura; a idade é a que o usuário completa no ano corrente.
+ *
+ * <p>Os contadores começam zerados e são acertados por {@link #reconcile} contra um {@code GROUP BY} no banco, na
+ * subida e depois periodicamente. Até a primeira reconciliação, {@link Stats#isReady()} é {@code false}.
+ */
+@Component
+public class UserStats {
+
+    private static final int[] AGE_RANGE_STARTS = {0, 18, 25, 35, 45, 55, 65};
+
+    private final Map<UserType, ConcurrentHashMap<Integer, LongAdder>> cells = new EnumMap<>(UserType.class);
+    private final Clock clock;
+    private volatile boolean ready;
+    private volatile LocalDateTime reconciledAt;
+    private volatile long lastCorrection;
+
+    public UserStats() {
+        this(Clock.systemDefaultZone());
+    }
+
+    UserStats(Clock clock) {
+        this.clock = clock;
+        for (UserType type : UserType.values()) {
+            cells.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    public void add(UserType type, LocalDate birthDate) {
+        cell(type, birthDate.getYear()).increment();
+    }
+
+    public void remove(UserType type, LocalDate birthDate) {
+        cell(type, birthDate.getYear()).decrement();
+    }
+
+    public void move(UserType fromType, LocalDate fromBirthDate, UserType toType, LocalDate toBirthDate) {
+        if (fromType != toType || fromBirthDate.getYear() != toBirthDate.getYear()) {
+            remove(fromType, fromBirthDate);
+            add(toType, toBirthDate);
+        }
+    }
+
+    /**
+     * Valor atual de cada célula; deve ser tirado antes da consulta ao banco e repassado para {@link #reconcile}.
+     */
+    public Map<UserType, Map<Integer, Long>> snapshot() {
+        Map<UserType, Map<Integer, Long>> snapshot = new EnumMap<>(UserType.class);
+        cells.forEach((type, years) -> {
+            Map<Integer, Long> values = new HashMap<>();
+            years.forEach((year, counter) -> values.put(year, counter.sum()));
+            snapshot.put(type, values);
+        });
+        return snapshot;
+    }
+
+    /**
+     * Acerta cada célula pela contagem do banco. Uma célula que mudou desde {@code before} tinha escritas em curso
+     * durante a consulta e fica para a próxima rodada; nas demais a diferença é somada, sem sobrescrever
+     * incrementos que cheguem no meio do acerto.
+     *
+     * @return soma das correções aplicadas, em valor absoluto
+     */
+    public long reconcile(Map<UserType, Map<Integer, Long>> before, Collection<UserStatsCount> database) {
+        Map<UserType, Map<Integer, Long>> counted = new EnumMap<>(UserType.class);
+        for (UserStatsCount count : database) {
+            counted.computeIfAbsent(count.userType(), type -> new HashMap<>())
+                    .merge(count.birthYear(), count.total(), Long::sum);
+        }
+
+        long correction = 0;
+        for (UserType type : UserType.values()) {
+            Map<Integer, Long> expected = counted.getOrDefault(type, Map.of());
+            Map<Integer, Long> previous = before.getOrDefault(type, Map.of());
+            Set<Integer> years = new HashSet<>(expected.keySet());
+            years.addAll(cells.get(type).keySet());
+            for (Integer year : years) {
+                LongAdder counter = cell(type, year);
+                long current = counter.sum();
+                if (current != previous.getOrDefault(year, 0L)) {
+                    continue;
+                }
+                long delta = expected.getOrDefault(year, 0L) - current;
+                if (delta != 0) {
+                    counter.add(delta);
+                    correction += Math.abs(delta);
+                }
+            }
+        }
+        lastCorrection = correction;
+        reconciledAt = LocalDateTime.now(clock);
+        ready = true;
+        return correction;
+    }
+
+    public Stats stats() {
+        int currentYear = LocalDate.now(clock).getYear();
+        Map<UserType, Long> byType = new EnumMap<>(UserType.class);
+        Map<Integer, Long> byBirthYear = new TreeMap<>();
+        Map<String, Long> byAgeRange = new LinkedHashMap<>();
+        for (int i = 0; i < AGE_RANGE_STARTS.length; i++) {
+            byAgeRange.put(ageRangeLabel(i), 0L);
+        }
+
+        long total = 0;
+        for (Map.Entry<UserType, ConcurrentHashMap<Integer, LongAdder>> entry : cells.entrySet()) {
+            long ofType = 0;
+            for (Map.Entry<Integer, LongAdder> cell : entry.getValue().entrySet()) {
+                long value = cell.getValue().sum();
+                if (value == 0) {
+                    continue;
+                }
+                ofType += value;
+                byBirthYear.merge(cell.getKey(), value, Long::sum);
+                byAgeRange.merge(ageRangeLabel(ageRangeIndex(currentYear - cell.getKey())), value, Long::sum);
+            }
+            byType.put(entry.getKey(), ofType);
+            total += ofType;
+        }
+        return new Stats(ready, total, byType, byAgeRange, byBirthYear, reconciledAt, lastCorrection);
+    }
+
+    private LongAdder cell(UserType type, int year) {
+        return cells.get(type).computeIfAbsent(year, key -> new LongAdder());
+    }
+
+    private static int ageRangeIndex(int age) {
+        int index = 0;
+        while (index + 1 < AGE_RANGE_STARTS.length && age >= AGE_RANGE_STARTS[index + 1]) {
+            index++;
+        }
+        return index;
+    }
+
+    private static String ageRangeLabel(int index) {
+        return index + 1 < AGE_RANGE_STARTS.length
+                ? AGE_RANGE_STARTS[index] + "-" + (AGE_RANGE_STARTS[index + 1] - 1)
+                : AGE_RANGE_STARTS[index] + "+";
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Stats {
+        private boolean ready;
+        private long total;
+        private Map<UserType, Long> byType;
+        private Map<String, Long> byAgeRange;
+        private Map<Integer, Long> byBirthYear;
+        private LocalDateTime reconciledAt;
+        private long lastCorrection;
+    }
+}
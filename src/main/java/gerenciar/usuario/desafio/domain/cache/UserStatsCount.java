@@ -0,0 +1,9 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import gerenciar.usuario.desafio.domain.entity.UserType;
+
+/**
+ * Quantidade de usuários de um tipo nascidos em um ano, como vem do {@code GROUP BY} da reconciliação.
+ */
+public record UserStatsCount(UserType userType, Integer birthYear, Long total) {
+}
@@ -0,0 +1,12 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import gerenciar.usuario.desafio.domain.entity.UserType;
+
+import java.time.LocalDate;
+
+/**
+ * Os campos de um usuário que entram em {@link UserStats}, lidos antes de uma alteração ou exclusão, e a versão da
+ * linha: lida travada antes do {@code PUT} sem {@code If-Match}, ela dá a versão gravada sem uma releitura.
+ */
+public record UserStatsRow(Long id, UserType userType, LocalDate birthDate, Long version) {
+}
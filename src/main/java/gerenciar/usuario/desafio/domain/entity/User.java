@@ -1,6 +1,9 @@
 package gerenciar.usuario.desafio.domain.entity;
 
 
+import gerenciar.usuario.desafio.domain.utils.Emails;
+import gerenciar.usuario.desafio.domain.utils.Names;
+import gerenciar.usuario.desafio.domain.utils.PhoneNumbers;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,7 +11,17 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "users", uniqueConstraints = {
-        @UniqueConstraint(name = "UK_user_email", columnNames = "email")
+        // A unicidade vale para a forma normalizada: Foo@x.com e foo@x.com são o mesmo e-mail
+        @UniqueConstraint(name = User.EMAIL_UNIQUE_KEY, columnNames = "emailNormalized")
+}, indexes = {
+        // No InnoDB o índice secundário já carrega o id, atendendo user_type = ? AND id > ? ORDER BY id
+        @Index(name = "IDX_user_type", columnList = "userType"),
+        @Index(name = "IDX_user_phone_e164", columnList = "phoneE164"),
+        // Filtro combinado (GET /api/users/filter): tipo + faixa de nascimento, faixa de nascimento sozinha e
+        // prefixo do nome; com o id no fim de cada índice, a ordenação (chave, id) do keyset sai do próprio índice
+        @Index(name = "IDX_user_type_birth_date", columnList = "userType, birthDate"),
+        @Index(name = "IDX_user_birth_date", columnList = "birthDate"),
+        @Index(name = "IDX_user_name_normalized", columnList = "nameNormalized")
 })
 @Getter
 @Setter
@@ -17,23 +30,50 @@ import java.time.LocalDate;
 @Builder
 public class User {
 
+    public static final String EMAIL_UNIQUE_KEY = "UK_user_email_normalized";
+
+    // Gerado na aplicação (UserIds): não custa ida ao banco, mantém o batch de inserts e é único entre shards
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @UserId
     private Long id;
 
     @Column(nullable = false)
     private String fullName;
 
-    @Column(nullable = false, unique = true)
+    // Nome sem acentos, em minúsculas e com espaços simples, derivado de fullName (ver Names.normalize). No MySQL
+    // a coluna usa a collation utf8mb4_bin, para o banco ordenar como Names.BINARY_ORDER (ver README)
+    @Column(nullable = false)
+    private String nameNormalized;
+
+    @Column(nullable = false)
     private String email;
 
+    // E-mail sem espaços nas pontas e em minúsculas, derivado de email
+    @Column(nullable = false)
+    private String emailNormalized;
+
     @Column(nullable = false)
     private String phone;
 
+    // Telefone em E.164 (só dígitos) derivado de phone; é a coluna usada nas buscas por telefone
+    private Long phoneE164;
+
     @Column(nullable = false)
     private LocalDate birthDate;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private UserType userType;
-}
\ No newline at end of file
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void syncDerivedColumns() {
+        nameNormalized = Names.normalize(fullName);
+        emailNormalized = Emails.normalize(email);
+        phoneE164 = PhoneNumbers.toE164(phone);
+    }
+}
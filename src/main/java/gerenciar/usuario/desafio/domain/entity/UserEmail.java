@@ -0,0 +1,29 @@
+package gerenciar.usuario.desafio.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Reserva de um e-mail normalizado para um usuário, guardada no shard dono do e-mail (ver
+ * {@code UserShards.shardOfEmail}). Com mais de um shard, a chave única de {@code users} só vale dentro de cada
+ * banco; é a chave primária desta tabela que impede o mesmo e-mail em dois shards.
+ *
+ * <p>Reservas de usuários excluídos ou que trocaram de e-mail não são apagadas: quem pedir o e-mail depois assume a
+ * reserva, depois de conferir que o dono antigo já não o usa.
+ */
+@Entity
+@Table(name = UserEmail.TABLE)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEmail {
+
+    public static final String TABLE = "user_emails";
+
+    @Id
+    private String emailNormalized;
+
+    @Column(nullable = false)
+    private Long userId;
+}
@@ -0,0 +1,33 @@
+package gerenciar.usuario.desafio.domain.entity;
+
+import gerenciar.usuario.desafio.domain.utils.UserIds;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+
+/**
+ * Gerador do {@code @UserId}. O use case atribui o id antes de salvar, porque o shard sai do id; este gerador só
+ * completa os cadastros feitos sem id.
+ */
+public class UserIdGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        Long assigned = owner instanceof User user ? user.getId() : null;
+        return assigned != null ? assigned : UserIds.next();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
@@ -0,0 +1,7 @@
+package gerenciar.usuario.desafio.domain.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
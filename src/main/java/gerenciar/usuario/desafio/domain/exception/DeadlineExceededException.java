@@ -0,0 +1,7 @@
+package gerenciar.usuario.desafio.domain.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
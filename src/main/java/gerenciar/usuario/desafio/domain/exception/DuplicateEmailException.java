@@ -0,0 +1,7 @@
+package gerenciar.usuario.desafio.domain.exception;
+
+public class DuplicateEmailException extends BadRequestException {
+    public DuplicateEmailException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package gerenciar.usuario.desafio.domain.exception;
+
+public class InvalidCursorException extends BadRequestException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
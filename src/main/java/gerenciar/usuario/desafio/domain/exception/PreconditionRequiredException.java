@@ -0,0 +1,7 @@
+package gerenciar.usuario.desafio.domain.exception;
+
+public class PreconditionRequiredException extends RuntimeException {
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
@@ -1,73 +1,1002 @@
 package gerenciar.usuario.desafio.domain.usecase;
 
+import gerenciar.usuario.desafio.adapter.input.dto.BatchItemDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.BulkDeleteDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.CursorPage;
 import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
 import gerenciar.usuario.desafio.adapter.input.mapper.UserMapper;
+import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
+import gerenciar.usuario.desafio.domain.cache.EmailFilter;
+import gerenciar.usuario.desafio.domain.cache.UserCache;
+import gerenciar.usuario.desafio.domain.cache.UserFilterIndex;
+import gerenciar.usuario.desafio.domain.cache.UserSearchIndex;
+import gerenciar.usuario.desafio.domain.cache.UserSearchRow;
+import gerenciar.usuario.desafio.domain.cache.UserStats;
+import gerenciar.usuario.desafio.domain.cache.UserStatsCount;
+import gerenciar.usuario.desafio.domain.cache.UserStatsRow;
 import gerenciar.usuario.desafio.domain.entity.User;
+import gerenciar.usuario.desafio.domain.entity.UserEmail;
 import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.domain.exception.BadRequestException;
+import gerenciar.usuario.desafio.domain.exception.DuplicateEmailException;
+import gerenciar.usuario.desafio.domain.exception.InvalidCursorException;
+import gerenciar.usuario.desafio.domain.exception.ServiceUnavailableException;
 import gerenciar.usuario.desafio.domain.exception.UserNotFoundException;
+import gerenciar.usuario.desafio.domain.exception.UserVersionConflictException;
+import gerenciar.usuario.desafio.domain.utils.Emails;
+import gerenciar.usuario.desafio.domain.utils.Names;
+import gerenciar.usuario.desafio.domain.utils.PhoneNumbers;
+import gerenciar.usuario.desafio.domain.utils.UserIds;
 import gerenciar.usuario.desafio.port.input.IUserUseCase;
+import gerenciar.usuario.desafio.port.output.UserEmailRepository;
+import gerenciar.usuario.desafio.port.output.UserNameRow;
 import gerenciar.usuario.desafio.port.output.UserRepository;
+import gerenciar.usuario.desafio.port.output.UserRow;
+import gerenciar.usuario.desafio.port.output.shard.UserShards;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(value = "techmanage.usecase", description = "Latência dos métodos do IUserUseCase", histogram = true)
 public class UserUseCase implements IUserUseCase {
 
+    private static final Logger log = LoggerFactory.getLogger(UserUseCase.class);
+
+    // Tamanho máximo de cada lista IN (...) enviada ao banco
+    static final int ID_CHUNK_SIZE = 500;
+
+    // Busca por nome e e-mail: tamanho do texto procurado, já normalizado
+    static final int MIN_SEARCH_LENGTH = 2;
+    static final int MAX_SEARCH_LENGTH = 100;
+
+    private static final String EMAIL_UNIQUE_KEY = User.EMAIL_UNIQUE_KEY.toUpperCase(Locale.ROOT);
+    private static final String EMAIL_CLAIM_TABLE = UserEmail.TABLE.toUpperCase(Locale.ROOT);
+
+    private static final String DUPLICATE_EMAIL_MESSAGE = "Já existe um usuário cadastrado com este e-mail.";
+
+    // Exportação: uma transação somente leitura por shard
+    private static final TransactionDefinition READ_ONLY = readOnlyDefinition();
+
+    // Troca de e-mail com shards: a transação da reserva fica aberta enquanto a escrita roda, suspensa, na sua
+    private static final TransactionDefinition CLAIM = propagation(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    private static final TransactionDefinition SUSPENDED =
+            propagation(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+
     private final UserRepository repository;
+    private final UserEmailRepository emailClaims;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final UserCache userCache;
+    private final EmailFilter emailFilter;
+    private final UserStats userStats;
+    private final UserFilterIndex filterIndex;
+    private final UserSearchIndex searchIndex;
+    private final UserShards shards;
+
+    // Cada lote do cadastro em massa vira um único flush com JDBC batch do mesmo tamanho
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    // A cada N linhas exportadas o contexto de persistência é limpo para o heap não crescer com a tabela
+    @Value("${techmanage.export.clear-every:1000}")
+    private int exportClearEvery;
+
+    @Value("${techmanage.backfill.name-normalized:false}")
+    private boolean backfillNameNormalized;
+
+    /**
+     * Carrega o filtro de e-mails com uma leitura em streaming de cada shard; até terminar, o filtro responde
+     * "talvez" e todo cadastro consulta o banco. A transação não é somente leitura para a carga vir do primário:
+     * um e-mail que ainda não chegou à réplica viraria um falso negativo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadEmailFilter() {
+        for (int shard = 0; shard < shards.count(); shard++) {
+            shards.on(shard, () -> transactionTemplate.execute(status -> {
+                try (Stream<String> emails = repository.streamAllEmails()) {
+                    emails.forEach(emailFilter::add);
+                }
+                return null;
+            }));
+        }
+        emailFilter.markReady();
+    }
+
+    /**
+     * Preenche {@code name_normalized} com {@link Names#normalize}, a mesma forma gravada pelas escritas, em bancos
+     * migrados pelo README: o SQL não tem como tirar acentos igual à aplicação. Só roda com
+     * {@code techmanage.backfill.name-normalized=true}. Cada shard é lido em streaming e só as linhas diferentes são
+     * guardadas e gravadas, em transações de {@link #ID_CHUNK_SIZE} linhas.
+     *
+     * @return quantidade de linhas acertadas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfillNameNormalized() {
+        if (!backfillNameNormalized) {
+            return 0;
+        }
+        int fixed = 0;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            List<UserNameRow> stale = shards.on(shard, () -> transactionTemplate.execute(status -> {
+                List<UserNameRow> found = new ArrayList<>();
+                try (Stream<UserNameRow> rows = repository.streamNameRows()) {
+                    rows.forEach(row -> {
+                        String normalized = Names.normalize(row.fullName());
+                        if (!normalized.equals(row.nameNormalized())) {
+                            found.add(new UserNameRow(row.id(), row.fullName(), normalized));
+                        }
+                    });
+                }
+                return found;
+            }));
+            for (int from = 0; from < stale.size(); from += ID_CHUNK_SIZE) {
+                List<UserNameRow> chunk = stale.subList(from, Math.min(from + ID_CHUNK_SIZE, stale.size()));
+                fixed += shards.on(shard, () -> transactionTemplate.execute(status -> {
+                    int updated = 0;
+                    for (UserNameRow row : chunk) {
+                        updated += repository.updateNameNormalized(row.id(), row.fullName(), row.nameNormalized());
+                    }
+                    return updated;
+                }));
+            }
+        }
+        log.info("name_normalized backfill fixed={}", fixed);
+        return fixed;
+    }
+
+    /**
+     * Acerta os contadores de {@link UserStats} com um {@code GROUP BY} em cada shard: na subida, que é a carga
+     * inicial, e depois a cada {@code techmanage.stats.reconcile-interval}. Lê do primário pelo mesmo motivo da
+     * carga do filtro de e-mails.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${techmanage.stats.reconcile-interval:10m}",
+            fixedDelayString = "${techmanage.stats.reconcile-interval:10m}")
+    public void reconcileStats() {
+        Map<UserType, Map<Integer, Long>> before = userStats.snapshot();
+        List<UserStatsCount> counts = new ArrayList<>();
+        shards.fanOut(() -> transactionTemplate.execute(status -> repository.countByTypeAndBirthYear()))
+                .forEach(counts::addAll);
+        long correction = userStats.reconcile(before, counts);
+        if (correction > 0) {
+            log.info("stats reconciled correction={}", correction);
+        }
+    }
+
+    /**
+     * Monta a base do {@link UserFilterIndex} com uma leitura em streaming de id, tipo e nascimento de cada shard:
+     * na subida e depois a cada {@code techmanage.filter-index.rebuild-interval}. Cada linha vai direto para os
+     * bitmaps, sem lista da tabela inteira. Lê do primário pelo mesmo motivo da carga do filtro de e-mails.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${techmanage.filter-index.rebuild-interval:10m}",
+            fixedDelayString = "${techmanage.filter-index.rebuild-interval:10m}")
+    public void rebuildFilterIndex() {
+        if (!filterIndex.isEnabled()) {
+            return;
+        }
+        long mark = filterIndex.mark();
+        UserFilterIndex.Loader loader = filterIndex.loader();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            shards.on(shard, () -> transactionTemplate.execute(status -> {
+                loader.startSegment();
+                try (Stream<UserStatsRow> rows = repository.streamStatsRows()) {
+                    rows.forEach(loader::add);
+                }
+                return null;
+            }));
+        }
+        filterIndex.install(mark, loader);
+    }
+
+    /**
+     * Monta o {@link UserSearchIndex} com uma leitura em streaming de id, nome e e-mail de cada shard: na subida e
+     * depois a cada {@code techmanage.search.rebuild-interval}, o que descarta as versões antigas dos usuários
+     * alterados e traz as escritas feitas por outras instâncias. Até a primeira montagem terminar, a busca responde
+     * 503. Lê do primário pelo mesmo motivo da carga do filtro de e-mails.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${techmanage.search.rebuild-interval:1h}",
+            fixedDelayString = "${techmanage.search.rebuild-interval:1h}")
+    public void rebuildSearchIndex() {
+        searchIndex.startLoading();
+        try {
+            for (int shard = 0; shard < shards.count(); shard++) {
+                shards.on(shard, () -> transactionTemplate.execute(status -> {
+                    try (Stream<UserSearchRow> rows = repository.streamSearchRows()) {
+                        rows.forEach(row -> searchIndex.load(row.id(), row.fullName(), row.email()));
+                    }
+                    return null;
+                }));
+            }
+        } catch (RuntimeException ex) {
+            searchIndex.abortLoading();
+            throw ex;
+        }
+        searchIndex.finishLoading();
+        UserSearchIndex.Stats built = searchIndex.stats();
+        log.info("search index rebuilt users={} millis={}", built.getIndexedUsers(), built.getBuildMillis());
+    }
 
     @Override
     public UserDTO create(UserDTO dto) {
-        User user = UserMapper.toEntity(dto);
-        repository.save(user);
+        String email = Emails.normalize(dto.getEmail());
+        if (emailTaken(email)) {
+            throw new DuplicateEmailException(DUPLICATE_EMAIL_MESSAGE);
+        }
+        User user = newUser(dto);
+        shards.onShardOf(user.getId(), () -> shards.count() == 1
+                ? repository.save(user)
+                : transactionTemplate.execute(status -> {
+                    claimEmail(email, user.getId());
+                    return repository.save(user);
+                }));
+        emailFilter.add(email);
+        afterCommit(() -> recordCreated(user));
         return UserMapper.toDTO(user);
     }
 
     @Override
+    public List<BatchItemDTO> createAll(List<UserDTO> dtos) {
+        BatchItemDTO[] results = new BatchItemDTO[dtos.size()];
+        int chunkSize = Math.max(1, batchSize);
+
+        // Só os e-mails que o filtro não descarta vão para a checagem no banco
+        List<String> maybeTaken = dtos.stream()
+                .map(dto -> Emails.normalize(dto.getEmail()))
+                .filter(emailFilter::mightContain)
+                .distinct()
+                .toList();
+        Set<String> taken = new HashSet<>();
+        for (int from = 0; from < maybeTaken.size(); from += chunkSize) {
+            List<String> emails = maybeTaken.subList(from, Math.min(from + chunkSize, maybeTaken.size()));
+            Set<String> existing = new HashSet<>();
+            shards.fanOut(() -> repository.findExistingEmails(emails)).forEach(existing::addAll);
+            emails.forEach(email -> emailFilter.recordLookup(existing.contains(email)));
+            taken.addAll(existing);
+        }
+
+        // O id sai antes do insert porque é ele que decide o shard de cada usuário (o dono do e-mail)
+        List<User> pending = new ArrayList<>();
+        Map<Long, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            // taken também recebe os e-mails do próprio lote, barrando repetições dentro da requisição
+            if (taken.add(Emails.normalize(dtos.get(i).getEmail()))) {
+                User user = newUser(dtos.get(i));
+                pending.add(user);
+                indexes.put(user.getId(), i);
+            } else {
+                results[i] = duplicateEmail(i, dtos.get(i));
+            }
+        }
+
+        shards.groupByShard(pending, User::getId).forEach((shard, users) -> {
+            for (int from = 0; from < users.size(); from += chunkSize) {
+                List<User> chunk = users.subList(from, Math.min(from + chunkSize, users.size()));
+                shards.on(shard, () -> {
+                    insertChunk(dtos, chunk, indexes, results);
+                    return null;
+                });
+            }
+        });
+
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> findAll() {
-        return repository.findAll().stream()
+        return mergeById(shards.fanOut(repository::findAll), User::getId).stream()
                 .map(UserMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> findPage(Long afterId, int limit) {
+        List<List<UserRow>> rows = shards.fanOut(
+                () -> repository.findPageAfter(startAfter(afterId), Limit.of(limit + 1)));
+        return toPage(mergeById(rows, UserRow::id), limit);
+    }
+
+    // Um shard por vez, cada um na sua transação somente leitura; a ordem por id vale dentro de cada shard
+    @Override
+    public long exportAll(Consumer<UserDTO> sink) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager(), READ_ONLY);
+        long count = 0;
+        for (int shard = 0; shard < shards.count(); shard++) {
+            count += shards.on(shard, () -> readOnly.execute(status -> exportShard(sink)));
+        }
+        return count;
+    }
+
+    // Sem @Transactional de propósito: um acerto no cache não deve abrir transação nem pegar conexão do pool.
+    // Na falta, o findById do Spring Data já roda numa transação somente leitura.
     @Override
     public UserDTO findById(Long id) {
-        User user = repository.findById(id)
+        UserDTO cached = userCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = userCache.stamp(id);
+        User user = shards.onShardOf(id, () -> repository.findById(id))
                 .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado"));
-        return UserMapper.toDTO(user);
+        UserDTO dto = UserMapper.toDTO(user);
+        userCache.put(id, dto, stamp);
+        return dto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> findByUserType(UserType userType) {
-        return repository.findByUserType(userType)
+        return mergeById(shards.fanOut(() -> repository.findByUserType(userType)), User::getId)
                 .stream()
                 .map(UserMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Busca vários usuários de uma vez: o que está no cache sai dele e o restante vem em consultas
+     * {@code IN (...)} de até {@value #ID_CHUNK_SIZE} ids. O resultado segue a ordem pedida, sem repetições,
+     * e simplesmente não contém os ids inexistentes.
+     */
     @Override
-    public UserDTO update(Long id, UserDTO dto) {
-        User user = repository.findById(id)
+    public List<UserDTO> findAllById(Collection<Long> ids) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        Map<Long, UserDTO> found = new HashMap<>();
+        List<Long> toLoad = new ArrayList<>();
+        for (Long id : requested) {
+            UserDTO cached = userCache.get(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                toLoad.add(id);
+            }
+        }
+
+        Map<Long, Long> stamps = new HashMap<>();
+        toLoad.forEach(id -> stamps.put(id, userCache.stamp(id)));
+        List<List<User>> loaded = shards.fanOut(shards.groupByShard(toLoad, Long::longValue), shardIds -> {
+            List<User> users = new ArrayList<>();
+            for (int from = 0; from < shardIds.size(); from += ID_CHUNK_SIZE) {
+                int to = Math.min(from + ID_CHUNK_SIZE, shardIds.size());
+                users.addAll(repository.findAllById(shardIds.subList(from, to)));
+            }
+            return users;
+        });
+        for (List<User> users : loaded) {
+            for (User user : users) {
+                UserDTO dto = UserMapper.toDTO(user);
+                userCache.put(user.getId(), dto, stamps.get(user.getId()));
+                found.put(user.getId(), dto);
+            }
+        }
+
+        return requested.stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserResponse findByEmail(String email) {
+        if (email == null || email.isBlank()) {
+            throw new BadRequestException("Informe o e-mail.");
+        }
+        String normalized = Emails.normalize(email);
+        return shards.fanOut(() -> repository.findByEmailNormalized(normalized)).stream()
+                .flatMap(Optional::stream)
+                .findFirst()
+                .map(UserMapper::toResponse)
                 .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado"));
+    }
 
-        user.setFullName(dto.getFullName());
-        user.setEmail(dto.getEmail());
-        user.setPhone(dto.getPhone());
-        user.setBirthDate(dto.getBirthDate());
-        user.setUserType(dto.getUserType());
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponse> findByPhone(String phone) {
+        long e164 = PhoneNumbers.parseLenient(phone);
+        if (e164 == PhoneNumbers.INVALID) {
+            throw new BadRequestException("Telefone inválido. Use +55 11 99999-9999 ou +5511999999999.");
+        }
+        return toResponses(mergeById(shards.fanOut(() -> repository.findByPhoneE164(e164)), UserRow::id));
+    }
 
-        repository.save(user);
-        return UserMapper.toDTO(user);
+    /**
+     * Filtro combinado com paginação por keyset. Tipo e faixa de nascimento em ordem crescente de id saem do
+     * {@link UserFilterIndex}, quando ligado (só com uma instância) e carregado: os ids da página vêm dos bitmaps e as linhas são lidas por
+     * chave primária, passando pelo cache. Os demais casos viram uma consulta por shard, atendida pelos índices
+     * compostos de {@code users}.
+     */
+    @Override
+    public CursorPage<UserResponse> filter(UserFilter filter, int limit) {
+        if (filter.getBornFrom() != null && filter.getBornTo() != null
+                && filter.getBornFrom().isAfter(filter.getBornTo())) {
+            throw new BadRequestException("A data inicial de nascimento deve ser anterior ou igual à final.");
+        }
+        if (filter.getSort() != UserFilter.Sort.ID && filter.getAfterId() != null) {
+            checkCursorKey(filter);
+        }
+        if (answeredByIndex(filter)) {
+            return filterFromIndex(filter, limit);
+        }
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager(), READ_ONLY);
+        List<List<UserRow>> rows = readOnly.execute(
+                status -> shards.fanOut(() -> repository.findFiltered(filter, limit + 1)));
+        List<UserRow> merged = rows.size() == 1 ? rows.get(0) : mergeSorted(rows, orderOf(filter));
+        if (merged.size() <= limit) {
+            return new CursorPage<>(toResponses(merged), null);
+        }
+        List<UserRow> items = merged.subList(0, limit);
+        UserRow last = items.get(limit - 1);
+        return new CursorPage<>(toResponses(items), last.id(), sortKeyOf(filter.getSort()).apply(last));
+    }
+
+    /**
+     * Busca por nome e e-mail no {@link UserSearchIndex}, sem consulta {@code LIKE} ao banco: o índice devolve os ids
+     * dos {@code limit} usuários mais relevantes e só eles são lidos, por chave primária e passando pelo cache.
+     */
+    @Override
+    public List<UserResponse> search(String query, int limit) {
+        String normalized = query == null ? "" : Names.normalize(query);
+        if (normalized.length() < MIN_SEARCH_LENGTH) {
+            throw new BadRequestException("Informe ao menos " + MIN_SEARCH_LENGTH + " caracteres para a busca.");
+        }
+        if (normalized.length() > MAX_SEARCH_LENGTH) {
+            throw new BadRequestException("A busca aceita no máximo " + MAX_SEARCH_LENGTH + " caracteres.");
+        }
+        if (!searchIndex.isReady()) {
+            throw new ServiceUnavailableException("Índice de busca em carregamento. Tente novamente em instantes.");
+        }
+        return findAllById(searchIndex.search(normalized, limit)).stream()
+                .map(UserMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public UserDTO update(Long id, UserDTO dto) {
+        Long expectedVersion = dto.getVersion();
+        // Com If-Match a versão nova é a esperada + 1. Sem ele, é a da linha lida e travada antes do UPDATE, + 1,
+        // para a resposta sempre trazer o ETag da próxima escrita condicional sem uma releitura
+        Long version = withEmailClaim(dto.getEmail(), id, () -> shards.onShardOf(id,
+                () -> transactionTemplate.execute(status -> {
+                    UserStatsRow before = applyUpdate(id, expectedVersion, dto, expectedVersion == null);
+                    return expectedVersion != null ? expectedVersion + 1 : before.version() + 1;
+                })));
+
+        return UserDTO.builder()
+                .id(id)
+                .fullName(dto.getFullName())
+                .email(dto.getEmail())
+                .phone(dto.getPhone())
+                .birthDate(dto.getBirthDate())
+                .userType(dto.getUserType())
+                .version(version)
+                .build();
+    }
+
+    // UPDATE e releitura na mesma transação e conexão; a releitura vai direto ao banco para não repor no cache
+    // uma linha ainda não confirmada
+    @Override
+    public UserDTO patch(Long id, UserDTO changes) {
+        return withEmailClaim(changes.getEmail(), id, () -> shards.onShardOf(id,
+                () -> transactionTemplate.execute(status -> {
+                    applyUpdate(id, changes.getVersion(), changes, false);
+                    return repository.findById(id)
+                            .map(UserMapper::toDTO)
+                            .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado"));
+                })));
     }
 
     @Override
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
+        // Um único DELETE, e o número de linhas afetadas decide o 404. Tipo e nascimento, para descontar o usuário
+        // das estatísticas, vêm do cache quando ele tem o usuário; sem ele, a reconciliação periódica acerta a conta
+        UserDTO cached = userCache.get(id);
+        if (shards.onShardOf(id, () -> repository.deleteDirectlyById(id)) == 0) {
+            throw new UserNotFoundException("Usuário não encontrado");
+        }
+        userCache.evict(id);
+        emailFilter.recordRemovals(1);
+        if (cached != null) {
+            userStats.remove(cached.getUserType(), cached.getBirthDate());
+        }
+        filterIndex.remove(id);
+        searchIndex.remove(id);
+    }
+
+    @Override
+    public BulkDeleteDTO deleteAll(List<Long> ids) {
+        List<Long> distinct = ids.stream().distinct().toList();
+        Map<Long, UserStatsRow> found = new HashMap<>();
+
+        shards.groupByShard(distinct, Long::longValue).forEach((shard, shardIds) -> {
+            for (int from = 0; from < shardIds.size(); from += ID_CHUNK_SIZE) {
+                List<Long> chunk = shardIds.subList(from, Math.min(from + ID_CHUNK_SIZE, shardIds.size()));
+                List<UserStatsRow> rows = shards.on(shard, () -> transactionTemplate.execute(status -> {
+                    List<UserStatsRow> existing = repository.findStatsRowsForUpdate(chunk);
+                    if (!existing.isEmpty()) {
+                        repository.deleteDirectlyByIdIn(existing.stream().map(UserStatsRow::id).toList());
+                    }
+                    return existing;
+                }));
+                rows.forEach(row -> found.put(row.id(), row));
+            }
+        });
+
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            if (found.containsKey(id)) {
+                userCache.evict(id);
+            } else {
+                missing.add(id);
+            }
+        }
+        emailFilter.recordRemovals(found.size());
+        afterCommit(() -> found.values().forEach(this::recordDeleted));
+
+        return new BulkDeleteDTO(found.size(), missing);
+    }
+
+    @Override
+    public UserCache.Stats cacheStats() {
+        return userCache.stats();
+    }
+
+    @Override
+    public EmailFilter.Stats emailFilterStats() {
+        return emailFilter.stats();
+    }
+
+    @Override
+    public UserStats.Stats stats() {
+        return userStats.stats();
+    }
+
+    @Override
+    public UserFilterIndex.Stats filterIndexStats() {
+        return filterIndex.stats();
+    }
+
+    @Override
+    public UserSearchIndex.Stats searchIndexStats() {
+        return searchIndex.stats();
+    }
+
+    private static Long startAfter(Long afterId) {
+        return afterId == null ? 0L : afterId;
+    }
+
+    // Junta o resultado dos shards em ordem de id; com um shard só a lista já vem pronta
+    private static <T> List<T> mergeById(List<List<T>> perShard, ToLongFunction<T> idOf) {
+        if (perShard.size() == 1) {
+            return perShard.get(0);
+        }
+        List<T> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(Comparator.comparingLong(idOf));
+        return merged;
+    }
+
+    // Cada shard já devolve a própria lista na ordem pedida
+    private static <T> List<T> mergeSorted(List<List<T>> perShard, Comparator<T> order) {
+        List<T> merged = new ArrayList<>();
+        perShard.forEach(merged::addAll);
+        merged.sort(order);
+        return merged;
+    }
+
+    // Busca limit + 1 linhas (por shard): a linha extra só indica se existe próxima página
+    private static CursorPage<UserResponse> toPage(List<UserRow> rows, int limit) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(toResponses(rows), null);
+        }
+        List<UserRow> items = rows.subList(0, limit);
+        return new CursorPage<>(toResponses(items), items.get(limit - 1).id());
+    }
+
+    private static List<UserResponse> toResponses(List<UserRow> rows) {
+        List<UserResponse> responses = new ArrayList<>(rows.size());
+        for (UserRow row : rows) {
+            responses.add(UserMapper.toResponse(row));
+        }
+        return responses;
+    }
+
+    // Sem prefixo de nome e em ordem crescente de id, a página sai inteira dos bitmaps; sem tipo nem nascimento,
+    // a própria chave primária já atende
+    private boolean answeredByIndex(UserFilter filter) {
+        return filterIndex.isReady()
+                && filter.getSort() == UserFilter.Sort.ID && !filter.isDescending() && !filter.hasNamePrefix()
+                && (!filter.getTypes().isEmpty() || filter.getBornFrom() != null || filter.getBornTo() != null);
+    }
+
+    // Só os limit primeiros ids são lidos. O índice só é ligado com uma instância, então ele enxerga todas as
+    // escritas; a conferência contra o filtro só protege de uma linha alterada entre a leitura dos ids e a das linhas
+    private CursorPage<UserResponse> filterFromIndex(UserFilter filter, int limit) {
+        List<Long> ids = filterIndex.findIds(filter.getTypes(), filter.getBornFrom(), filter.getBornTo(),
+                filter.getAfterId(), limit + 1);
+        boolean hasNext = ids.size() > limit;
+        List<Long> pageIds = hasNext ? ids.subList(0, limit) : ids;
+        List<UserResponse> items = findAllById(pageIds).stream()
+                .filter(dto -> matches(filter, dto))
+                .map(UserMapper::toResponse)
+                .collect(Collectors.toList());
+        return new CursorPage<>(items, hasNext ? pageIds.get(limit - 1) : null);
+    }
+
+    private static boolean matches(UserFilter filter, UserDTO dto) {
+        return (filter.getTypes().isEmpty() || filter.getTypes().contains(dto.getUserType()))
+                && (filter.getBornFrom() == null || !dto.getBirthDate().isBefore(filter.getBornFrom()))
+                && (filter.getBornTo() == null || !dto.getBirthDate().isAfter(filter.getBornTo()));
+    }
+
+    // Nome ou data de nascimento do último item da página anterior, conforme a ordenação
+    private static void checkCursorKey(UserFilter filter) {
+        if (filter.getAfterKey() == null) {
+            throw new InvalidCursorException("Cursor de paginação inválido.");
+        }
+        if (filter.getSort() == UserFilter.Sort.BIRTH_DATE) {
+            try {
+                LocalDate.parse(filter.getAfterKey());
+            } catch (DateTimeParseException ex) {
+                throw new InvalidCursorException("Cursor de paginação inválido.");
+            }
+        }
+    }
+
+    // Mesma ordem do ORDER BY de findFiltered, para juntar as páginas dos shards; o nome é o normalizado gravado,
+    // comparado como a collation binária da coluna o ordena
+    private static Comparator<UserRow> orderOf(UserFilter filter) {
+        Comparator<UserRow> order = switch (filter.getSort()) {
+            case ID -> Comparator.comparing(UserRow::id);
+            case NAME -> Comparator.comparing(UserRow::nameNormalized, Names.BINARY_ORDER).thenComparing(UserRow::id);
+            case BIRTH_DATE -> Comparator.comparing(UserRow::birthDate).thenComparing(UserRow::id);
+        };
+        return filter.isDescending() ? order.reversed() : order;
+    }
+
+    private static Function<UserRow, String> sortKeyOf(UserFilter.Sort sort) {
+        return switch (sort) {
+            case ID -> user -> null;
+            case NAME -> UserRow::nameNormalized;
+            case BIRTH_DATE -> user -> user.birthDate().toString();
+        };
+    }
+
+    private void recordCreated(User user) {
+        userStats.add(user.getUserType(), user.getBirthDate());
+        filterIndex.put(user.getId(), user.getUserType(), user.getBirthDate());
+        searchIndex.put(user.getId(), user.getFullName(), user.getEmail());
+    }
+
+    private void recordDeleted(UserStatsRow row) {
+        userStats.remove(row.userType(), row.birthDate());
+        filterIndex.remove(row.id());
+        searchIndex.remove(row.id());
+    }
+
+    private void insertChunk(List<UserDTO> dtos, List<User> users, Map<Long, Integer> indexes,
+                             BatchItemDTO[] results) {
+        try {
+            // Depois do flush as entidades já não precisam ficar no contexto de persistência, que é limpo ainda
+            // dentro da transação: o heap não cresce com o tamanho do lote
+            transactionTemplate.executeWithoutResult(status -> {
+                if (shards.count() > 1) {
+                    claimEmails(users);
+                }
+                repository.saveAll(users);
+                repository.flush();
+                entityManager.clear();
+            });
+        } catch (DuplicateEmailException | PessimisticLockingFailureException ex) {
+            insertOneByOne(dtos, users, indexes, results);
+            return;
+        } catch (DataIntegrityViolationException ex) {
+            if (!isDuplicateEmail(ex)) {
+                throw ex;
+            }
+            // Outro cadastro levou algum e-mail entre a checagem e o insert: refaz o lote item a item
+            insertOneByOne(dtos, users, indexes, results);
+            return;
+        }
+        for (User user : users) {
+            emailFilter.add(user.getEmailNormalized());
+            afterCommit(() -> recordCreated(user));
+            int i = indexes.get(user.getId());
+            results[i] = created(i, user);
+        }
+    }
+
+    private void insertOneByOne(List<UserDTO> dtos, List<User> users, Map<Long, Integer> indexes,
+                                BatchItemDTO[] results) {
+        users.forEach(user -> {
+            int i = indexes.get(user.getId());
+            results[i] = insertOne(i, dtos.get(i), user.getId());
+        });
+    }
+
+    // Entidade nova a partir do DTO do lote, reaproveitando o id (e portanto o shard) já escolhido
+    private BatchItemDTO insertOne(int index, UserDTO dto, Long id) {
+        User user = UserMapper.toEntity(dto);
+        user.setId(id);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (shards.count() > 1) {
+                    claimEmail(Emails.normalize(user.getEmail()), id);
+                }
+                repository.saveAndFlush(user);
+            });
+            emailFilter.add(user.getEmailNormalized());
+            afterCommit(() -> recordCreated(user));
+            return created(index, user);
+        } catch (DuplicateEmailException ex) {
+            return duplicateEmail(index, dto);
+        } catch (DataIntegrityViolationException ex) {
+            if (!isDuplicateEmail(ex)) {
+                throw ex;
+            }
+            return duplicateEmail(index, dto);
+        }
+    }
+
+    /**
+     * Reserva {@code email} para {@code userId} na transação corrente, que deve estar no shard dono do e-mail. Uma
+     * reserva de outro usuário só é assumida se ele já não usa o e-mail (foi excluído ou trocou de e-mail).
+     *
+     * @return {@code true} se a reserva foi criada agora
+     * @throws DuplicateEmailException se o e-mail é de outro usuário ou outra requisição o reservou ao mesmo tempo
+     */
+    private boolean claimEmail(String email, Long userId) {
+        Optional<Long> owner;
+        try {
+            owner = emailClaims.findOwnerForUpdate(email);
+            if (owner.isEmpty()) {
+                emailClaims.insertClaim(email, userId);
+                return true;
+            }
+        } catch (DataIntegrityViolationException | PessimisticLockingFailureException ex) {
+            throw new DuplicateEmailException(DUPLICATE_EMAIL_MESSAGE);
+        }
+        if (!owner.get().equals(userId)) {
+            if (stillHoldsEmail(owner.get(), email)) {
+                throw new DuplicateEmailException(DUPLICATE_EMAIL_MESSAGE);
+            }
+            emailClaims.reassign(email, userId);
+        }
+        return false;
+    }
+
+    // Lote novo, já no shard dono de cada e-mail: as reservas entram no mesmo flush dos usuários. E-mails com
+    // reserva antiga precisam da checagem de claimEmail e mandam o lote para o caminho item a item
+    private void claimEmails(List<User> users) {
+        // Em ordem de e-mail, para dois lotes simultâneos travarem as reservas na mesma ordem
+        Map<String, Long> claims = new TreeMap<>();
+        users.forEach(user -> claims.put(Emails.normalize(user.getEmail()), user.getId()));
+        if (!emailClaims.findClaimedEmails(claims.keySet()).isEmpty()) {
+            throw new DuplicateEmailException(DUPLICATE_EMAIL_MESSAGE);
+        }
+        claims.forEach((email, id) -> entityManager.persist(new UserEmail(email, id)));
+    }
+
+    // Lê no shard do dono, fora da transação da reserva, que continua aberta e com a reserva travada
+    private boolean stillHoldsEmail(Long userId, String email) {
+        TransactionTemplate suspended = new TransactionTemplate(transactionTemplate.getTransactionManager(), SUSPENDED);
+        return Boolean.TRUE.equals(suspended.execute(status -> shards.onShardOf(userId,
+                () -> repository.existsByIdAndEmailNormalized(userId, email))));
+    }
+
+    /**
+     * Troca de e-mail com mais de um shard: o usuário fica no shard do id, e o e-mail novo pode ser de outro shard.
+     * A reserva é feita no shard dono do e-mail e fica travada, com a transação dela aberta, enquanto
+     * {@code write} roda; só confirma depois da escrita, e uma falha na escrita a desfaz. Uma reserva nova ainda é
+     * conferida em todos os shards contra usuários cadastrados antes das reservas.
+     */
+    private <T> T withEmailClaim(String email, Long userId, Supplier<T> write) {
+        if (shards.count() == 1 || email == null) {
+            return write.get();
+        }
+        String normalized = Emails.normalize(email);
+        PlatformTransactionManager transactionManager = transactionTemplate.getTransactionManager();
+        return shards.on(shards.shardOfEmail(normalized),
+                () -> new TransactionTemplate(transactionManager, CLAIM).execute(status -> {
+                    if (claimEmail(normalized, userId) && shards.fanOut(
+                            () -> repository.findEmailsHeldByOthers(List.of(normalized), List.of(userId)))
+                            .stream().anyMatch(held -> !held.isEmpty())) {
+                        throw new DuplicateEmailException(DUPLICATE_EMAIL_MESSAGE);
+                    }
+                    return new TransactionTemplate(transactionManager, SUSPENDED).execute(inner -> write.get());
+                }));
+    }
+
+    // Só a chave única do e-mail e a das reservas viram DUPLICATE_EMAIL; qualquer outra violação é erro de verdade e
+    // sobe. O nome da chave aparece na mensagem do driver (MySQL: "for key 'users.UK_user_email_normalized'" ou
+    // "'user_emails.PRIMARY'"; H2, em maiúsculas)
+    private static boolean isDuplicateEmail(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null) {
+                String upper = message.toUpperCase(Locale.ROOT);
+                if (upper.contains(EMAIL_UNIQUE_KEY) || upper.contains(EMAIL_CLAIM_TABLE)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static BatchItemDTO created(int index, User user) {
+        return BatchItemDTO.builder()
+                .index(index)
+                .status(BatchItemDTO.Status.CREATED)
+                .user(UserMapper.toDTO(user))
+                .build();
+    }
+
+    private static BatchItemDTO duplicateEmail(int index, UserDTO dto) {
+        return BatchItemDTO.builder()
+                .index(index)
+                .status(BatchItemDTO.Status.DUPLICATE_EMAIL)
+                .errors(Map.of("email", DUPLICATE_EMAIL_MESSAGE))
+                .build();
+    }
+
+    // Um único UPDATE condicional; só em caso de 0 linhas é feita uma consulta para diferenciar 404 de 409. Devolve
+    // a linha lida antes do UPDATE (com readVersion, sempre), ou null quando a leitura foi dispensada
+    private UserStatsRow applyUpdate(Long id, Long expectedVersion, UserDTO changes, boolean readVersion) {
+        UserStatsRow before = readVersion || changes.getUserType() != null || changes.getBirthDate() != null
+                ? statsRowBefore(id, expectedVersion)
+                : null;
+        int rows = repository.updateChangedFields(id, expectedVersion, changes);
+        if (rows == 0) {
+            if (expectedVersion != null && repository.existsById(id)) {
+                throw new UserVersionConflictException(
+                        "O usuário foi alterado por outra requisição. Recarregue os dados e tente novamente.");
+            }
             throw new UserNotFoundException("Usuário não encontrado");
         }
-        repository.deleteById(id);
+        evictOnCompletion(id);
+        if (changes.getEmail() != null) {
+            emailFilter.add(Emails.normalize(changes.getEmail()));
+        }
+        if (before != null) {
+            UserType type = changes.getUserType() != null ? changes.getUserType() : before.userType();
+            LocalDate birthDate = changes.getBirthDate() != null ? changes.getBirthDate() : before.birthDate();
+            afterCommit(() -> {
+                userStats.move(before.userType(), before.birthDate(), type, birthDate);
+                filterIndex.put(id, type, birthDate);
+            });
+        }
+        if (changes.getFullName() != null || changes.getEmail() != null) {
+            afterCommit(() -> searchIndex.update(id, changes.getFullName(), changes.getEmail()));
+        }
+        return before;
+    }
+
+    // Com If-Match, uma entrada do cache na mesma versão é exatamente a linha que o UPDATE condicional vai
+    // substituir, e dispensa a leitura; sem ela, a linha é lida e travada até o fim da transação
+    private UserStatsRow statsRowBefore(Long id, Long expectedVersion) {
+        UserDTO cached = expectedVersion == null ? null : userCache.get(id);
+        if (cached != null && expectedVersion.equals(cached.getVersion())) {
+            return new UserStatsRow(id, cached.getUserType(), cached.getBirthDate(), cached.getVersion());
+        }
+        return repository.findStatsRowForUpdate(id).orElse(null);
+    }
+
+    // Contadores só mudam com a escrita confirmada; fora de transação ela já está confirmada
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // Invalida já, para leituras na própria transação, e de novo ao fim dela: até o commit uma leitura concorrente
+    // ainda vê a linha anterior e pode recolocá-la no cache, e num rollback o valor novo nunca existiu
+    private void evictOnCompletion(Long id) {
+        userCache.evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    userCache.evict(id);
+                }
+            });
+        }
+    }
+
+    private static TransactionDefinition propagation(int propagationBehavior) {
+        return new DefaultTransactionDefinition(propagationBehavior);
+    }
+
+    private static TransactionDefinition readOnlyDefinition() {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        return definition;
+    }
+
+    // Com shards, o id é escolhido para o usuário nascer no shard dono do e-mail
+    private User newUser(UserDTO dto) {
+        User user = UserMapper.toEntity(dto);
+        user.setId(shards.count() == 1
+                ? UserIds.next()
+                : shards.nextIdOn(shards.shardOfEmail(Emails.normalize(dto.getEmail()))));
+        return user;
+    }
+
+    private long exportShard(Consumer<UserDTO> sink) {
+        long count = 0;
+        try (Stream<User> rows = repository.streamAll()) {
+            Iterator<User> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                sink.accept(UserMapper.toDTO(iterator.next()));
+                count++;
+                if (exportClearEvery > 0 && count % exportClearEvery == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    // Negativa do filtro dispensa a consulta; um "talvez" é confirmado no índice único de cada shard
+    private boolean emailTaken(String normalizedEmail) {
+        if (!emailFilter.mightContain(normalizedEmail)) {
+            return false;
+        }
+        boolean exists = shards.fanOut(() -> repository.existsByEmailNormalized(normalizedEmail)).contains(true);
+        emailFilter.recordLookup(exists);
+        return exists;
     }
 }
@@ -0,0 +1,71 @@
+package gerenciar.usuario.desafio.domain.utils;
+
+import gerenciar.usuario.desafio.domain.exception.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Prazo da requisição em andamento, preso à thread que a atende.
+ *
+ * <p>Quem recebe a requisição abre o prazo com {@link #start}; daí em diante o use case e o acesso ao banco leem
+ * o tempo restante daqui, sem que ele precise passar por parâmetro. Código que muda de thread (o fan-out entre
+ * shards) leva o prazo junto com {@link #with}.
+ */
+public final class Deadlines {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private Deadlines() {
+    }
+
+    public static void start(Duration budget) {
+        DEADLINE.set(System.nanoTime() + budget.toNanos());
+    }
+
+    public static void clear() {
+        DEADLINE.remove();
+    }
+
+    /**
+     * Instante limite ({@link System#nanoTime()}) da thread atual, ou {@code null} se não houver prazo.
+     */
+    public static Long current() {
+        return DEADLINE.get();
+    }
+
+    /**
+     * Executa {@code action} com o prazo {@code deadline} (obtido de {@link #current()} em outra thread).
+     */
+    public static <T> T with(Long deadline, Supplier<T> action) {
+        Long previous = DEADLINE.get();
+        if (deadline == null) {
+            DEADLINE.remove();
+        } else {
+            DEADLINE.set(deadline);
+        }
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                DEADLINE.remove();
+            } else {
+                DEADLINE.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Nanossegundos até o prazo; {@code Long.MAX_VALUE} sem prazo, zero ou negativo quando já venceu.
+     */
+    public static long remainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    public static void check() {
+        if (remainingNanos() <= 0) {
+            throw new DeadlineExceededException("Prazo da requisição esgotado.");
+        }
+    }
+}
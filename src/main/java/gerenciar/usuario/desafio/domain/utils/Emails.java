@@ -0,0 +1,16 @@
+package gerenciar.usuario.desafio.domain.utils;
+
+import java.util.Locale;
+
+/**
+ * Forma canônica do e-mail usada na unicidade e nas buscas: sem espaços nas pontas e em minúsculas.
+ */
+public final class Emails {
+
+    private Emails() {
+    }
+
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,50 @@
+package gerenciar.usuario.desafio.domain.utils;
+
+import java.text.Normalizer;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Forma canônica do nome usada no filtro por prefixo e na ordenação: sem acentos, em minúsculas e com os espaços
+ * reduzidos a um só. "  José  da Silva" e "jose da silva" têm a mesma forma.
+ */
+public final class Names {
+
+    /**
+     * Ordem de code points, a mesma da collation binária ({@code utf8mb4_bin}) da coluna {@code name_normalized}:
+     * é com ela que as páginas dos shards, já ordenadas pelo banco, são juntadas. {@link String#compareTo} compara
+     * unidades UTF-16 e discorda dela nos caracteres fora do plano básico.
+     */
+    public static final Comparator<String> BINARY_ORDER = Names::compareCodePoints;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private Names() {
+    }
+
+    public static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(name.trim(), Normalizer.Form.NFD);
+        String plain = MARKS.matcher(decomposed).replaceAll("");
+        return SPACES.matcher(plain).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static int compareCodePoints(String left, String right) {
+        int i = 0;
+        int j = 0;
+        while (i < left.length() && j < right.length()) {
+            int a = left.codePointAt(i);
+            int b = right.codePointAt(j);
+            if (a != b) {
+                return Integer.compare(a, b);
+            }
+            i += Character.charCount(a);
+            j += Character.charCount(b);
+        }
+        return Integer.compare(left.length() - i, right.length() - j);
+    }
+}
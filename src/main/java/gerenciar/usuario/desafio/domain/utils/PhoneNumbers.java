@@ -0,0 +1,120 @@
+package gerenciar.usuario.desafio.domain.utils;
+
+/**
+ * Leitura do telefone no formato aceito pela API ({@code +55 11 99999-9999}) em uma única passada,
+ * sem regex e sem alocar, produzindo a forma canônica E.164 empacotada em um {@code long}
+ * (os dígitos após o {@code +}, ex.: {@code 5511999999999}).
+ *
+ * <p>Como nenhum código de país começa com 0, o valor numérico preserva todos os dígitos e pode ser indexado
+ * e comparado diretamente, independentemente de espaços ou traços na forma digitada.
+ */
+public final class PhoneNumbers {
+
+    public static final long INVALID = -1L;
+
+    private static final int MAX_E164_DIGITS = 15;
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * Lê {@code +CC AA NNNN-NNNN} / {@code +CC AA NNNNN-NNNN} (código do país com 1 a 3 dígitos).
+     *
+     * @return o número E.164 ou {@link #INVALID} se o texto não estiver no formato
+     */
+    public static long parse(CharSequence phone) {
+        int len = phone.length();
+        if (len == 0 || phone.charAt(0) != '+' || !isDigit(phone, 1) || phone.charAt(1) == '0') {
+            return INVALID;
+        }
+        long value = 0;
+        int i = 1;
+        int groupStart = i;
+        while (i < len && i - groupStart < 3 && isDigit(phone, i)) {
+            value = value * 10 + (phone.charAt(i++) - '0');
+        }
+        if (!isSpace(phone, i++)) {
+            return INVALID;
+        }
+
+        groupStart = i;
+        while (i < len && i - groupStart < 2 && isDigit(phone, i)) {
+            value = value * 10 + (phone.charAt(i++) - '0');
+        }
+        if (i - groupStart != 2 || !isSpace(phone, i++)) {
+            return INVALID;
+        }
+
+        groupStart = i;
+        while (i < len && i - groupStart < 5 && isDigit(phone, i)) {
+            value = value * 10 + (phone.charAt(i++) - '0');
+        }
+        if (i - groupStart < 4 || i >= len || phone.charAt(i++) != '-') {
+            return INVALID;
+        }
+
+        groupStart = i;
+        while (i < len && i - groupStart < 4 && isDigit(phone, i)) {
+            value = value * 10 + (phone.charAt(i++) - '0');
+        }
+        return i - groupStart == 4 && i == len ? value : INVALID;
+    }
+
+    /**
+     * Aceita o formato da API ou a forma E.164 compacta ({@code +5511999999999}, com ou sem o {@code +}).
+     * Usado nas buscas, onde o {@code +} pode chegar como espaço por não ter sido codificado na URL.
+     */
+    public static long parseLenient(CharSequence phone) {
+        long formatted = parse(phone);
+        if (formatted != INVALID) {
+            return formatted;
+        }
+        int start = 0;
+        int end = phone.length();
+        while (start < end && phone.charAt(start) == ' ') {
+            start++;
+        }
+        if (start < end && phone.charAt(start) == '+') {
+            start++;
+        }
+        if (end - start < 1 || end - start > MAX_E164_DIGITS || phone.charAt(start) == '0') {
+            return INVALID;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            if (!isDigit(phone, i)) {
+                return INVALID;
+            }
+            value = value * 10 + (phone.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    /**
+     * @return o número E.164 ou {@code null} se o telefone for nulo ou estiver fora do formato
+     */
+    public static Long toE164(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        long value = parse(phone);
+        return value == INVALID ? null : value;
+    }
+
+    private static boolean isDigit(CharSequence s, int i) {
+        if (i >= s.length()) {
+            return false;
+        }
+        char c = s.charAt(i);
+        return c >= '0' && c <= '9';
+    }
+
+    // Mesmo conjunto do \s da regex anterior
+    private static boolean isSpace(CharSequence s, int i) {
+        if (i >= s.length()) {
+            return false;
+        }
+        char c = s.charAt(i);
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -5,16 +5,25 @@ import jakarta.validation.ConstraintValidatorContext;
 
 public class PhoneValidator implements ConstraintValidator<ValidPhone, String> {
 
-    private static final String REGEX = "^\\+\\d{1,3}\\s\\d{2}\\s\\d{4,5}-\\d{4}$";
+    private boolean required = true;
+
+    @Override
+    public void initialize(ValidPhone annotation) {
+        required = annotation.required();
+    }
 
     @Override
     public boolean isValid(String phone, ConstraintValidatorContext context) {
+        if (phone == null && !required) {
+            return true;
+        }
+
         if (phone == null || phone.isBlank()) {
             buildConstraintViolation(context, "Telefone não pode ser nulo ou vazio.");
             return false;
         }
 
-        if (!phone.matches(REGEX)) {
+        if (PhoneNumbers.parse(phone) == PhoneNumbers.INVALID) {
             buildConstraintViolation(context, "Formato inválido. Use: +55 11 99999-9999");
             return false;
         }
@@ -0,0 +1,54 @@
+package gerenciar.usuario.desafio.domain.utils;
+
+/**
+ * Ids de usuário gerados na própria aplicação, sem ida ao banco, únicos entre shards e entre instâncias.
+ *
+ * <p>Layout em 53 bits, para o id continuar exato num {@code number} de JavaScript: 41 bits de milissegundos desde
+ * {@link #EPOCH_MILLIS} (até 2094), 4 bits do nó ({@code techmanage.id.node}, um por instância) e 8 bits de
+ * sequência. Os ids crescem com o tempo, o que mantém a paginação por cursor em ordem de cadastro.
+ *
+ * <p>Mais de 256 ids no mesmo milissegundo, ou um relógio que volta, fazem o gerador seguir adiantado em relação ao
+ * relógio em vez de esperar; o relógio o alcança assim que o ritmo cai.
+ */
+public final class UserIds {
+
+    // 2025-01-01T00:00:00Z
+    public static final long EPOCH_MILLIS = 1_735_689_600_000L;
+
+    static final int NODE_BITS = 4;
+    static final int SEQUENCE_BITS = 8;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private static volatile long node;
+    private static long lastMillis = -1;
+    private static long sequence;
+
+    private UserIds() {
+    }
+
+    public static void useNode(int node) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("techmanage.id.node deve estar entre 0 e " + MAX_NODE);
+        }
+        UserIds.node = node;
+    }
+
+    public static synchronized long next() {
+        long millis = System.currentTimeMillis() - EPOCH_MILLIS;
+        if (millis > lastMillis) {
+            lastMillis = millis;
+            sequence = 0;
+        } else if (sequence < MAX_SEQUENCE) {
+            sequence++;
+        } else {
+            lastMillis++;
+            sequence = 0;
+        }
+        return (lastMillis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE);
+    }
+}
@@ -11,6 +11,8 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 public @interface ValidPhone {
     String message() default "Telefone inválido. Use o formato +55 11 99999-9999";
+    // false aceita null, para atualizações parciais em que o telefone não foi enviado
+    boolean required() default true;
     Class<?>[] groups() default {};
     Class<? extends Payload>[] payload() default {};
 }
\ No newline at end of file
@@ -1,16 +1,43 @@
 package gerenciar.usuario.desafio.port.input;
 
+import gerenciar.usuario.desafio.adapter.input.dto.BatchItemDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.BulkDeleteDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.CursorPage;
 import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
+import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
+import gerenciar.usuario.desafio.domain.cache.EmailFilter;
+import gerenciar.usuario.desafio.domain.cache.UserCache;
+import gerenciar.usuario.desafio.domain.cache.UserFilterIndex;
+import gerenciar.usuario.desafio.domain.cache.UserSearchIndex;
+import gerenciar.usuario.desafio.domain.cache.UserStats;
 import gerenciar.usuario.desafio.domain.entity.UserType;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IUserUseCase {
 
     UserDTO create(UserDTO dto);
+    List<BatchItemDTO> createAll(List<UserDTO> dtos);
     List<UserDTO> findAll();
+    CursorPage<UserResponse> findPage(Long afterId, int limit);
+    long exportAll(Consumer<UserDTO> sink);
     UserDTO findById(Long id);
+    List<UserDTO> findAllById(Collection<Long> ids);
+    UserResponse findByEmail(String email);
+    List<UserResponse> findByPhone(String phone);
     UserDTO update(Long id, UserDTO dto);
+    UserDTO patch(Long id, UserDTO changes);
     void delete(Long id);
+    BulkDeleteDTO deleteAll(List<Long> ids);
     List<UserDTO> findByUserType(UserType userType);
+    UserCache.Stats cacheStats();
+    EmailFilter.Stats emailFilterStats();
+    UserStats.Stats stats();
+    UserFilterIndex.Stats filterIndexStats();
+    CursorPage<UserResponse> filter(UserFilter filter, int limit);
+    List<UserResponse> search(String query, int limit);
+    UserSearchIndex.Stats searchIndexStats();
 }
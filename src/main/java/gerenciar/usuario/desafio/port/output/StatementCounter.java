@@ -0,0 +1,102 @@
+package gerenciar.usuario.desafio.port.output;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Conta, por thread e por tipo, os comandos SQL preparados pelo Hibernate (um lote JDBC conta uma vez).
+ *
+ * <p>Os contadores só crescem: quem quer medir um trecho guarda um {@link #snapshot()} antes e calcula a diferença
+ * depois, o que permite medições aninhadas (a métrica por requisição e as asserções dos testes, por exemplo).
+ */
+public class StatementCounter implements StatementInspector {
+
+    public enum Kind { SELECT, INSERT, UPDATE, DELETE, OTHER }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final ThreadLocal<long[]> COUNTS = ThreadLocal.withInitial(() -> new long[KINDS.length]);
+
+    public static Snapshot snapshot() {
+        return new Snapshot(COUNTS.get().clone());
+    }
+
+    /**
+     * Total de comandos da thread atual; basta para medir sem alocar.
+     */
+    public static long total() {
+        long total = 0;
+        for (long count : COUNTS.get()) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNTS.get()[kindOf(sql).ordinal()]++;
+        return sql;
+    }
+
+    static Kind kindOf(String sql) {
+        int i = 0;
+        while (i < sql.length() && (Character.isWhitespace(sql.charAt(i)) || sql.charAt(i) == '(')) {
+            i++;
+        }
+        if (sql.regionMatches(true, i, "select", 0, 6) || sql.regionMatches(true, i, "with", 0, 4)) {
+            return Kind.SELECT;
+        }
+        if (sql.regionMatches(true, i, "insert", 0, 6)) {
+            return Kind.INSERT;
+        }
+        if (sql.regionMatches(true, i, "update", 0, 6)) {
+            return Kind.UPDATE;
+        }
+        if (sql.regionMatches(true, i, "delete", 0, 6)) {
+            return Kind.DELETE;
+        }
+        return Kind.OTHER;
+    }
+
+    public static final class Snapshot {
+
+        private final long[] counts;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+        }
+
+        public long get(Kind kind) {
+            return counts[kind.ordinal()];
+        }
+
+        public long total() {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Comandos executados entre {@code earlier} e este snapshot.
+         */
+        public Snapshot since(Snapshot earlier) {
+            long[] delta = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                delta[i] = counts[i] - earlier.counts[i];
+            }
+            return new Snapshot(delta);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder out = new StringBuilder("{");
+            for (Kind kind : KINDS) {
+                if (out.length() > 1) {
+                    out.append(", ");
+                }
+                out.append(kind.name().toLowerCase()).append('=').append(counts[kind.ordinal()]);
+            }
+            return out.append('}').toString();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package gerenciar.usuario.desafio.port.output;
+
+import gerenciar.usuario.desafio.domain.entity.UserEmail;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reservas de e-mail ({@link UserEmail}). Todas as operações rodam no shard dono do e-mail e recebem o e-mail já
+ * normalizado.
+ */
+public interface UserEmailRepository extends JpaRepository<UserEmail, String> {
+
+    // Dono atual, com a reserva travada até o fim da transação: dois pedidos do mesmo e-mail passam um de cada vez
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.userId from UserEmail e where e.emailNormalized = :email")
+    Optional<Long> findOwnerForUpdate(@Param("email") String email);
+
+    // INSERT direto, sem entidade no contexto: a chave primária recusa a segunda reserva concorrente
+    @Modifying
+    @Query(value = "insert into user_emails (email_normalized, user_id) values (:email, :userId)", nativeQuery = true)
+    int insertClaim(@Param("email") String email, @Param("userId") Long userId);
+
+    // E-mails da lista que já têm reserva; o cadastro em lote passa esses para o caminho item a item
+    @Query("select e.emailNormalized from UserEmail e where e.emailNormalized in :emails")
+    List<String> findClaimedEmails(@Param("emails") Collection<String> emails);
+
+    @Modifying
+    @Query("update UserEmail e set e.userId = :userId where e.emailNormalized = :email")
+    int reassign(@Param("email") String email, @Param("userId") Long userId);
+}
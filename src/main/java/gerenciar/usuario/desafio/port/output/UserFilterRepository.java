@@ -0,0 +1,17 @@
+package gerenciar.usuario.desafio.port.output;
+
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
+
+import java.util.List;
+
+public interface UserFilterRepository {
+
+    /**
+     * Uma página do filtro combinado por keyset: {@code WHERE <critérios> AND (chave, id) > (?, ?)
+     * ORDER BY chave, id LIMIT ?}, com os sinais invertidos na ordem decrescente. Só entram no SQL os critérios
+     * informados, e cada combinação tem um índice composto que a atende (ver {@code User}).
+     *
+     * @param maxResults quantidade máxima de linhas; quem pagina pede uma a mais para saber se há próxima página
+     */
+    List<UserRow> findFiltered(UserFilter filter, int maxResults);
+}
@@ -0,0 +1,94 @@
+package gerenciar.usuario.desafio.port.output;
+
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
+import gerenciar.usuario.desafio.domain.entity.User;
+import gerenciar.usuario.desafio.domain.utils.Names;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class UserFilterRepositoryImpl implements UserFilterRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserRow> findFiltered(UserFilter filter, int maxResults) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserRow> query = cb.createQuery(UserRow.class);
+        Root<User> root = query.from(User.class);
+        query.select(cb.construct(UserRow.class, root.get("id"), root.get("fullName"), root.get("email"),
+                root.get("phone"), root.get("birthDate"), root.get("userType"), root.get("nameNormalized")));
+
+        List<Predicate> where = new ArrayList<>();
+        if (!filter.getTypes().isEmpty()) {
+            where.add(root.get("userType").in(filter.getTypes()));
+        }
+        Path<LocalDate> birthDate = root.get("birthDate");
+        if (filter.getBornFrom() != null) {
+            where.add(cb.greaterThanOrEqualTo(birthDate, filter.getBornFrom()));
+        }
+        if (filter.getBornTo() != null) {
+            where.add(cb.lessThanOrEqualTo(birthDate, filter.getBornTo()));
+        }
+        Path<String> name = root.get("nameNormalized");
+        if (filter.hasNamePrefix()) {
+            // Prefixo sem curinga na frente: o LIKE vira uma faixa no índice de nameNormalized
+            where.add(cb.like(name, escapeLike(Names.normalize(filter.getNamePrefix())) + "%", '\\'));
+        }
+
+        Path<Long> id = root.get("id");
+        boolean descending = filter.isDescending();
+        Long afterId = filter.getAfterId();
+        switch (filter.getSort()) {
+            case ID -> {
+                if (afterId != null) {
+                    where.add(descending ? cb.lessThan(id, afterId) : cb.greaterThan(id, afterId));
+                }
+                query.orderBy(descending ? cb.desc(id) : cb.asc(id));
+            }
+            case NAME -> {
+                if (afterId != null) {
+                    where.add(after(cb, name, filter.getAfterKey(), id, afterId, descending));
+                }
+                query.orderBy(descending ? List.of(cb.desc(name), cb.desc(id)) : List.of(cb.asc(name), cb.asc(id)));
+            }
+            case BIRTH_DATE -> {
+                if (afterId != null) {
+                    where.add(after(cb, birthDate, LocalDate.parse(filter.getAfterKey()), id, afterId, descending));
+                }
+                query.orderBy(descending
+                        ? List.of(cb.desc(birthDate), cb.desc(id))
+                        : List.of(cb.asc(birthDate), cb.asc(id)));
+            }
+        }
+        query.where(where.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(maxResults)
+                .getResultList();
+    }
+
+    // (chave, id) depois de (valor, afterId), escrito sem comparação de tuplas, que nem todo banco aceita
+    private static <K extends Comparable<? super K>> Predicate after(CriteriaBuilder cb, Expression<K> key, K value,
+                                                                      Path<Long> id, Long afterId,
+                                                                      boolean descending) {
+        if (descending) {
+            return cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, afterId)));
+        }
+        return cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, afterId)));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,7 @@
+package gerenciar.usuario.desafio.port.output;
+
+/**
+ * Nome e forma normalizada gravada de um usuário, lidos pelo preenchimento de {@code name_normalized}.
+ */
+public record UserNameRow(Long id, String fullName, String nameNormalized) {
+}
@@ -1,13 +1,135 @@
 package gerenciar.usuario.desafio.port.output;
 
+import gerenciar.usuario.desafio.domain.cache.UserSearchRow;
+import gerenciar.usuario.desafio.domain.cache.UserStatsCount;
+import gerenciar.usuario.desafio.domain.cache.UserStatsRow;
 import gerenciar.usuario.desafio.domain.entity.User;
 import gerenciar.usuario.desafio.domain.entity.UserType;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserUpdateRepository, UserFilterRepository {
 
+    // Linhas por ida ao banco nas leituras sem limite; com useCursorFetch o MySQL entrega o resultado nesses blocos
+    String BULK_FETCH_SIZE = "500";
+
+    // Listagens completas: entidades somente leitura (sem cópia para dirty checking) e busca em blocos
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    List<User> findAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
     List<User> findByUserType(UserType userType);
 
+    String ROW_PROJECTION = "select new gerenciar.usuario.desafio.port.output.UserRow("
+            + "u.id, u.fullName, u.email, u.phone, u.birthDate, u.userType, u.nameNormalized) from User u ";
+
+    // Paginação por cursor (keyset): WHERE id > ? ORDER BY id LIMIT ?, sem OFFSET.
+    // As listagens são só leitura e projetam direto em UserRow, sem entidade gerenciada nem cópias intermediárias.
+    @Query(ROW_PROJECTION + "where u.id > :afterId order by u.id")
+    List<UserRow> findPageAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query(ROW_PROJECTION + "where u.phoneE164 = :phoneE164 order by u.id")
+    List<UserRow> findByPhoneE164(@Param("phoneE164") Long phoneE164);
+
+    @Query(ROW_PROJECTION + "where u.emailNormalized = :emailNormalized")
+    Optional<UserRow> findByEmailNormalized(@Param("emailNormalized") String emailNormalized);
+
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    // Recebe e devolve e-mails já normalizados (ver Emails.normalize)
+    @Query("select u.emailNormalized from User u where u.emailNormalized in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // E-mails da lista usados por algum usuário fora de ids; confere uma reserva nova contra usuários anteriores a ela
+    @Query("select u.emailNormalized from User u where u.emailNormalized in :emails and u.id not in :ids")
+    List<String> findEmailsHeldByOthers(@Param("emails") Collection<String> emails,
+                                        @Param("ids") Collection<Long> ids);
+
+    boolean existsByIdAndEmailNormalized(Long id, String emailNormalized);
+
+    String STATS_ROW_PROJECTION = "select new gerenciar.usuario.desafio.domain.cache.UserStatsRow("
+            + "u.id, u.userType, u.birthDate, u.version) from User u ";
+
+    // Tipo e nascimento antes de uma escrita, com a linha travada até o fim da transação: o que foi lido é
+    // exatamente o que a escrita seguinte substitui, e os contadores de UserStats não se perdem
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(STATS_ROW_PROJECTION + "where u.id = :id")
+    Optional<UserStatsRow> findStatsRowForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(STATS_ROW_PROJECTION + "where u.id in :ids")
+    List<UserStatsRow> findStatsRowsForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Carga do índice de filtros (UserFilterIndex): só id, tipo e nascimento, por cursor como streamAll. A ordem de
+    // id é a da chave primária, sem ordenação no banco
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    @Query(STATS_ROW_PROJECTION + "order by u.id")
+    Stream<UserStatsRow> streamStatsRows();
+
+    @Query("select new gerenciar.usuario.desafio.domain.cache.UserStatsCount("
+            + "u.userType, extract(year from u.birthDate), count(u)) from User u "
+            + "group by u.userType, extract(year from u.birthDate)")
+    List<UserStatsCount> countByTypeAndBirthYear();
+
+    // DELETE direto, sem o SELECT que o deleteById do Spring Data faz antes; o retorno diz se a linha existia
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id = :id")
+    int deleteDirectlyById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id in :ids")
+    int deleteDirectlyByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Lê a tabela inteira por cursor JDBC; precisa ser consumido dentro de uma transação e fechado ao final
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    @Query("select u.emailNormalized from User u")
+    Stream<String> streamAllEmails();
+
+    // Preenchimento de name_normalized: id, nome e forma gravada, por cursor como streamAll
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    @Query("select new gerenciar.usuario.desafio.port.output.UserNameRow(u.id, u.fullName, u.nameNormalized) "
+            + "from User u")
+    Stream<UserNameRow> streamNameRows();
+
+    // Só a coluna derivada, sem mudar a versão; não toca na linha se o nome mudou depois da leitura
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.nameNormalized = :nameNormalized where u.id = :id and u.fullName = :fullName")
+    int updateNameNormalized(@Param("id") Long id, @Param("fullName") String fullName,
+                             @Param("nameNormalized") String nameNormalized);
+
+    // Carga do índice de busca (UserSearchIndex): só id, nome e e-mail, por cursor como streamAll
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = BULK_FETCH_SIZE))
+    @Query("select new gerenciar.usuario.desafio.domain.cache.UserSearchRow(u.id, u.fullName, u.email) from User u")
+    Stream<UserSearchRow> streamSearchRows();
+
 }
@@ -0,0 +1,16 @@
+package gerenciar.usuario.desafio.port.output;
+
+import gerenciar.usuario.desafio.domain.entity.UserType;
+
+import java.time.LocalDate;
+
+/**
+ * Projeção somente leitura de um usuário, montada direto pela consulta ({@code select new ...}): sem entidade
+ * gerenciada nem cópia para dirty checking. O adaptador de entrada a converte na resposta da API.
+ *
+ * <p>{@code nameNormalized} é o valor gravado na coluna, e não um recálculo de {@code fullName}: é ele que o banco
+ * ordena e compara no filtro por nome, então é ele que vai no cursor e na junção das páginas dos shards.
+ */
+public record UserRow(Long id, String fullName, String email, String phone, LocalDate birthDate,
+                      UserType userType, String nameNormalized) {
+}
@@ -0,0 +1,15 @@
+package gerenciar.usuario.desafio.port.output;
+
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+
+public interface UserUpdateRepository {
+
+    /**
+     * Executa um único {@code UPDATE users SET ... , version = version + 1 WHERE id = ? [AND version = ?]}
+     * escrevendo apenas os campos não nulos de {@code changes}.
+     *
+     * @param expectedVersion versão lida pelo cliente; {@code null} atualiza sem checagem de concorrência
+     * @return quantidade de linhas alteradas (0 quando o id não existe ou a versão não confere)
+     */
+    int updateChangedFields(Long id, Long expectedVersion, UserDTO changes);
+}
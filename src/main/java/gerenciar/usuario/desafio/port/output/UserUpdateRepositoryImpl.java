@@ -0,0 +1,60 @@
+package gerenciar.usuario.desafio.port.output;
+
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.domain.entity.User;
+import gerenciar.usuario.desafio.domain.utils.Emails;
+import gerenciar.usuario.desafio.domain.utils.Names;
+import gerenciar.usuario.desafio.domain.utils.PhoneNumbers;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+public class UserUpdateRepositoryImpl implements UserUpdateRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateChangedFields(Long id, Long expectedVersion, UserDTO changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<User> update = cb.createCriteriaUpdate(User.class);
+        Root<User> root = update.from(User.class);
+
+        if (changes.getFullName() != null) {
+            update.set(root.<String>get("fullName"), changes.getFullName());
+            update.set(root.<String>get("nameNormalized"), Names.normalize(changes.getFullName()));
+        }
+        if (changes.getEmail() != null) {
+            update.set(root.<String>get("email"), changes.getEmail());
+            update.set(root.<String>get("emailNormalized"), Emails.normalize(changes.getEmail()));
+        }
+        if (changes.getPhone() != null) {
+            update.set(root.<String>get("phone"), changes.getPhone());
+            update.set(root.<Long>get("phoneE164"), PhoneNumbers.toE164(changes.getPhone()));
+        }
+        if (changes.getBirthDate() != null) {
+            update.set(root.get("birthDate"), changes.getBirthDate());
+        }
+        if (changes.getUserType() != null) {
+            update.set(root.get("userType"), changes.getUserType());
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L));
+
+        Predicate where = cb.equal(root.get("id"), id);
+        if (expectedVersion != null) {
+            where = cb.and(where, cb.equal(root.get("version"), expectedVersion));
+        }
+        update.where(where);
+
+        // O UPDATE em massa não passa pelo contexto de persistência: grava o pendente antes e descarta o que ficou velho
+        entityManager.flush();
+        int rows = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return rows;
+    }
+}
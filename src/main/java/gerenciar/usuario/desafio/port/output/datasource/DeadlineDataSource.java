@@ -0,0 +1,92 @@
+package gerenciar.usuario.desafio.port.output.datasource;
+
+import gerenciar.usuario.desafio.domain.exception.DeadlineExceededException;
+import gerenciar.usuario.desafio.domain.utils.Deadlines;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * Aplica o prazo da requisição ({@link Deadlines}) a um pool de conexões.
+ *
+ * <ul>
+ *     <li>Com o prazo vencido, nem pede conexão nem cria comando: lança {@link DeadlineExceededException}.</li>
+ *     <li>A espera pelo pool do Hikari fica limitada ao tempo restante, quando ele é menor que o
+ *     {@code connection-timeout} ({@link HikariBoundedWait}).</li>
+ *     <li>Todo comando criado na conexão recebe {@code setQueryTimeout} com o tempo restante, arredondado para cima
+ *     porque o JDBC só aceita segundos. O banco interrompe a consulta e a conexão volta ao pool.</li>
+ * </ul>
+ *
+ * Sem prazo na thread, tudo passa direto para o pool.
+ */
+public class DeadlineDataSource extends DelegatingDataSource implements Closeable {
+
+    public DeadlineDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long remaining = Deadlines.remainingNanos();
+        if (remaining == Long.MAX_VALUE) {
+            return obtainTargetDataSource().getConnection();
+        }
+        Deadlines.check();
+        return withQueryTimeouts(acquire(TimeUnit.NANOSECONDS.toMillis(remaining)));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Deadlines.check();
+        return withQueryTimeouts(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection acquire(long remainingMillis) throws SQLException {
+        try {
+            return HikariBoundedWait.getConnection(obtainTargetDataSource(), remainingMillis);
+        } catch (SQLException ex) {
+            Deadlines.check();
+            throw ex;
+        }
+    }
+
+    private static Connection withQueryTimeouts(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(DeadlineDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    boolean createsStatement = name.equals("createStatement") || name.equals("prepareStatement")
+                            || name.equals("prepareCall");
+                    if (createsStatement) {
+                        Deadlines.check();
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                    if (createsStatement && result instanceof Statement statement) {
+                        long remaining = Deadlines.remainingNanos();
+                        if (remaining != Long.MAX_VALUE) {
+                            statement.setQueryTimeout((int) Math.max(1, (remaining + 999_999_999) / 1_000_000_000));
+                        }
+                    }
+                    return result;
+                });
+    }
+}
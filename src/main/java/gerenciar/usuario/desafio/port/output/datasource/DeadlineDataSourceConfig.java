@@ -0,0 +1,25 @@
+package gerenciar.usuario.desafio.port.output.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Envolve cada pool Hikari do contexto em um {@link DeadlineDataSource}: o do Spring Boot, ou o primário e a
+ * réplica de {@link ReplicaDataSourceConfig}. Os pools dos shards não são beans e são envolvidos na própria
+ * configuração. O envoltório fica rente ao pool, abaixo dos proxies de roteamento, para valer na conexão real.
+ */
+@Configuration
+public class DeadlineDataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor deadlineDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof HikariDataSource pool ? new DeadlineDataSource(pool) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package gerenciar.usuario.desafio.port.output.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+
+/**
+ * Pede uma conexão ao Hikari esperando no máximo {@code timeoutMillis}, quando isso é menor que o
+ * {@code connection-timeout} do pool.
+ *
+ * <p>O Hikari não tem API pública para uma espera por chamada: o {@code connection-timeout} vale para o pool
+ * inteiro, e mudá-lo em tempo de execução afetaria as outras requisições. A espera menor usa o
+ * {@code HikariPool.getConnection(long)}, que é interno, e este é o único lugar que depende dele. O método é
+ * procurado uma vez, por reflexão; se ele não existir nesta versão do Hikari, se o pool ainda não tiver subido
+ * (o Hikari o cria na primeira conexão) ou se o alvo não for um {@link HikariDataSource}, a conexão vem do
+ * {@code getConnection()} comum, com a espera do {@code connection-timeout}.
+ */
+final class HikariBoundedWait {
+
+    private static final Logger log = LoggerFactory.getLogger(HikariBoundedWait.class);
+
+    private static final MethodHandle POOL_GET_CONNECTION = lookup();
+
+    private HikariBoundedWait() {
+    }
+
+    static Connection getConnection(DataSource target, long timeoutMillis) throws SQLException {
+        if (POOL_GET_CONNECTION != null && target instanceof HikariDataSource hikari
+                && timeoutMillis < hikari.getConnectionTimeout()) {
+            Object pool = hikari.getHikariPoolMXBean();
+            if (pool != null && POOL_GET_CONNECTION.type().parameterType(0).isInstance(pool)) {
+                return invoke(pool, Math.max(1, timeoutMillis));
+            }
+        }
+        return target.getConnection();
+    }
+
+    static boolean isAvailable() {
+        return POOL_GET_CONNECTION != null;
+    }
+
+    private static Connection invoke(Object pool, long timeoutMillis) throws SQLException {
+        try {
+            return (Connection) POOL_GET_CONNECTION.invoke(pool, timeoutMillis);
+        } catch (SQLException | RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new SQLException(ex);
+        }
+    }
+
+    private static MethodHandle lookup() {
+        try {
+            Class<?> poolClass = Class.forName("com.zaxxer.hikari.pool.HikariPool", false,
+                    HikariDataSource.class.getClassLoader());
+            return MethodHandles.publicLookup().findVirtual(poolClass, "getConnection",
+                    MethodType.methodType(Connection.class, long.class));
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            log.warn("HikariPool.getConnection(long) indisponível; a espera por conexão fica no connection-timeout", ex);
+            return null;
+        }
+    }
+}
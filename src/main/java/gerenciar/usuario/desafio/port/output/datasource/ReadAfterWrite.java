@@ -0,0 +1,53 @@
+package gerenciar.usuario.desafio.port.output.datasource;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Último commit conhecido do cliente da requisição atual, usado pelo {@link ReplicaRoutingDataSource} para manter
+ * no primário só as leituras de quem acabou de escrever.
+ *
+ * <p>O instante vem do próprio cliente (o filtro web o lê de um cookie) e é atualizado a cada commit feito na
+ * requisição; {@code onWrite} recebe o novo valor para devolvê-lo ao cliente. Os instantes são em milissegundos de
+ * relógio de parede, para valerem entre instâncias da aplicação.
+ */
+public final class ReadAfterWrite {
+
+    private static final ThreadLocal<ReadAfterWrite> CURRENT = new ThreadLocal<>();
+
+    private final LongConsumer onWrite;
+    private long lastWriteMillis;
+
+    private ReadAfterWrite(long lastWriteMillis, LongConsumer onWrite) {
+        this.lastWriteMillis = lastWriteMillis;
+        this.onWrite = onWrite;
+    }
+
+    /**
+     * @param lastWriteMillis último commit informado pelo cliente, ou {@code 0} se ele não informou nenhum
+     */
+    public static ReadAfterWrite begin(long lastWriteMillis, LongConsumer onWrite) {
+        ReadAfterWrite session = new ReadAfterWrite(lastWriteMillis, onWrite);
+        CURRENT.set(session);
+        return session;
+    }
+
+    /**
+     * @return o cliente da requisição atual ou {@code null} fora de uma requisição
+     */
+    public static ReadAfterWrite current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public long lastWriteMillis() {
+        return lastWriteMillis;
+    }
+
+    void markWrite(long nowMillis) {
+        lastWriteMillis = nowMillis;
+        onWrite.accept(nowMillis);
+    }
+}
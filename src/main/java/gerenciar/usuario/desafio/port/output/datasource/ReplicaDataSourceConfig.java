@@ -0,0 +1,86 @@
+package gerenciar.usuario.desafio.port.output.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.time.Duration;
+import javax.sql.DataSource;
+
+/**
+ * Liga o roteamento primário/réplica quando {@code techmanage.datasource.replica.url} está configurada. Sem ela,
+ * vale o datasource único do Spring Boot.
+ *
+ * <p>O primário continua configurado por {@code spring.datasource.*}. A réplica herda usuário, senha e driver do
+ * primário, salvo quando {@code techmanage.datasource.replica.*} define os seus, e tem pool próprio em
+ * {@code techmanage.datasource.replica.hikari.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "techmanage.datasource.replica", name = "url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("techmanage.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${techmanage.datasource.replica.url}") String url,
+                                              @Value("${techmanage.datasource.replica.username:}") String username,
+                                              @Value("${techmanage.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setJdbcUrl(url);
+        if (!username.isEmpty()) {
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+        }
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${techmanage.datasource.replica.sticky-window:2s}") Duration stickyWindow) {
+        return new ReplicaRoutingDataSource(primary, replica, stickyWindow);
+    }
+
+    // É este o datasource do JPA: a conexão só é escolhida no primeiro comando, já com o readOnly da transação
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaRoutingDataSource routing) {
+        return registry -> {
+            FunctionCounter.builder("techmanage.datasource.connections", routing,
+                            ReplicaRoutingDataSource::primaryConnections)
+                    .tag("target", "primary")
+                    .description("Conexões entregues pelo roteamento primário/réplica")
+                    .register(registry);
+            FunctionCounter.builder("techmanage.datasource.connections", routing,
+                            ReplicaRoutingDataSource::replicaConnections)
+                    .tag("target", "replica")
+                    .description("Conexões entregues pelo roteamento primário/réplica")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,75 @@
+package gerenciar.usuario.desafio.port.output.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+
+/**
+ * Envia as transações somente leitura para a réplica e todo o resto (escritas, transações comuns e chamadas sem
+ * transação) para o primário.
+ *
+ * <p>A decisão usa o {@code readOnly} da transação corrente, que o Spring só publica depois de abrir a transação;
+ * por isso este datasource precisa ficar atrás de um {@code LazyConnectionDataSourceProxy}, que adia a busca da
+ * conexão até o primeiro comando.
+ *
+ * <p>Leitura após escrita: depois do commit de uma transação no primário, as leituras do mesmo cliente
+ * ({@link ReadAfterWrite}) continuam indo para o primário durante {@code stickyWindow}, tempo que deve cobrir o
+ * atraso típico da réplica. Os demais clientes seguem lendo da réplica; {@link Duration#ZERO} desliga.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private final long stickyMillis;
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration stickyWindow) {
+        this.stickyMillis = stickyWindow.isNegative() ? 0 : stickyWindow.toMillis();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Target target = currentTarget();
+        (target == Target.PRIMARY ? primaryConnections : replicaConnections).increment();
+        return target;
+    }
+
+    Target currentTarget() {
+        ReadAfterWrite client = ReadAfterWrite.current();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (client != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        client.markWrite(System.currentTimeMillis());
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+        return isSticky(client) ? Target.PRIMARY : Target.REPLICA;
+    }
+
+    boolean isSticky(ReadAfterWrite client) {
+        return stickyMillis > 0 && client != null
+                && System.currentTimeMillis() - client.lastWriteMillis() < stickyMillis;
+    }
+
+    public long primaryConnections() {
+        return primaryConnections.sum();
+    }
+
+    public long replicaConnections() {
+        return replicaConnections.sum();
+    }
+}
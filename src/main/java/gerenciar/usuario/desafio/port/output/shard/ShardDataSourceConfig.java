@@ -0,0 +1,56 @@
+package gerenciar.usuario.desafio.port.output.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import gerenciar.usuario.desafio.port.output.datasource.DeadlineDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+/**
+ * Um pool Hikari por URL de {@code techmanage.shards.urls}, todos com usuário, senha, driver e
+ * {@code spring.datasource.hikari.*} do datasource padrão. O esquema de cada shard é o mesmo e fica a cargo de
+ * quem administra o banco: o {@code ddl-auto} do Hibernate só alcança o shard 0. Não combina com a réplica de
+ * leitura ({@code techmanage.datasource.replica.url}); as duas configurações definem o datasource principal.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "techmanage.shards", name = "urls")
+public class ShardDataSourceConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                                         @Value("${techmanage.shards.urls}") List<String> urls,
+                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        List<DataSource> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = properties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(shard));
+            shard.setPoolName("shard-" + i);
+            meterRegistry.ifAvailable(shard::setMetricRegistry);
+            shards.add(new DeadlineDataSource(shard));
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
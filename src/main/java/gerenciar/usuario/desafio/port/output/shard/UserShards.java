@@ -0,0 +1,193 @@
+package gerenciar.usuario.desafio.port.output.shard;
+
+import gerenciar.usuario.desafio.domain.utils.Deadlines;
+import gerenciar.usuario.desafio.domain.utils.UserIds;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Distribuição dos usuários entre shards pelo hash do id. O id de um usuário novo é escolhido para cair no shard dono
+ * do e-mail dele ({@link #shardOfEmail}), e assim os cadastros do mesmo e-mail disputam sempre o mesmo banco.
+ *
+ * <p>Cada trecho executado por {@link #on}, {@link #onShardOf} ou {@link #fanOut} fica preso a um shard. O
+ * {@link ShardRoutingDataSource} lê esse shard quando a conexão é aberta, e por isso uma transação nunca pode
+ * passar por dois shards. O fan-out roda um trecho por shard em paralelo e devolve os resultados na ordem dos
+ * shards; juntar e ordenar fica com quem chamou.
+ *
+ * <p>Sem {@code techmanage.shards.urls} há um único shard, o datasource padrão, e tudo roda na própria thread.
+ */
+@Component
+public class UserShards {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final int count;
+    private final ExecutorService fanOutPool;
+
+    public UserShards(@Value("${techmanage.shards.urls:}") List<String> urls,
+                      @Value("${techmanage.shards.fan-out-threads:0}") int fanOutThreads,
+                      @Value("${techmanage.id.node:0}") int node) {
+        // O nó do gerador de ids é configurado aqui porque o id é o que escolhe o shard
+        UserIds.useNode(node);
+        this.count = Math.max(1, urls.size());
+        if (count == 1) {
+            this.fanOutPool = null;
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            int threads = fanOutThreads > 0 ? fanOutThreads : count * 4;
+            this.fanOutPool = Executors.newFixedThreadPool(threads, task -> {
+                Thread thread = new Thread(task, "shard-fan-out-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Shard preso à thread atual, ou {@code null} fora de um trecho roteado.
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int shardOf(long id) {
+        return count == 1 ? 0 : Math.floorMod(mix(id), count);
+    }
+
+    /**
+     * Shard dono do e-mail normalizado, onde fica a reserva que garante a unicidade entre shards. O
+     * {@code String.hashCode} é definido pela especificação e dá o mesmo shard em qualquer instância.
+     */
+    public int shardOfEmail(String emailNormalized) {
+        return count == 1 ? 0 : Math.floorMod(mix(emailNormalized.hashCode()), count);
+    }
+
+    /**
+     * Próximo id de {@link UserIds} que cai em {@code shard}. Com {@code n} shards custa em média {@code n} ids.
+     */
+    public long nextIdOn(int shard) {
+        long id;
+        do {
+            id = UserIds.next();
+        } while (shardOf(id) != shard);
+        return id;
+    }
+
+    public <T> T onShardOf(long id, Supplier<T> action) {
+        return on(shardOf(id), action);
+    }
+
+    public <T> T on(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Executa {@code action} em todos os shards.
+     */
+    public <T> List<T> fanOut(Supplier<T> action) {
+        List<Integer> all = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            all.add(shard);
+        }
+        return run(all, shard -> action.get());
+    }
+
+    /**
+     * Executa {@code action} uma vez por grupo, no shard do grupo (ver {@link #groupByShard}).
+     */
+    public <K, T> List<T> fanOut(Map<Integer, List<K>> groups, Function<List<K>, T> action) {
+        return run(groups.keySet(), shard -> action.apply(groups.get(shard)));
+    }
+
+    public <K> Map<Integer, List<K>> groupByShard(Collection<K> items, ToLongFunction<K> idOf) {
+        Map<Integer, List<K>> groups = new TreeMap<>();
+        for (K item : items) {
+            groups.computeIfAbsent(shardOf(idOf.applyAsLong(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (fanOutPool != null) {
+            fanOutPool.shutdownNow();
+        }
+    }
+
+    private <T> List<T> run(Collection<Integer> shards, Function<Integer, T> action) {
+        List<T> results = new ArrayList<>(shards.size());
+        if (fanOutPool == null || shards.size() == 1) {
+            for (Integer shard : shards) {
+                results.add(on(shard, () -> action.apply(shard)));
+            }
+            return results;
+        }
+
+        // O prazo da requisição acompanha o trabalho nas threads do fan-out
+        Deadlines.check();
+        Long deadline = Deadlines.current();
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (Integer shard : shards) {
+            futures.add(fanOutPool.submit(() -> Deadlines.with(deadline, () -> on(shard, () -> action.apply(shard)))));
+        }
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException ex) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Consulta aos shards interrompida", ex);
+        } catch (ExecutionException ex) {
+            futures.forEach(future -> future.cancel(true));
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    // Finalizador do MurmurHash3: os bits baixos do id (sequência e nó) não bastariam para espalhar bem
+    private static long mix(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
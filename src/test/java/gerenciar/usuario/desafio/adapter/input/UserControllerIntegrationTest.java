@@ -1,8 +1,11 @@
 package gerenciar.usuario.desafio.adapter.input;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
 import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.domain.usecase.UserUseCase;
 import gerenciar.usuario.desafio.port.output.UserRepository;
+import gerenciar.usuario.desafio.support.SqlStatements;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,12 +17,23 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// Todas as requisições saem do mesmo cliente, em ritmo bem acima do limite de escrita por cliente
+@SpringBootTest(properties = "techmanage.admission.enabled=false")
 @AutoConfigureMockMvc
 public class UserControllerIntegrationTest {
 
@@ -29,6 +43,9 @@ public class UserControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserUseCase userUseCase;
+
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -40,6 +57,9 @@ public class UserControllerIntegrationTest {
     void setup() throws Exception {
 
         userRepository.deleteAll();
+        // O deleteAll direto no repositório não passa pelos índices em memória: remonta a partir da tabela vazia
+        userUseCase.rebuildFilterIndex();
+        userUseCase.rebuildSearchIndex();
 
         var requestBody = Map.of(
                 "fullName", "Teste Inicial",
@@ -67,7 +87,310 @@ public class UserControllerIntegrationTest {
     void testGetAllUsers() throws Exception {
         mockMvc.perform(get(baseUrl))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].fullName").value("Teste Inicial"));
+                .andExpect(jsonPath("$.items[0].fullName").value("Teste Inicial"));
+    }
+
+    @Test
+    @DisplayName("GET /api/users pagina por cursor opaco")
+    void testGetAllUsersWithCursor() throws Exception {
+        var secondUser = Map.of(
+                "fullName", "Segundo Usuário",
+                "email", "teste3@email.com",
+                "phone", "+55 11 97777-7777",
+                "birthDate", "1992-03-03",
+                "userType", "VIEWER"
+        );
+        mockMvc.perform(post(baseUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(secondUser)))
+                .andExpect(status().isCreated());
+
+        MvcResult firstPage = mockMvc.perform(get(baseUrl).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].fullName").value("Teste Inicial"))
+                .andExpect(jsonPath("$.next").isNotEmpty())
+                .andReturn();
+
+        String next = objectMapper.readTree(firstPage.getResponse().getContentAsString()).get("next").asText();
+
+        mockMvc.perform(get(baseUrl).param("limit", "1").param("cursor", next))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].fullName").value("Segundo Usuário"))
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/users com cursor inválido retorna 400")
+    void testGetAllUsersWithInvalidCursor() throws Exception {
+        mockMvc.perform(get(baseUrl).param("cursor", "nao-e-um-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/users/export gera NDJSON com uma linha por usuário")
+    void testExportNdjson() throws Exception {
+        MvcResult result = mockMvc.perform(get(baseUrl + "/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(1, lines.length);
+        assertEquals("teste1@email.com", objectMapper.readTree(lines[0]).get("email").asText());
+    }
+
+    @Test
+    @DisplayName("GET /api/users/export?format=csv gera CSV com cabeçalho")
+    void testExportCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get(baseUrl + "/export").param("format", "csv"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("id,fullName,email,phone,birthDate,userType", lines[0]);
+        assertEquals(createdUserId + ",Teste Inicial,teste1@email.com,+55 11 99999-9999,1990-01-01,ADMIN", lines[1]);
+    }
+
+    @Test
+    @DisplayName("GET /api/users/export com formato desconhecido retorna 400")
+    void testExportInvalidFormat() throws Exception {
+        mockMvc.perform(get(baseUrl + "/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch cadastra em lote e reporta falhas por item")
+    void testCreateUsersBatch() throws Exception {
+        var body = List.of(
+                Map.of("fullName", "Lote Um", "email", "lote1@email.com", "phone", "+55 11 90000-0001",
+                        "birthDate", "1990-01-01", "userType", "VIEWER"),
+                Map.of("fullName", "Duplicado", "email", "teste1@email.com", "phone", "+55 11 90000-0002",
+                        "birthDate", "1990-01-01", "userType", "VIEWER"),
+                Map.of("fullName", "", "email", "invalido", "phone", "123",
+                        "birthDate", "1990-01-01", "userType", "VIEWER")
+        );
+
+        mockMvc.perform(post(baseUrl + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].result.email").value("lote1@email.com"))
+                .andExpect(jsonPath("$.results[1].status").value("DUPLICATE_EMAIL"))
+                .andExpect(jsonPath("$.results[2].status").value("INVALID"))
+                .andExpect(jsonPath("$.results[2].errors.email").exists());
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch com lista vazia retorna 400")
+    void testCreateUsersBatchEmpty() throws Exception {
+        mockMvc.perform(post(baseUrl + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/users?ids= busca vários usuários e informa os inexistentes")
+    void testGetUsersByIds() throws Exception {
+        mockMvc.perform(get(baseUrl).param("ids", "999999," + createdUserId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(createdUserId))
+                .andExpect(jsonPath("$.missing[0]").value(999999));
+    }
+
+    @Test
+    @DisplayName("GET e DELETE /api/users?ids= com elemento vazio retornam 400")
+    void testIdsWithEmptyElement() throws Exception {
+        mockMvc.perform(get(baseUrl).param("ids", createdUserId + ",,999999"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("A lista de ids não pode ter elementos vazios."));
+
+        mockMvc.perform(delete(baseUrl).param("ids", "," + createdUserId))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get(baseUrl + "/" + createdUserId))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /api/users/by-email ignora maiúsculas e espaços")
+    void testGetUserByEmail() throws Exception {
+        mockMvc.perform(get(baseUrl + "/by-email").param("email", " Teste1@Email.com "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(createdUserId));
+
+        mockMvc.perform(get(baseUrl + "/by-email").param("email", "ninguem@email.com"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/users recusa e-mail que só difere em maiúsculas")
+    void testCreateUser_emailIsCaseInsensitive() throws Exception {
+        var requestBody = Map.of(
+                "fullName", "Outro Teste",
+                "email", "TESTE1@email.com",
+                "phone", "+55 11 98888-9999",
+                "birthDate", "1990-01-01",
+                "userType", "VIEWER"
+        );
+
+        mockMvc.perform(post(baseUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestBody)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Já existe um usuário cadastrado com este e-mail."));
+
+        mockMvc.perform(get(baseUrl + "/email-filter/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ready").value(true));
+    }
+
+    @Test
+    @DisplayName("GET /api/users/by-phone busca pelo telefone normalizado")
+    void testGetUsersByPhone() throws Exception {
+        mockMvc.perform(get(baseUrl + "/by-phone").param("phone", "+5511999999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].phone").value("+55 11 99999-9999"));
+
+        mockMvc.perform(get(baseUrl + "/by-phone").param("phone", "abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Métricas de use case, comandos SQL por requisição e pool ficam no actuator")
+    void testMetricsAreExposed() throws Exception {
+        mockMvc.perform(get(baseUrl)).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/metrics/techmanage.usecase").param("tag", "method:findPage"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").isNumber());
+        mockMvc.perform(get("/actuator/metrics/techmanage.http.statements").param("tag", "uri:/api/users"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[?(@.statistic == 'TOTAL')].value").value(hasItem(greaterThan(0.0))));
+        mockMvc.perform(get("/actuator/metrics/hikaricp.connections.max"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Respostas da API trazem Server-Timing por fase")
+    void testServerTimingHeader() throws Exception {
+        var read = serverTiming(mockMvc.perform(get(baseUrl + "/" + createdUserId))
+                .andExpect(status().isOk())
+                .andReturn());
+        assertEquals(List.of("validation", "db", "serialization", "app", "total"), List.copyOf(read.keySet()));
+        assertThat(read.get("db"), greaterThan(0.0));
+        assertThat(read.get("serialization"), greaterThan(0.0));
+        assertThat(read.get("total"), greaterThanOrEqualTo(read.get("db") + read.get("serialization")));
+
+        var deleted = serverTiming(mockMvc.perform(delete(baseUrl + "/" + createdUserId))
+                .andExpect(status().isNoContent())
+                .andReturn());
+        assertThat(deleted.get("db"), greaterThan(0.0));
+        assertEquals(0.0, deleted.get("serialization"));
+    }
+
+    @Test
+    @DisplayName("POST /api/users/batch mede a validação de cada item no Server-Timing")
+    void testBatchValidationIsTimed() throws Exception {
+        var body = List.of(Map.of("fullName", "", "email", "invalido", "phone", "123",
+                "birthDate", "1990-01-01", "userType", "VIEWER"));
+
+        var timing = serverTiming(mockMvc.perform(post(baseUrl + "/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isMultiStatus())
+                .andReturn());
+        assertThat(timing.get("validation"), greaterThan(0.0));
+        assertEquals(0.0, timing.get("db"));
+    }
+
+    private static Map<String, Double> serverTiming(MvcResult result) {
+        String header = result.getResponse().getHeader("Server-Timing");
+        assertNotNull(header, "resposta sem Server-Timing");
+        var metrics = new LinkedHashMap<String, Double>();
+        for (String metric : header.split(",\\s*")) {
+            String[] parts = metric.split(";dur=");
+            assertEquals(2, parts.length, "métrica malformada: " + metric);
+            metrics.put(parts[0], Double.parseDouble(parts[1]));
+        }
+        return metrics;
+    }
+
+    @Test
+    @DisplayName("GET /api/users/{id} faz exatamente 1 select e nenhum quando vem do cache")
+    void testGetUserByIdStatementCount() throws Exception {
+        var first = SqlStatements.count(() -> mockMvc.perform(get(baseUrl + "/" + createdUserId))
+                .andExpect(status().isOk()));
+        SqlStatements.assertStatements(first, 1, 0, 0, 0);
+
+        var cached = SqlStatements.count(() -> mockMvc.perform(get(baseUrl + "/" + createdUserId))
+                .andExpect(status().isOk()));
+        SqlStatements.assertStatements(cached, 0, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Listagem, filtro e busca em lote fazem 1 select, sem N+1; o filtro pelo índice só lê a página por id")
+    void testListingsStatementCount() throws Exception {
+        SqlStatements.assertStatements(SqlStatements.count(() -> mockMvc.perform(get(baseUrl))
+                .andExpect(status().isOk())), 1, 0, 0, 0);
+        SqlStatements.assertStatements(SqlStatements.count(() -> mockMvc.perform(get(baseUrl + "/filter")
+                .param("type", "ADMIN")).andExpect(status().isOk())), 1, 0, 0, 0);
+        SqlStatements.assertStatements(SqlStatements.count(() -> mockMvc.perform(get(baseUrl + "/filter")
+                .param("name", "teste").param("sort", "name")).andExpect(status().isOk())), 1, 0, 0, 0);
+        SqlStatements.assertStatements(SqlStatements.count(() -> mockMvc.perform(get(baseUrl)
+                .param("ids", createdUserId + ",999999")).andExpect(status().isOk())), 1, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("PUT com If-Match e DELETE são um único comando, sem select prévio")
+    void testWritesStatementCount() throws Exception {
+        String etag = mockMvc.perform(get(baseUrl + "/" + createdUserId))
+                .andReturn().getResponse().getHeader("ETag");
+        var updateBody = Map.of(
+                "fullName", "Contado",
+                "email", "teste1@email.com",
+                "phone", "+55 11 99999-9999",
+                "birthDate", "1990-01-01",
+                "userType", "ADMIN"
+        );
+
+        var update = SqlStatements.count(() -> mockMvc.perform(put(baseUrl + "/" + createdUserId)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateBody)))
+                .andExpect(status().isOk()));
+        SqlStatements.assertStatements(update, 0, 0, 1, 0);
+
+        var delete = SqlStatements.count(() -> mockMvc.perform(delete(baseUrl + "/" + createdUserId))
+                .andExpect(status().isNoContent()));
+        SqlStatements.assertStatements(delete, 0, 0, 0, 1);
+    }
+
+    @Test
+    @DisplayName("PUT sem If-Match lê a linha travada e grava, sem releitura da versão")
+    void testUpdateWithoutIfMatchStatementCount() throws Exception {
+        var updateBody = Map.of(
+                "fullName", "Sem Condição",
+                "email", "teste1@email.com",
+                "phone", "+55 11 99999-9999",
+                "birthDate", "1990-01-01",
+                "userType", "ADMIN"
+        );
+
+        var update = SqlStatements.count(() -> mockMvc.perform(put(baseUrl + "/" + createdUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateBody)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\"")));
+        // SELECT ... FOR UPDATE de tipo, nascimento e versão, e o UPDATE
+        SqlStatements.assertStatements(update, 1, 0, 1, 0);
     }
 
     @Test
@@ -79,13 +402,40 @@ public class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.email").value("teste1@email.com"));
     }
 
+    @Test
+    @DisplayName("PUT /api/users/{id} invalida o cache do GET por ID")
+    void testUpdateInvalidatesCachedUser() throws Exception {
+        mockMvc.perform(get(baseUrl + "/" + createdUserId))
+                .andExpect(jsonPath("$.fullName").value("Teste Inicial"));
+
+        var updateBody = Map.of(
+                "fullName", "Nome Novo",
+                "email", "teste1@email.com",
+                "phone", "+55 11 99999-9999",
+                "birthDate", "1990-01-01",
+                "userType", "ADMIN"
+        );
+        mockMvc.perform(put(baseUrl + "/" + createdUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateBody)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get(baseUrl + "/" + createdUserId))
+                .andExpect(jsonPath("$.fullName").value("Nome Novo"));
+
+        mockMvc.perform(get(baseUrl + "/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").isNumber())
+                .andExpect(jsonPath("$.evictions").isNumber());
+    }
+
     @Test
     @DisplayName("GET /api/users/filter retorna usuários por tipo")
     void testGetUsersByType() throws Exception {
         mockMvc.perform(get(baseUrl + "/filter")
                         .param("type", UserType.ADMIN.name()))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].userType").value("ADMIN"));
+                .andExpect(jsonPath("$.items[0].userType").value("ADMIN"));
     }
 
     @Test
@@ -104,7 +454,82 @@ public class UserControllerIntegrationTest {
                         .content(objectMapper.writeValueAsString(updateBody)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Usuário atualizado com sucesso!"))
-                .andExpect(jsonPath("$.result.email").value("teste2@email.com"));
+                .andExpect(jsonPath("$.result.email").value("teste2@email.com"))
+                // Mesmo sem If-Match, o ETag da versão gravada vai na resposta
+                .andExpect(header().string("ETag", "\"1\""));
+    }
+
+    @Test
+    @DisplayName("PUT /api/users/{id} com If-Match desatualizado retorna 409")
+    void testUpdateUserWithStaleVersion() throws Exception {
+        String etag = mockMvc.perform(get(baseUrl + "/" + createdUserId))
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        var updateBody = Map.of(
+                "fullName", "Primeira Edição",
+                "email", "teste1@email.com",
+                "phone", "+55 11 99999-9999",
+                "birthDate", "1990-01-01",
+                "userType", "ADMIN"
+        );
+        mockMvc.perform(put(baseUrl + "/" + createdUserId)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateBody)))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"));
+
+        mockMvc.perform(put(baseUrl + "/" + createdUserId)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateBody)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("PATCH /api/users/{id} altera apenas os campos enviados")
+    void testPatchUser() throws Exception {
+        mockMvc.perform(patch(baseUrl + "/" + createdUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phone\": \"+55 11 91234-5678\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result.phone").value("+55 11 91234-5678"))
+                .andExpect(jsonPath("$.result.fullName").value("Teste Inicial"))
+                .andExpect(jsonPath("$.result.email").value("teste1@email.com"));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/users/{id} valida os campos enviados")
+    void testPatchUserInvalid() throws Exception {
+        mockMvc.perform(patch(baseUrl + "/" + createdUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phone\": \"123\"}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(patch(baseUrl + "/" + createdUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("DELETE /api/users?ids= exclui em lote e informa ids inexistentes")
+    void testDeleteUsersBulk() throws Exception {
+        mockMvc.perform(delete(baseUrl).param("ids", createdUserId + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1))
+                .andExpect(jsonPath("$.missing[0]").value(999999));
+
+        mockMvc.perform(get(baseUrl + "/" + createdUserId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("DELETE /api/users/{id} inexistente retorna 404")
+    void testDeleteMissingUser() throws Exception {
+        mockMvc.perform(delete(baseUrl + "/999999"))
+                .andExpect(status().isNotFound());
     }
 
     @Test
@@ -116,4 +541,175 @@ public class UserControllerIntegrationTest {
         mockMvc.perform(get(baseUrl + "/" + createdUserId))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    @DisplayName("GET /api/users com prazo esgotado retorna 504 sem ir ao banco")
+    void testExpiredDeadlineReturnsGatewayTimeout() throws Exception {
+        var counts = SqlStatements.count(() -> mockMvc.perform(get(baseUrl).header("X-Request-Timeout", "1ns"))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.message").value("Prazo da requisição esgotado.")));
+
+        SqlStatements.assertStatements(counts, 0, 0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Cabeçalho X-Request-Timeout inválido retorna 400")
+    void testInvalidDeadlineHeader() throws Exception {
+        mockMvc.perform(get(baseUrl).header("X-Request-Timeout", "logo"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /api/users/stats acompanha cadastro, alteração e exclusão")
+    void testStatsFollowWrites() throws Exception {
+        long editors = statsCount("$.byType.EDITOR");
+        long viewers = statsCount("$.byType.VIEWER");
+
+        var requestBody = Map.of(
+                "fullName", "Estatística",
+                "email", "stats@email.com",
+                "phone", "+55 11 97777-0000",
+                "birthDate", "2000-05-05",
+                "userType", "EDITOR"
+        );
+        MvcResult created = mockMvc.perform(post(baseUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestBody)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String id = objectMapper.readTree(created.getResponse().getContentAsString()).at("/result/id").asText();
+        assertEquals(editors + 1, statsCount("$.byType.EDITOR"));
+
+        mockMvc.perform(patch(baseUrl + "/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userType\": \"VIEWER\"}"))
+                .andExpect(status().isOk());
+        assertEquals(editors, statsCount("$.byType.EDITOR"));
+        assertEquals(viewers + 1, statsCount("$.byType.VIEWER"));
+
+        // A exclusão desconta o usuário com o tipo e o nascimento do cache, preenchido por esta leitura
+        mockMvc.perform(get(baseUrl + "/" + id)).andExpect(status().isOk());
+        mockMvc.perform(delete(baseUrl + "/" + id)).andExpect(status().isNoContent());
+        assertEquals(viewers, statsCount("$.byType.VIEWER"));
+
+        mockMvc.perform(get(baseUrl + "/stats"))
+                .andExpect(jsonPath("$.ready").value(true))
+                .andExpect(jsonPath("$.byAgeRange['65+']").exists());
+    }
+
+    @Test
+    @DisplayName("GET /api/users/filter combina tipo, nascimento e prefixo do nome, com ordenação e cursor")
+    void testCombinedFilter() throws Exception {
+        postUser("Ana Souza", "ana@email.com", "ADMIN", "1985-05-01");
+        postUser("Ánderson Lima", "anderson@email.com", "EDITOR", "1992-03-10");
+        postUser("Bruno Alves", "bruno@email.com", "ADMIN", "1995-07-20");
+        postUser("andré  costa", "andre@email.com", "ADMIN", "2001-01-01");
+        postUser("Carla Dias", "carla@email.com", "VIEWER", "1993-02-02");
+
+        // Prefixo sem acento nem caixa, ordenado pelo nome normalizado
+        assertEquals(List.of("Ana Souza", "Ánderson Lima", "andré  costa"),
+                walkFilter(Map.of("name", "AN", "sort", "name"), 2));
+        // Tipo + faixa de nascimento (atendido pelo índice em memória)
+        assertEquals(List.of("Teste Inicial", "Bruno Alves"),
+                walkFilter(Map.of("type", "ADMIN", "bornFrom", "1990-01-01", "bornTo", "1999-12-31"), 1));
+        // Vários tipos, nascimento decrescente
+        assertEquals(List.of("andré  costa", "Bruno Alves", "Ánderson Lima", "Teste Inicial", "Ana Souza"),
+                walkFilter(Map.of("type", "ADMIN,EDITOR", "sort", "-birthDate"), 2));
+
+        mockMvc.perform(get(baseUrl + "/filter").param("bornFrom", "2000-01-01").param("bornTo", "1990-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(baseUrl + "/filter").param("type", "ADMIN,CHEFE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Tipo de usuário inválido")));
+        mockMvc.perform(get(baseUrl + "/filter").param("bornFrom", "01/01/1990"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("AAAA-MM-DD")));
+        mockMvc.perform(get(baseUrl + "/filter-index/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ready").value(true));
+    }
+
+    @Test
+    @DisplayName("GET /api/users/search encontra por prefixo e com erro de digitação, sem LIKE no banco")
+    void testSearch() throws Exception {
+        postUser("Fernanda Oliveira", "fernanda.oliveira@empresa.com", "ADMIN", "1985-05-01");
+        postUser("Fernando Álvares", "falvares@email.com", "EDITOR", "1992-03-10");
+        postUser("Ana Paula", "anapaula@email.com", "VIEWER", "1993-02-02");
+
+        assertEquals(List.of("Fernando Álvares", "Fernanda Oliveira"), searchNames("fernando"));
+        assertEquals(List.of("Fernanda Oliveira"), searchNames("olivera fer"));
+        assertEquals(List.of("Fernando Álvares"), searchNames("ALVA"));
+        assertEquals(List.of("Fernanda Oliveira"), searchNames("empresa"));
+
+        // Só a página lida por chave primária
+        SqlStatements.assertStatements(SqlStatements.count(() -> mockMvc.perform(get(baseUrl + "/search")
+                .param("q", "ana paula")).andExpect(status().isOk())), 1, 0, 0, 0);
+
+        mockMvc.perform(patch(baseUrl + "/" + createdUserId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("fullName", "Renomeado Agora"))))
+                .andExpect(status().isOk());
+        assertEquals(List.of("Renomeado Agora"), searchNames("renomeado"));
+        assertEquals(List.of(), searchNames("teste inicial"));
+        // O e-mail continua indexado
+        assertEquals(List.of("Renomeado Agora"), searchNames("teste1"));
+
+        mockMvc.perform(delete(baseUrl + "/" + createdUserId)).andExpect(status().isNoContent());
+        assertEquals(List.of(), searchNames("renomeado"));
+
+        mockMvc.perform(get(baseUrl + "/search").param("q", " a "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("ao menos 2 caracteres")));
+        mockMvc.perform(get(baseUrl + "/search/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ready").value(true))
+                .andExpect(jsonPath("$.indexedUsers").value(3));
+    }
+
+    private List<String> searchNames(String query) throws Exception {
+        String body = mockMvc.perform(get(baseUrl + "/search").param("q", query))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$[*].fullName");
+    }
+
+    // Percorre todas as páginas do filtro e devolve os nomes na ordem recebida
+    private List<String> walkFilter(Map<String, String> params, int limit) throws Exception {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get(baseUrl + "/filter").param("limit", String.valueOf(limit));
+            params.forEach(request::param);
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            names.addAll(JsonPath.read(body, "$.items[*].fullName"));
+            cursor = objectMapper.readTree(body).path("next").asText(null);
+        } while (cursor != null);
+        return names;
+    }
+
+    private void postUser(String fullName, String email, String userType, String birthDate) throws Exception {
+        var requestBody = Map.of(
+                "fullName", fullName,
+                "email", email,
+                "phone", "+55 11 96666-0000",
+                "birthDate", birthDate,
+                "userType", userType
+        );
+        mockMvc.perform(post(baseUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestBody)))
+                .andExpect(status().isCreated());
+    }
+
+    private long statsCount(String path) throws Exception {
+        String body = mockMvc.perform(get(baseUrl + "/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return ((Number) JsonPath.read(body, path)).longValue();
+    }
 }
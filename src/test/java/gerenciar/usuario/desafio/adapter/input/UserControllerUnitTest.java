@@ -1,17 +1,27 @@
 package gerenciar.usuario.desafio.adapter.input;
 
+import gerenciar.usuario.desafio.adapter.input.dto.BulkDeleteDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.CursorPage;
 import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
+import gerenciar.usuario.desafio.adapter.input.mapper.CursorCodec;
 import gerenciar.usuario.desafio.adapter.input.mapper.UserMapper;
+import gerenciar.usuario.desafio.adapter.input.request.UserPatchRequest;
 import gerenciar.usuario.desafio.adapter.input.request.UserRequest;
 import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
 
 import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.domain.exception.BadRequestException;
+import gerenciar.usuario.desafio.domain.exception.InvalidCursorException;
+import gerenciar.usuario.desafio.domain.exception.PreconditionRequiredException;
 import gerenciar.usuario.desafio.port.input.IUserUseCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -75,47 +85,42 @@ public class UserControllerUnitTest {
 
     @Test
     void testGetAllUsers() {
-        UserDTO dto1 = new UserDTO();
-        dto1.setId(1L);
-        dto1.setFullName("João");
-        dto1.setEmail("joao@email.com");
-        dto1.setPhone("+5511999999999");
-        dto1.setUserType(UserType.ADMIN);
-
-        UserDTO dto2 = new UserDTO();
-        dto2.setId(2L);
-        dto2.setFullName("Maria");
-        dto2.setEmail("maria@email.com");
-        dto2.setPhone("+5511988888888");
-        dto2.setUserType(UserType.ADMIN);
-
         UserResponse resp1 = new UserResponse();
         resp1.setId(1L);
-        resp1.setFullName(dto1.getFullName());
-        resp1.setEmail(dto1.getEmail());
-        resp1.setPhone(dto1.getPhone());
-        resp1.setUserType(dto1.getUserType());
+        resp1.setFullName("João");
+        resp1.setEmail("joao@email.com");
+        resp1.setPhone("+5511999999999");
+        resp1.setUserType(UserType.ADMIN);
 
         UserResponse resp2 = new UserResponse();
         resp2.setId(2L);
-        resp2.setFullName(dto2.getFullName());
-        resp2.setEmail(dto2.getEmail());
-        resp2.setPhone(dto2.getPhone());
-        resp2.setUserType(dto2.getUserType());
+        resp2.setFullName("Maria");
+        resp2.setEmail("maria@email.com");
+        resp2.setPhone("+5511988888888");
+        resp2.setUserType(UserType.ADMIN);
+
+        when(userUseCase.findPage(null, 2)).thenReturn(new CursorPage<>(List.of(resp1, resp2), 2L));
+
+        var result = controller.getAllUsers(null, 2);
+        assertEquals(200, result.getStatusCodeValue());
+        var body = result.getBody();
+        assertEquals(2, body.getItems().size());
+        assertEquals("João", body.getItems().get(0).getFullName());
+        assertEquals("Maria", body.getItems().get(1).getFullName());
+        assertEquals(2L, CursorCodec.decode(body.getNext()));
+    }
 
-        when(userUseCase.findAll()).thenReturn(List.of(dto1, dto2));
+    @Test
+    void testGetAllUsers_limitIsClampedAndCursorDecoded() {
+        when(userUseCase.findPage(10L, UserController.MAX_PAGE_SIZE))
+                .thenReturn(new CursorPage<>(List.of(), null));
 
-        try (MockedStatic<UserMapper> mocked = mockStatic(UserMapper.class)) {
-            mocked.when(() -> UserMapper.toResponse(dto1)).thenReturn(resp1);
-            mocked.when(() -> UserMapper.toResponse(dto2)).thenReturn(resp2);
+        var result = controller.getAllUsers(CursorCodec.encode(10L), 100_000);
 
-            var result = controller.getAllUsers();
-            assertEquals(200, result.getStatusCodeValue());
-            var body = result.getBody();
-            assertEquals(2, body.size());
-            assertEquals("João", body.get(0).getFullName());
-            assertEquals("Maria", body.get(1).getFullName());
-        }
+        assertEquals(200, result.getStatusCodeValue());
+        assertTrue(result.getBody().getItems().isEmpty());
+        assertNull(result.getBody().getNext());
+        verify(userUseCase).findPage(10L, UserController.MAX_PAGE_SIZE);
     }
 
     @Test
@@ -140,27 +145,65 @@ public class UserControllerUnitTest {
     }
 
     @Test
-    void testGetUsersByType() {
-        UserType type = UserType.ADMIN;
-
+    void testGetUsersByIds_reportsMissing() {
         UserDTO dto = new UserDTO();
         dto.setId(1L);
         dto.setFullName("João");
-        dto.setUserType(type);
+        when(userUseCase.findAllById(List.of(1L, 5L, 1L))).thenReturn(List.of(dto));
+
+        var result = controller.getUsersByIds(List.of(1L, 5L, 1L));
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals(1, ((List<?>) result.getBody().get("items")).size());
+        assertEquals(List.of(5L), result.getBody().get("missing"));
+    }
+
+    @Test
+    void testGetUsersByType() {
+        UserType type = UserType.ADMIN;
 
         UserResponse resp = new UserResponse();
         resp.setId(1L);
         resp.setEmail("João");
         resp.setUserType(type);
 
-        when(userUseCase.findByUserType(type)).thenReturn(List.of(dto));
+        when(userUseCase.filter(any(UserFilter.class), eq(UserController.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new CursorPage<>(List.of(resp), null));
 
-        try (MockedStatic<UserMapper> mocked = mockStatic(UserMapper.class)) {
-            mocked.when(() -> UserMapper.toResponse(dto)).thenReturn(resp);
-            var result = controller.getUsersByType(type);
-            assertEquals(200, result.getStatusCodeValue());
-            assertEquals(1, result.getBody().size());
-        }
+        var result = controller.filterUsers(Set.of(type), null, null, null, null, null, null);
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals(1, result.getBody().getItems().size());
+    }
+
+    @Test
+    void testFilterUsers_sortedByNameReturnsKeyedCursor() {
+        UserResponse resp = new UserResponse();
+        resp.setId(7L);
+        resp.setFullName("Ana");
+        when(userUseCase.filter(any(UserFilter.class), eq(1)))
+                .thenReturn(new CursorPage<>(List.of(resp), 7L, "ana"));
+
+        var result = controller.filterUsers(null, null, null, "an", "-name", null, 1);
+
+        var next = CursorCodec.decodeKeyset(result.getBody().getNext());
+        assertEquals(new CursorCodec.Keyset("-name", "ana", 7L), next);
+        verify(userUseCase).filter(argThat(filter -> filter.getSort() == UserFilter.Sort.NAME
+                && filter.isDescending() && "an".equals(filter.getNamePrefix())), eq(1));
+    }
+
+    @Test
+    void testFilterUsers_rejectsUnknownSortAndCursorOfAnotherSort() {
+        assertThrows(BadRequestException.class,
+                () -> controller.filterUsers(null, null, null, null, "email", null, null));
+        String byName = CursorCodec.encode("name", "ana", 7L);
+        assertThrows(InvalidCursorException.class,
+                () -> controller.filterUsers(null, null, null, null, "birthDate", byName, null));
+        // Nem a mesma ordenação na direção contrária
+        assertThrows(InvalidCursorException.class,
+                () -> controller.filterUsers(null, null, null, null, "-name", byName, null));
+        String byIdDescending = CursorCodec.encode("-id", null, 7L);
+        assertThrows(InvalidCursorException.class,
+                () -> controller.filterUsers(null, null, null, null, "id", byIdDescending, null));
     }
 
     @Test
@@ -193,7 +236,7 @@ public class UserControllerUnitTest {
             mocked.when(() -> UserMapper.toDTO(request)).thenReturn(dto);
             mocked.when(() -> UserMapper.toResponse(dto)).thenReturn(response);
 
-            var result = controller.updateUser(id, request);
+            var result = controller.updateUser(id, request, null);
             assertEquals(200, result.getStatusCodeValue());
 
             var body = result.getBody();
@@ -204,6 +247,17 @@ public class UserControllerUnitTest {
         }
     }
 
+    @Test
+    void testUpdateUser_withoutIfMatchIsRejectedWhenRequired() {
+        ReflectionTestUtils.setField(controller, "requireIfMatch", true);
+
+        assertThrows(PreconditionRequiredException.class,
+                () -> controller.updateUser(1L, new UserRequest(), null));
+        assertThrows(PreconditionRequiredException.class,
+                () -> controller.patchUser(1L, new UserPatchRequest(), " "));
+        verifyNoInteractions(userUseCase);
+    }
+
     @Test
     void testDeleteUser() {
         Long id = 1L;
@@ -213,4 +267,15 @@ public class UserControllerUnitTest {
         assertEquals(204, result.getStatusCodeValue());
         assertNull(result.getBody());
     }
+
+    @Test
+    void testDeleteUsers() {
+        when(userUseCase.deleteAll(List.of(1L, 2L))).thenReturn(new BulkDeleteDTO(1, List.of(2L)));
+
+        var result = controller.deleteUsers(List.of(1L, 2L));
+
+        assertEquals(200, result.getStatusCodeValue());
+        assertEquals(1, result.getBody().get("deleted"));
+        assertEquals(List.of(2L), result.getBody().get("missing"));
+    }
 }
@@ -0,0 +1,102 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.domain.cache.UserCache;
+import gerenciar.usuario.desafio.domain.exception.ServiceUnavailableException;
+import gerenciar.usuario.desafio.domain.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(
+            new AdmissionControlInterceptor.Budget("read", new ClientRateLimiter(1000, 1000, 100), 1),
+            new AdmissionControlInterceptor.Budget("write", new ClientRateLimiter(0.1, 2, 100), 5),
+            Duration.ofMillis(10), "X-Client-Id", registry);
+
+    @Test
+    void testRejectsWithTooManyRequestsWhenClientExhaustsItsBucket() throws Exception {
+        assertTrue(interceptor.preHandle(request("POST", "a"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("POST", "a"), new MockHttpServletResponse(), null));
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request("POST", "a"), new MockHttpServletResponse(), null));
+        assertEquals(10, ex.getRetryAfterSeconds());
+        assertTrue(interceptor.preHandle(request("POST", "b"), new MockHttpServletResponse(), null));
+        assertEquals(1, registry.counter(AdmissionControlInterceptor.REJECTED_METRIC,
+                "kind", "write", "reason", "rate").count());
+    }
+
+    @Test
+    void testReadsAndWritesHaveSeparateConcurrencyLimits() throws Exception {
+        MockHttpServletRequest read = request("GET", "a");
+        assertTrue(interceptor.preHandle(read, new MockHttpServletResponse(), null));
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> interceptor.preHandle(request("GET", "b"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("DELETE", "b"), new MockHttpServletResponse(), null));
+
+        interceptor.afterCompletion(read, new MockHttpServletResponse(), null, null);
+        interceptor.afterCompletion(read, new MockHttpServletResponse(), null, null);
+        assertEquals(1, interceptor.availableReadPermits());
+        assertEquals(4, interceptor.availableWritePermits());
+    }
+
+    @Test
+    void testReadsServedFromMemoryAreNotLimitedByThePool() throws Exception {
+        UserCache cache = new UserCache(100, Duration.ZERO);
+        UserDTO cached = new UserDTO();
+        cached.setId(7L);
+        cache.put(7L, cached, cache.stamp(7L));
+        AdmissionControlInterceptor inMemory = new AdmissionControlInterceptor(
+                new AdmissionControlInterceptor.Budget("read", new ClientRateLimiter(1000, 1000, 100), 1),
+                new AdmissionControlInterceptor.Budget("write", new ClientRateLimiter(1000, 1000, 100), 1),
+                new InMemoryReads(cache), Duration.ofMillis(10), "X-Client-Id", registry);
+
+        // A única vaga de leitura fica presa numa listagem, que vai ao banco
+        assertTrue(inMemory.preHandle(request("GET", "a"), new MockHttpServletResponse(), null));
+        for (int i = 0; i < 10; i++) {
+            assertTrue(inMemory.preHandle(request("GET", "/api/users/7", "b"), new MockHttpServletResponse(), null));
+        }
+        for (String path : new String[]{"/api/users/stats", "/api/users/cache/stats", "/api/users/search"}) {
+            assertTrue(inMemory.preHandle(request("GET", path, "b"), new MockHttpServletResponse(), null));
+        }
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> inMemory.preHandle(request("GET", "/api/users/8", "b"), new MockHttpServletResponse(), null));
+        assertEquals(0, inMemory.availableReadPermits());
+        assertEquals(0, cache.stats().getHits());
+    }
+
+    private static MockHttpServletRequest request(String method, String client) {
+        return request(method, "/api/users", client);
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+
+    @Test
+    void testConcurrencyLimitsFitInThePool() {
+        AdmissionControlInterceptor.ConcurrencyLimits derived =
+                AdmissionControlInterceptor.ConcurrencyLimits.fromPool(5, 0, 0);
+        assertEquals(3, derived.reads());
+        assertEquals(2, derived.writes());
+        assertEquals(4, AdmissionControlInterceptor.ConcurrencyLimits.fromPool(5, 0, 1).reads());
+        assertEquals(1, AdmissionControlInterceptor.ConcurrencyLimits.fromPool(5, 4, 0).writes());
+
+        assertThrows(IllegalStateException.class,
+                () -> AdmissionControlInterceptor.ConcurrencyLimits.fromPool(5, 5, 3));
+        assertThrows(IllegalStateException.class,
+                () -> AdmissionControlInterceptor.ConcurrencyLimits.fromPool(5, 5, 0));
+    }
+}
@@ -0,0 +1,60 @@
+package gerenciar.usuario.desafio.adapter.input.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final ClientRateLimiter limiter = new ClientRateLimiter(10, 3, 2, now::get);
+
+    @Test
+    void testAllowsBurstThenAsksToWaitOneInterval() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire("a"));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void testClientsHaveSeparateBuckets() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void testIdleBucketsAreDroppedWhenFull() {
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertEquals(0, limiter.tryAcquire("c"));
+        assertEquals(1, limiter.clients());
+    }
+
+    @Test
+    void testClientsBeyondTheLimitShareOneBucket() {
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // Nenhum balde ocioso para descartar: c e d ficam no balde de excedentes, sem crescer o mapa
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(i % 2 == 0 ? "c" : "d"));
+        }
+        assertTrue(limiter.tryAcquire("d") > 0);
+        assertEquals(2, limiter.clients());
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+}
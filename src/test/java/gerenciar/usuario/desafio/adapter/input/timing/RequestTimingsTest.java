@@ -0,0 +1,38 @@
+package gerenciar.usuario.desafio.adapter.input.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.end();
+    }
+
+    @Test
+    void testHeaderListsPhasesAndRemainderAsApp() {
+        RequestTimings timings = RequestTimings.begin();
+        timings.add(RequestTimings.Phase.VALIDATION, 120_000);
+        timings.add(RequestTimings.Phase.DB, 2_500_000);
+        timings.add(RequestTimings.Phase.SERIALIZATION, 7_000);
+
+        assertEquals("validation;dur=0.120, db;dur=2.500, serialization;dur=0.007, app;dur=1.373, total;dur=4.000",
+                timings.toHeader(4_000_000));
+    }
+
+    @Test
+    void testOnlyOutermostDbCallIsCounted() {
+        RequestTimings timings = RequestTimings.begin();
+
+        assertTrue(timings.enterDb());
+        assertFalse(timings.enterDb());
+        timings.exitDb();
+        timings.exitDb();
+
+        assertEquals(1, timings.dbCalls());
+        assertSame(timings, RequestTimings.current());
+    }
+}
@@ -0,0 +1,57 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitmapTest {
+
+    @Test
+    void testSparseAndDenseBlocks() {
+        CompressedBitmap.Builder builder = CompressedBitmap.builder();
+        // Bloco 0 denso (vira mapa de bits), bloco 1 esparso (fica lista), bloco 5 com um valor só
+        for (int i = 0; i < 10_000; i++) {
+            builder.add(i * 2);
+        }
+        builder.add(65_536 + 7).add(65_536 + 9).add(5 * 65_536);
+        CompressedBitmap bitmap = builder.build();
+
+        assertEquals(10_003, bitmap.cardinality());
+        assertTrue(bitmap.contains(19_998));
+        assertFalse(bitmap.contains(19_999));
+        assertTrue(bitmap.contains(65_545));
+        assertTrue(bitmap.contains(5 * 65_536));
+        assertFalse(bitmap.contains(2 * 65_536));
+        // 8 KB do bloco denso + 3 chars dos esparsos + 3 chaves
+        assertEquals(8192 + 6 + 6, bitmap.sizeInBytes());
+        assertThrows(IllegalArgumentException.class, () -> CompressedBitmap.builder().add(3).add(3));
+    }
+
+    @Test
+    void testUnionIteratesInOrderFromStart() {
+        TreeSet<Integer> expected = new TreeSet<>();
+        List<CompressedBitmap> bitmaps = new ArrayList<>();
+        for (int step : new int[]{3, 7, 50_000}) {
+            CompressedBitmap.Builder builder = CompressedBitmap.builder();
+            for (int value = step; value < 300_000; value += step) {
+                builder.add(value);
+                expected.add(value);
+            }
+            bitmaps.add(builder.build());
+        }
+
+        int start = 70_000;
+        CompressedBitmap.Union union = new CompressedBitmap.Union(bitmaps, start);
+        List<Integer> walked = new ArrayList<>();
+        for (int value = union.next(); value >= 0; value = union.next()) {
+            walked.add(value);
+        }
+
+        assertEquals(new ArrayList<>(expected.tailSet(start, true)), walked);
+        assertEquals(-1, new CompressedBitmap.Union(List.of(), 0).next());
+    }
+}
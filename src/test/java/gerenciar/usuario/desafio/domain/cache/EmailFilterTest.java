@@ -0,0 +1,64 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailFilterTest {
+
+    @Test
+    void testAnswersMaybeUntilLoaded() {
+        EmailFilter filter = new EmailFilter(1000, 0.01);
+
+        assertTrue(filter.mightContain("ninguem@email.com"));
+
+        filter.markReady();
+        assertFalse(filter.mightContain("ninguem@email.com"));
+    }
+
+    @Test
+    void testHasNoFalseNegatives() {
+        EmailFilter filter = new EmailFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("usuario" + i + "@email.com");
+        }
+        filter.markReady();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("usuario" + i + "@email.com"));
+        }
+    }
+
+    @Test
+    void testFalsePositiveRateStaysNearTarget() {
+        EmailFilter filter = new EmailFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("usuario" + i + "@email.com");
+        }
+        filter.markReady();
+
+        int positives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("outro" + i + "@email.com")) {
+                positives++;
+                filter.recordLookup(false);
+            }
+        }
+
+        EmailFilter.Stats stats = filter.stats();
+        assertTrue(positives < 300, "falsos positivos: " + positives);
+        assertEquals(positives, stats.getFalsePositives());
+        assertEquals(positives / 10_000.0, stats.getFalsePositiveRate(), 1e-9);
+        assertTrue(stats.getEstimatedFalsePositiveRate() < 0.03);
+    }
+
+    @Test
+    void testDisabledFilterAlwaysAnswersMaybe() {
+        EmailFilter filter = new EmailFilter(0, 0.01);
+        filter.add("a@email.com");
+        filter.markReady();
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContain("b@email.com"));
+    }
+}
@@ -0,0 +1,96 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheTest {
+
+    private static UserDTO user(long id) {
+        UserDTO dto = new UserDTO();
+        dto.setId(id);
+        dto.setFullName("Usuário " + id);
+        return dto;
+    }
+
+    @Test
+    void testHitAndMissAreCounted() {
+        UserCache cache = new UserCache(100, Duration.ZERO);
+
+        assertNull(cache.get(1L));
+        cache.put(1L, user(1L), cache.stamp(1L));
+        assertEquals("Usuário 1", cache.get(1L).getFullName());
+
+        assertEquals(1, cache.stats().getHits());
+        assertEquals(1, cache.stats().getMisses());
+        assertEquals(1, cache.stats().getSize());
+    }
+
+    @Test
+    void testCallersCannotChangeTheCachedEntry() {
+        UserCache cache = new UserCache(100, Duration.ZERO);
+        UserDTO stored = user(1L);
+        cache.put(1L, stored, cache.stamp(1L));
+
+        stored.setFullName("Alterado depois do put");
+        cache.get(1L).setFullName("Alterado por quem leu");
+
+        assertEquals("Usuário 1", cache.get(1L).getFullName());
+        assertNotSame(cache.get(1L), cache.get(1L));
+    }
+
+    @Test
+    void testEvictRemovesEntry() {
+        UserCache cache = new UserCache(100, Duration.ZERO);
+        cache.put(1L, user(1L), cache.stamp(1L));
+
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        assertEquals(1, cache.stats().getEvictions());
+    }
+
+    @Test
+    void testStaleLoadIsNotPublishedAfterEviction() {
+        UserCache cache = new UserCache(100, Duration.ZERO);
+
+        long stamp = cache.stamp(1L);
+        cache.evict(1L); // update concorrente entre a leitura no banco e o put
+        cache.put(1L, user(1L), stamp);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        UserCache cache = new UserCache(16, Duration.ZERO);
+
+        for (long id = 0; id < 1000; id++) {
+            cache.put(id, user(id), cache.stamp(id));
+        }
+
+        assertTrue(cache.stats().getSize() <= 16);
+        assertTrue(cache.stats().getEvictions() >= 984);
+    }
+
+    @Test
+    void testExpiredEntryIsMiss() throws InterruptedException {
+        UserCache cache = new UserCache(100, Duration.ofMillis(1));
+        cache.put(1L, user(1L), cache.stamp(1L));
+
+        Thread.sleep(5);
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void testDisabledCacheNeverStores() {
+        UserCache cache = new UserCache(0, Duration.ZERO);
+        cache.put(1L, user(1L), cache.stamp(1L));
+
+        assertNull(cache.get(1L));
+    }
+}
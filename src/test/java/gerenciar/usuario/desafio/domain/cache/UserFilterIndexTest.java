@@ -0,0 +1,107 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserFilterIndexTest {
+
+    private final UserFilterIndex index = new UserFilterIndex(true, 1);
+
+    @Test
+    void testFindsByTypeAndBirthDateRangeInIdOrder() {
+        index.install(index.mark(), List.of(
+                new UserStatsRow(10L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L),
+                new UserStatsRow(20L, UserType.VIEWER, LocalDate.of(1990, 6, 1), 0L),
+                new UserStatsRow(30L, UserType.ADMIN, LocalDate.of(1995, 12, 31), 0L),
+                new UserStatsRow(40L, UserType.EDITOR, LocalDate.of(1996, 1, 1), 0L),
+                new UserStatsRow(50L, UserType.ADMIN, LocalDate.of(1990, 8, 15), 0L)));
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(10L, 30L, 50L), index.findIds(Set.of(UserType.ADMIN), null, null, null, 10));
+        assertEquals(List.of(10L, 20L, 30L, 50L),
+                index.findIds(Set.of(), null, LocalDate.of(1995, 12, 31), null, 10));
+        // Anos das pontas conferem o dia
+        assertEquals(List.of(30L), index.findIds(Set.of(UserType.ADMIN),
+                LocalDate.of(1990, 9, 1), LocalDate.of(1996, 6, 1), null, 10));
+        assertEquals(List.of(30L, 40L), index.findIds(Set.of(UserType.ADMIN, UserType.EDITOR),
+                LocalDate.of(1991, 1, 1), null, null, 10));
+        // Cursor e limite
+        assertEquals(List.of(30L), index.findIds(Set.of(UserType.ADMIN), null, null, 10L, 1));
+        assertEquals(List.of(), index.findIds(Set.of(UserType.ADMIN), null, null, 50L, 10));
+    }
+
+    @Test
+    void testSegmentsLoadedShardByShardAreMergedInIdOrder() {
+        UserFilterIndex.Loader loader = index.loader();
+        loader.startSegment();
+        loader.add(new UserStatsRow(20L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L));
+        loader.add(new UserStatsRow(40L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L));
+        loader.startSegment();
+        loader.add(new UserStatsRow(10L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L));
+        loader.add(new UserStatsRow(30L, UserType.VIEWER, LocalDate.of(1990, 1, 1), 0L));
+        loader.add(new UserStatsRow(50L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L));
+        loader.startSegment();
+        index.install(index.mark(), loader);
+
+        assertEquals(List.of(10L, 20L, 40L, 50L), index.findIds(Set.of(UserType.ADMIN), null, null, null, 10));
+        assertEquals(List.of(20L, 30L), index.findIds(Set.of(), null, null, 10L, 2));
+        assertEquals(List.of(50L), index.findIds(Set.of(UserType.ADMIN), null, null, 40L, 10));
+        assertEquals(5, index.stats().getIndexedUsers());
+    }
+
+    @Test
+    void testChangesAfterTheBuildOverrideTheBase() {
+        index.install(index.mark(), List.of(
+                new UserStatsRow(10L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L),
+                new UserStatsRow(20L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L),
+                new UserStatsRow(30L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L)));
+
+        index.remove(10L);
+        index.put(20L, UserType.VIEWER, LocalDate.of(1990, 1, 1));
+        index.put(25L, UserType.ADMIN, LocalDate.of(2000, 1, 1));
+
+        assertEquals(List.of(25L, 30L), index.findIds(Set.of(UserType.ADMIN), null, null, null, 10));
+        assertEquals(List.of(20L), index.findIds(Set.of(UserType.VIEWER), null, null, null, 10));
+        assertEquals(3, index.stats().getPendingChanges());
+    }
+
+    @Test
+    void testRebuildKeepsOnlyChangesMadeAfterTheMark() {
+        index.put(10L, UserType.ADMIN, LocalDate.of(1990, 1, 1));
+        long mark = index.mark();
+        // Confirmada depois do início da montagem: pode não ter vindo na consulta
+        index.put(20L, UserType.ADMIN, LocalDate.of(1990, 1, 1));
+
+        index.install(mark, List.of(new UserStatsRow(10L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L)));
+
+        assertEquals(List.of(10L, 20L), index.findIds(Set.of(UserType.ADMIN), null, null, null, 10));
+        assertEquals(1, index.stats().getIndexedUsers());
+        assertEquals(1, index.stats().getPendingChanges());
+    }
+
+    @Test
+    void testDisabledIndexIsNeverReady() {
+        UserFilterIndex disabled = new UserFilterIndex(false, 1);
+        disabled.put(1L, UserType.ADMIN, LocalDate.of(1990, 1, 1));
+        disabled.install(disabled.mark(), List.of());
+
+        assertFalse(disabled.isReady());
+        assertEquals(0, disabled.stats().getPendingChanges());
+    }
+
+    @Test
+    void testIndexIsOffWithMoreThanOneInstance() {
+        // As escritas das outras instâncias não passariam por este índice
+        UserFilterIndex shared = new UserFilterIndex(true, 2);
+        shared.install(shared.mark(), List.of());
+
+        assertFalse(shared.isEnabled());
+        assertFalse(shared.isReady());
+    }
+}
@@ -0,0 +1,136 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserSearchIndexTest {
+
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    private void load(Object... rows) {
+        index.startLoading();
+        for (int i = 0; i < rows.length; i += 3) {
+            index.load((Long) rows[i], (String) rows[i + 1], (String) rows[i + 2]);
+        }
+        index.finishLoading();
+    }
+
+    @Test
+    void testMatchesWordsByPrefixIgnoringAccentsAndCase() {
+        load(1L, "João da Silva", "joao.silva@email.com",
+                2L, "Ana Paula Souza", "anapaula@empresa.com.br",
+                3L, "Anabela Costa", "bela@email.com");
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L), index.search("JOAO", 10));
+        assertEquals(List.of(1L), index.search("silva jo", 10));
+        // Palavra inteira pontua mais que prefixo
+        assertEquals(List.of(2L, 3L), index.search("ana", 10));
+        // Palavras do e-mail
+        assertEquals(List.of(2L), index.search("empresa", 10));
+        assertEquals(List.of(1L, 3L), index.search("email", 10));
+        assertEquals(List.of(), index.search("costa silva", 10));
+    }
+
+    @Test
+    void testToleratesTyposByWordLength() {
+        load(1L, "Fernanda Oliveira", "fernanda@email.com",
+                2L, "Rui Alves", "rui@email.com");
+
+        assertEquals(List.of(1L), index.search("olivera", 10));
+        assertEquals(List.of(1L), index.search("fernadna olveira", 10));
+        assertEquals(List.of(1L), index.search("fenr", 10));
+        // Até 3 letras, só exata ou prefixo
+        assertEquals(List.of(), index.search("ryi", 10));
+        // O exato vem antes do que só casou com erro
+        load(1L, "Fernanda Oliveira", "fernanda@email.com",
+                3L, "Fernando Oliveira", "fernando@email.com");
+        assertEquals(List.of(3L, 1L), index.search("fernando", 10));
+    }
+
+    @Test
+    void testReturnsTopKWithTiesByAscendingId() {
+        load(30L, "Maria Lima", "m30@email.com",
+                10L, "Maria Souza", "m10@email.com",
+                20L, "Maria Costa", "m20@email.com");
+
+        assertEquals(List.of(10L, 20L), index.search("maria", 2));
+    }
+
+    @Test
+    void testWritesReplaceTheIndexedVersion() {
+        load(1L, "Carlos Pereira", "carlos@email.com");
+
+        index.put(2L, "Beatriz Pereira", "bia@email.com");
+        index.update(1L, "Carlos Mendes", null);
+        assertEquals(List.of(2L), index.search("pereira", 10));
+        assertEquals(List.of(1L), index.search("mendes", 10));
+        assertEquals(List.of(1L), index.search("carlos@email", 10));
+
+        index.remove(2L);
+        assertEquals(List.of(), index.search("beatriz", 10));
+        assertEquals(1, index.stats().getIndexedUsers());
+        assertEquals(2, index.stats().getStaleDocuments());
+    }
+
+    @Test
+    void testIntersectsTermsThatMatchSeveralWordsKeepingTheBestScorePerUser() {
+        load(1L, "Paula Paulo", "paula@email.com",
+                2L, "Paulo Souza", "souza@email.com",
+                3L, "Paula Souza", "ps@email.com",
+                4L, "Pedro Souza", "pedro@email.com");
+        // Versões antigas saem das listas de candidatos
+        index.update(4L, "Pedro Lima", null);
+
+        // O usuário 1 aparece nas listas de paula e de paulo, mas entra uma vez só
+        assertEquals(List.of(1L, 2L, 3L), index.search("paul", 10));
+        // "paul" casa paula e paulo (prefixo); souza filtra os candidatos
+        assertEquals(List.of(2L, 3L), index.search("souza paul", 10));
+        // Palavra inteira num usuário vale mais que o prefixo no outro
+        assertEquals(List.of(3L, 2L), index.search("souza paula", 10));
+        assertEquals(List.of(), index.search("pedro souza", 10));
+    }
+
+    @Test
+    void testSeekSkipsAheadToTheFirstDocumentNotBefore() {
+        int[] list = {1, 3, 5, 7, 9, 11, 13, 0, 0};
+
+        assertEquals(0, UserSearchIndex.seek(list, 0, 7, 0));
+        assertEquals(2, UserSearchIndex.seek(list, 0, 7, 5));
+        assertEquals(3, UserSearchIndex.seek(list, 1, 7, 6));
+        assertEquals(6, UserSearchIndex.seek(list, 4, 7, 13));
+        assertEquals(7, UserSearchIndex.seek(list, 2, 7, 14));
+        assertEquals(7, UserSearchIndex.seek(list, 7, 7, 1));
+    }
+
+    @Test
+    void testWritesDuringRebuildWinOverTheScannedRows() {
+        load(1L, "Antigo Nome", "a@email.com", 2L, "Removido", "r@email.com");
+
+        index.startLoading();
+        index.update(1L, "Novo Nome", null);
+        index.remove(2L);
+        index.put(3L, "Cadastrado Agora", "c@email.com");
+        // O índice em uso continua respondendo e recebe as escritas
+        assertEquals(List.of(1L), index.search("novo", 10));
+        // Linhas lidas antes das escritas
+        index.load(1L, "Antigo Nome", "a@email.com");
+        index.load(2L, "Removido", "r@email.com");
+        index.finishLoading();
+
+        assertEquals(List.of(1L), index.search("novo nome", 10));
+        assertEquals(List.of(), index.search("antigo", 10));
+        assertEquals(List.of(), index.search("removido", 10));
+        assertEquals(List.of(3L), index.search("cadastrado", 10));
+        assertEquals(0, index.stats().getStaleDocuments());
+    }
+
+    @Test
+    void testSearchBeforeTheFirstLoadFails() {
+        assertFalse(index.isReady());
+        assertThrows(IllegalStateException.class, () -> index.search("ana", 10));
+    }
+}
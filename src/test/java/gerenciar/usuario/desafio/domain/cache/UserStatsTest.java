@@ -0,0 +1,57 @@
+package gerenciar.usuario.desafio.domain.cache;
+
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStatsTest {
+
+    private final UserStats stats = new UserStats(Clock.fixed(Instant.parse("2026-06-01T00:00:00Z"), ZoneOffset.UTC));
+
+    @Test
+    void testCountsByTypeBirthYearAndAgeRange() {
+        stats.add(UserType.ADMIN, LocalDate.of(1990, 3, 1));
+        stats.add(UserType.VIEWER, LocalDate.of(2010, 1, 1));
+        stats.add(UserType.VIEWER, LocalDate.of(1950, 1, 1));
+        stats.move(UserType.VIEWER, LocalDate.of(2010, 1, 1), UserType.EDITOR, LocalDate.of(2001, 1, 1));
+        stats.remove(UserType.VIEWER, LocalDate.of(1950, 1, 1));
+
+        UserStats.Stats result = stats.stats();
+
+        assertEquals(2, result.getTotal());
+        assertEquals(Map.of(UserType.ADMIN, 1L, UserType.EDITOR, 1L, UserType.VIEWER, 0L), result.getByType());
+        assertEquals(Map.of(1990, 1L, 2001, 1L), result.getByBirthYear());
+        assertEquals(1, result.getByAgeRange().get("25-34"));
+        assertEquals(1, result.getByAgeRange().get("35-44"));
+        assertEquals(0, result.getByAgeRange().get("65+"));
+        assertFalse(result.isReady());
+    }
+
+    @Test
+    void testReconcileFixesDriftButSkipsCellsWrittenDuringTheQuery() {
+        stats.add(UserType.ADMIN, LocalDate.of(1990, 1, 1));
+        stats.add(UserType.EDITOR, LocalDate.of(1985, 1, 1));
+        Map<UserType, Map<Integer, Long>> before = stats.snapshot();
+        // Escrita confirmada enquanto o GROUP BY rodava
+        stats.add(UserType.EDITOR, LocalDate.of(1985, 1, 1));
+
+        long correction = stats.reconcile(before, List.of(
+                new UserStatsCount(UserType.ADMIN, 1990, 3L),
+                new UserStatsCount(UserType.VIEWER, 2000, 1L)));
+
+        assertEquals(3, correction);
+        UserStats.Stats result = stats.stats();
+        assertEquals(3, result.getByType().get(UserType.ADMIN));
+        assertEquals(2, result.getByType().get(UserType.EDITOR));
+        assertEquals(1, result.getByType().get(UserType.VIEWER));
+        assertTrue(result.isReady());
+    }
+}
@@ -1,10 +1,15 @@
 package gerenciar.usuario.desafio.domain.usecase;
 
+import gerenciar.usuario.desafio.adapter.input.dto.BatchItemDTO;
 import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
+import gerenciar.usuario.desafio.adapter.input.jfr.FlightRecorderService;
 import gerenciar.usuario.desafio.domain.entity.UserType;
 import gerenciar.usuario.desafio.domain.exception.UserNotFoundException;
+import gerenciar.usuario.desafio.domain.exception.UserVersionConflictException;
 import gerenciar.usuario.desafio.port.input.IUserUseCase;
 import gerenciar.usuario.desafio.port.output.UserRepository;
+import gerenciar.usuario.desafio.support.SqlStatements;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,8 +18,14 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,7 +33,9 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
-@TestPropertySource(locations = "classpath:application-test.properties")
+// A transação de cada teste nunca é confirmada, então o índice de filtros (atualizado só após o commit) fica desligado
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "techmanage.filter-index.enabled=false")
 @Transactional
 class IntegrationTest {
 
@@ -32,6 +45,9 @@ class IntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private FlightRecorderService flightRecorder;
+
     @Test
     void testCreateUser() {
         // Arrange
@@ -51,6 +67,39 @@ class IntegrationTest {
         assertEquals("Maria Silva", result.getFullName());
     }
 
+    @Test
+    void testCreateAll_insertsInBatchesAndFlagsDuplicates() {
+        UserDTO existente = new UserDTO();
+        existente.setFullName("Já Cadastrado");
+        existente.setEmail("existente@email.com");
+        existente.setPhone("+55 11 97777-0000");
+        existente.setBirthDate(LocalDate.of(1990, 1, 1));
+        existente.setUserType(UserType.VIEWER);
+        userUseCase.create(existente);
+
+        List<UserDTO> lote = new java.util.ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            UserDTO dto = new UserDTO();
+            dto.setFullName("Lote " + i);
+            dto.setEmail("lote" + i + "@email.com");
+            dto.setPhone("+55 11 97777-0001");
+            dto.setBirthDate(LocalDate.of(1990, 1, 1));
+            dto.setUserType(UserType.VIEWER);
+            lote.add(dto);
+        }
+        lote.get(10).setEmail("existente@email.com");
+        lote.get(20).setEmail("lote0@email.com");
+
+        List<BatchItemDTO> result = userUseCase.createAll(lote);
+
+        assertEquals(120, result.size());
+        assertEquals(BatchItemDTO.Status.DUPLICATE_EMAIL, result.get(10).getStatus());
+        assertEquals(BatchItemDTO.Status.DUPLICATE_EMAIL, result.get(20).getStatus());
+        assertEquals(118, result.stream().filter(r -> r.getStatus() == BatchItemDTO.Status.CREATED).count());
+        assertNotNull(result.get(119).getUser().getId());
+        assertEquals(119, userRepository.count());
+    }
+
     @Test
     void testFindAllUsers() {
         // Arrange – cria dois usuários
@@ -85,6 +134,54 @@ class IntegrationTest {
         assertTrue(nomes.contains("Ana Souza"));
     }
 
+    @Test
+    void testFindPage_walksAllUsersByCursor() {
+        for (int i = 0; i < 5; i++) {
+            UserDTO dto = new UserDTO();
+            dto.setFullName("Usuário " + i);
+            dto.setEmail("usuario" + i + "@email.com");
+            dto.setPhone("+55 11 90000-000" + i);
+            dto.setBirthDate(LocalDate.of(1990, 1, 1));
+            dto.setUserType(i % 2 == 0 ? UserType.ADMIN : UserType.VIEWER);
+            userUseCase.create(dto);
+        }
+
+        // Act – percorre todas as páginas de 2 em 2
+        List<String> nomes = new java.util.ArrayList<>();
+        Long cursor = null;
+        do {
+            var page = userUseCase.findPage(cursor, 2);
+            page.getItems().forEach(u -> nomes.add(u.getFullName()));
+            cursor = page.getNextAfterId();
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(List.of("Usuário 0", "Usuário 1", "Usuário 2", "Usuário 3", "Usuário 4"), nomes);
+
+        var admins = userUseCase.filter(UserFilter.builder().types(Set.of(UserType.ADMIN)).build(), 10);
+        assertEquals(3, admins.getItems().size());
+        assertFalse(admins.hasNext());
+    }
+
+    @Test
+    void testExportAll_visitsEveryUser() {
+        for (int i = 0; i < 3; i++) {
+            UserDTO dto = new UserDTO();
+            dto.setFullName("Exportado " + i);
+            dto.setEmail("exportado" + i + "@email.com");
+            dto.setPhone("+55 11 90000-100" + i);
+            dto.setBirthDate(LocalDate.of(1990, 1, 1));
+            dto.setUserType(UserType.EDITOR);
+            userUseCase.create(dto);
+        }
+
+        List<String> emails = new java.util.ArrayList<>();
+        long count = userUseCase.exportAll(u -> emails.add(u.getEmail()));
+
+        assertEquals(3, count);
+        assertEquals(List.of("exportado0@email.com", "exportado1@email.com", "exportado2@email.com"), emails);
+    }
+
     @Test
     void testFindUserById() {
         // Arrange
@@ -106,6 +203,78 @@ class IntegrationTest {
         assertEquals("carlos@email.com", result.getEmail());
     }
 
+    @Test
+    void testFindAllById_returnsRequestedOrder() {
+        List<Long> ids = new java.util.ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserDTO dto = new UserDTO();
+            dto.setFullName("Multi " + i);
+            dto.setEmail("multi" + i + "@email.com");
+            dto.setPhone("+55 11 93333-000" + i);
+            dto.setBirthDate(LocalDate.of(1990, 1, 1));
+            dto.setUserType(UserType.VIEWER);
+            ids.add(userUseCase.create(dto).getId());
+        }
+
+        List<UserDTO> result = userUseCase.findAllById(List.of(ids.get(2), 999_999L, ids.get(0)));
+
+        assertEquals(List.of("Multi 2", "Multi 0"), result.stream().map(UserDTO::getFullName).toList());
+    }
+
+    @Test
+    void testFlightRecorderCapturesUseCaseAndRepositoryEvents() throws Exception {
+        UserDTO dto = new UserDTO();
+        dto.setFullName("Gravado JFR");
+        dto.setEmail("jfr@email.com");
+        dto.setPhone("+55 11 96666-0000");
+        dto.setBirthDate(LocalDate.of(1990, 1, 1));
+        dto.setUserType(UserType.EDITOR);
+
+        assertTrue(flightRecorder.start());
+        Path dump = null;
+        try {
+            Long id = userUseCase.create(dto).getId();
+            userUseCase.findById(id);
+            dump = flightRecorder.dumpToTempFile();
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+            RecordedEvent create = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("techmanage.UserOperation"))
+                    .filter(e -> "create".equals(e.getString("operation")))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(id, create.getLong("userId"));
+            assertEquals("EDITOR", create.getString("userType"));
+            assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("techmanage.RepositoryCall")
+                    && "save".equals(e.getString("method"))));
+        } finally {
+            flightRecorder.stop();
+            if (dump != null) {
+                Files.deleteIfExists(dump);
+            }
+        }
+    }
+
+    @Test
+    void testReadsAndBulkDeleteStatementCount() throws Exception {
+        List<Long> ids = new java.util.ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserDTO dto = new UserDTO();
+            dto.setFullName("Contagem " + i);
+            dto.setEmail("contagem" + i + "@email.com");
+            dto.setPhone("+55 11 92222-000" + i);
+            dto.setBirthDate(LocalDate.of(1990, 1, 1));
+            dto.setUserType(UserType.VIEWER);
+            ids.add(userUseCase.create(dto).getId());
+        }
+        userRepository.flush();
+
+        SqlStatements.assertStatements(SqlStatements.count(() -> userUseCase.findPage(null, 10)), 1, 0, 0, 0);
+        SqlStatements.assertStatements(SqlStatements.count(() -> userUseCase.findAllById(ids)), 1, 0, 0, 0);
+        SqlStatements.assertStatements(SqlStatements.count(() -> userUseCase.findByPhone("+5511922220001")), 1, 0, 0, 0);
+        SqlStatements.assertStatements(SqlStatements.count(() -> userUseCase.deleteAll(List.of(ids.get(0), 999_999L))), 1, 0, 0, 1);
+    }
+
     @Test
     void testFindUserByType() {
         // Arrange – cria 2 usuários EDITOR e 1 ADMIN
@@ -177,6 +346,86 @@ class IntegrationTest {
 
     }
 
+    @Test
+    void testUpdate_staleVersionIsConflict() {
+        UserDTO dto = new UserDTO();
+        dto.setFullName("Bruno Alves");
+        dto.setEmail("bruno@email.com");
+        dto.setPhone("+55 11 94444-0000");
+        dto.setBirthDate(LocalDate.of(1993, 3, 3));
+        dto.setUserType(UserType.EDITOR);
+
+        UserDTO created = userUseCase.create(dto);
+        Long versaoLida = created.getVersion();
+
+        created.setFullName("Bruno A.");
+        UserDTO updated = userUseCase.update(created.getId(), created);
+        assertEquals(versaoLida + 1, updated.getVersion());
+
+        // Segundo PUT com a versão antiga perde a corrida
+        created.setVersion(versaoLida);
+        assertThrows(UserVersionConflictException.class, () -> userUseCase.update(created.getId(), created));
+    }
+
+    @Test
+    void testPatch_changesOnlyGivenFields() {
+        UserDTO dto = new UserDTO();
+        dto.setFullName("Camila Rocha");
+        dto.setEmail("camila@email.com");
+        dto.setPhone("+55 11 95555-0000");
+        dto.setBirthDate(LocalDate.of(1994, 4, 4));
+        dto.setUserType(UserType.VIEWER);
+
+        UserDTO created = userUseCase.create(dto);
+
+        UserDTO changes = new UserDTO();
+        changes.setUserType(UserType.ADMIN);
+        UserDTO patched = userUseCase.patch(created.getId(), changes);
+
+        assertEquals(UserType.ADMIN, patched.getUserType());
+        assertEquals("Camila Rocha", patched.getFullName());
+        assertEquals("camila@email.com", patched.getEmail());
+    }
+
+    @Test
+    void testPatch_oneUpdateAndReloadWithoutStaleCache() throws Exception {
+        UserDTO dto = new UserDTO();
+        dto.setFullName("Helena Prado");
+        dto.setEmail("helena@email.com");
+        dto.setPhone("+55 11 95555-1111");
+        dto.setBirthDate(LocalDate.of(1993, 3, 3));
+        dto.setUserType(UserType.VIEWER);
+        UserDTO created = userUseCase.create(dto);
+        userRepository.flush();
+        userUseCase.findById(created.getId());
+
+        UserDTO changes = new UserDTO();
+        changes.setFullName("Helena Prado Souza");
+        SqlStatements.assertStatements(SqlStatements.count(() -> userUseCase.patch(created.getId(), changes)), 1, 0, 1, 0);
+
+        assertEquals("Helena Prado Souza", userUseCase.findById(created.getId()).getFullName());
+    }
+
+    @Test
+    void testFindByPhone_followsPhoneChanges() {
+        UserDTO dto = new UserDTO();
+        dto.setFullName("Diego Lima");
+        dto.setEmail("diego@email.com");
+        dto.setPhone("+55 21 94444-0000");
+        dto.setBirthDate(LocalDate.of(1992, 2, 2));
+        dto.setUserType(UserType.EDITOR);
+        UserDTO created = userUseCase.create(dto);
+
+        assertEquals(created.getId(), userUseCase.findByPhone("+5521944440000").get(0).getId());
+
+        UserDTO changes = new UserDTO();
+        changes.setPhone("+55 21 94444-1111");
+        userUseCase.patch(created.getId(), changes);
+
+        assertTrue(userUseCase.findByPhone("+55 21 94444-0000").isEmpty());
+        assertEquals(created.getId(), userUseCase.findByPhone("+55 21 94444-1111").get(0).getId());
+    }
+
     @Test
     void testDeleteUser() {
         // Arrange
@@ -1,22 +1,50 @@
 package gerenciar.usuario.desafio.domain.usecase;
 
+import gerenciar.usuario.desafio.adapter.input.dto.BatchItemDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.BulkDeleteDTO;
 import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
 import gerenciar.usuario.desafio.adapter.input.mapper.UserMapper;
+import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
+import gerenciar.usuario.desafio.domain.cache.EmailFilter;
+import gerenciar.usuario.desafio.domain.cache.UserCache;
+import gerenciar.usuario.desafio.domain.cache.UserFilterIndex;
+import gerenciar.usuario.desafio.domain.cache.UserSearchIndex;
+import gerenciar.usuario.desafio.domain.cache.UserStats;
+import gerenciar.usuario.desafio.domain.cache.UserStatsRow;
 import gerenciar.usuario.desafio.domain.entity.User;
 import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.domain.exception.BadRequestException;
+import gerenciar.usuario.desafio.domain.exception.DuplicateEmailException;
+import gerenciar.usuario.desafio.domain.exception.ServiceUnavailableException;
 import gerenciar.usuario.desafio.domain.exception.UserNotFoundException;
+import gerenciar.usuario.desafio.domain.exception.UserVersionConflictException;
 import gerenciar.usuario.desafio.port.output.UserRepository;
+import gerenciar.usuario.desafio.port.output.UserRow;
+import gerenciar.usuario.desafio.port.output.shard.UserShards;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +55,30 @@ class UserUseCaseTest {
     @Mock
     private UserRepository repository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private EmailFilter emailFilter;
+
+    @Spy
+    private UserStats userStats = new UserStats();
+
+    @Spy
+    private UserFilterIndex filterIndex = new UserFilterIndex(true, 1);
+
+    @Spy
+    private UserSearchIndex searchIndex = new UserSearchIndex();
+
+    @Spy
+    private UserShards shards = new UserShards(List.of(), 0, 0);
+
     @InjectMocks
     private UserUseCase useCase;
 
@@ -35,8 +87,8 @@ class UserUseCaseTest {
 
     @BeforeEach
     void setUp() {
-        user = new User(1L, "Nome Teste", "email@teste.com", "+55 11 99999-0000", LocalDate.of(1990, 1, 1), UserType.ADMIN);
-        dto = new UserDTO(null, "Nome Teste", "email@teste.com", "+55 11 99999-0000", LocalDate.of(1990, 1, 1), UserType.ADMIN);
+        user = new User(1L, "Nome Teste", "nome teste", "email@teste.com", "email@teste.com", "+55 11 99999-0000", 5511999990000L, LocalDate.of(1990, 1, 1), UserType.ADMIN, 0L);
+        dto = new UserDTO(null, "Nome Teste", "email@teste.com", "+55 11 99999-0000", LocalDate.of(1990, 1, 1), UserType.ADMIN, null);
     }
 
     @Test
@@ -47,6 +99,60 @@ class UserUseCaseTest {
 
         assertNotNull(result);
         assertEquals(dto.getEmail(), result.getEmail());
+        verify(repository, never()).existsByEmailNormalized(any());
+        verify(emailFilter).add("email@teste.com");
+    }
+
+    @Test
+    void testCreate_confirmedDuplicateIsRejectedBeforeInsert() {
+        when(emailFilter.mightContain("email@teste.com")).thenReturn(true);
+        when(repository.existsByEmailNormalized("email@teste.com")).thenReturn(true);
+
+        assertThrows(DuplicateEmailException.class, () -> useCase.create(dto));
+        verify(repository, never()).save(any());
+        verify(emailFilter).recordLookup(true);
+    }
+
+    @Test
+    void testCreate_falsePositiveStillInserts() {
+        when(emailFilter.mightContain("email@teste.com")).thenReturn(true);
+        when(repository.existsByEmailNormalized("email@teste.com")).thenReturn(false);
+        when(repository.save(any(User.class))).thenReturn(user);
+
+        assertNotNull(useCase.create(dto));
+        verify(emailFilter).recordLookup(false);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateAll_reportsExistingAndRepeatedEmails() {
+        doAnswer(inv -> {
+            inv.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(emailFilter.mightContain(anyString())).thenReturn(true);
+        when(repository.findExistingEmails(anyCollection())).thenReturn(List.of("email@teste.com"));
+
+        UserDTO novo = new UserDTO(null, "Novo", "novo@teste.com", "+55 11 99999-0002", LocalDate.of(1990, 1, 1), UserType.VIEWER, null);
+        UserDTO repetido = new UserDTO(null, "Repetido", "NOVO@teste.com", "+55 11 99999-0003", LocalDate.of(1990, 1, 1), UserType.VIEWER, null);
+
+        List<BatchItemDTO> result = useCase.createAll(List.of(dto, novo, repetido));
+
+        assertEquals(BatchItemDTO.Status.DUPLICATE_EMAIL, result.get(0).getStatus());
+        assertEquals(BatchItemDTO.Status.CREATED, result.get(1).getStatus());
+        assertEquals("novo@teste.com", result.get(1).getUser().getEmail());
+        assertEquals(BatchItemDTO.Status.DUPLICATE_EMAIL, result.get(2).getStatus());
+        verify(repository).saveAll(argThat(users -> ((List<User>) users).size() == 1));
+        verify(repository).flush();
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void testCreateAll_otherIntegrityViolationsAreNotReportedAsDuplicates() {
+        doThrow(new DataIntegrityViolationException("NULL not allowed for column \"PHONE\""))
+                .when(transactionTemplate).executeWithoutResult(any());
+
+        assertThrows(DataIntegrityViolationException.class, () -> useCase.createAll(List.of(dto)));
     }
 
     @Test
@@ -59,6 +165,94 @@ class UserUseCaseTest {
         assertEquals(user.getEmail(), result.get(0).getEmail());
     }
 
+    @Test
+    void testFindPage_fetchesOneExtraRowToDetectNextPage() {
+        UserRow first = new UserRow(1L, "Nome Teste", "email@teste.com", "+55 11 99999-0000", LocalDate.of(1990, 1, 1), UserType.ADMIN, "nome teste");
+        UserRow second = new UserRow(2L, "Outro", "outro@teste.com", "+55 11 99999-0001", LocalDate.of(1990, 1, 1), UserType.VIEWER, "outro");
+        when(repository.findPageAfter(0L, Limit.of(2))).thenReturn(List.of(first, second));
+
+        var page = useCase.findPage(null, 1);
+
+        assertEquals(1, page.getItems().size());
+        assertEquals(1L, page.getNextAfterId());
+    }
+
+    @Test
+    void testFilter_lastPage() {
+        UserRow first = new UserRow(1L, "Nome Teste", "email@teste.com", "+55 11 99999-0000", LocalDate.of(1990, 1, 1), UserType.ADMIN, "nome teste");
+        UserFilter filter = UserFilter.builder().types(Set.of(UserType.ADMIN)).build();
+        when(transactionTemplate.getTransactionManager()).thenReturn(mock(PlatformTransactionManager.class));
+        when(repository.findFiltered(filter, 11)).thenReturn(List.of(first));
+
+        var page = useCase.filter(filter, 10);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    void testFilter_keyedPageCarriesTheSortKeyOfTheLastItem() {
+        // Linha migrada com o backfill do README, que não junta espaços: o cursor leva o valor gravado
+        UserRow ana = new UserRow(2L, "Ána  Souza", "ana@teste.com", "+55 11 99999-0001", LocalDate.of(1991, 1, 1), UserType.ADMIN, "ána  souza");
+        UserRow bia = new UserRow(1L, "Bia", "bia@teste.com", "+55 11 99999-0002", LocalDate.of(1992, 1, 1), UserType.ADMIN, "bia");
+        UserFilter filter = UserFilter.builder().sort(UserFilter.Sort.NAME).build();
+        when(transactionTemplate.getTransactionManager()).thenReturn(mock(PlatformTransactionManager.class));
+        when(repository.findFiltered(filter, 2)).thenReturn(List.of(ana, bia));
+
+        var page = useCase.filter(filter, 1);
+
+        assertEquals(List.of(2L), page.getItems().stream().map(UserResponse::getId).toList());
+        assertEquals(2L, page.getNextAfterId());
+        assertEquals("ána  souza", page.getNextAfterKey());
+    }
+
+    @Test
+    void testFilter_rejectsInvertedBirthDateRange() {
+        UserFilter filter = UserFilter.builder()
+                .bornFrom(LocalDate.of(2000, 1, 1))
+                .bornTo(LocalDate.of(1990, 1, 1))
+                .build();
+
+        assertThrows(BadRequestException.class, () -> useCase.filter(filter, 10));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testSearch_readsOnlyTheRankedIds() {
+        User second = new User(2L, "Nome Outro", "nome outro", "outro@teste.com", "outro@teste.com", "+55 11 99999-0001", 5511999990001L, LocalDate.of(1990, 1, 1), UserType.VIEWER, 0L);
+        searchIndex.startLoading();
+        searchIndex.load(1L, "Nomeado Teste", "email@teste.com");
+        searchIndex.load(2L, "Nome Outro", "outro@teste.com");
+        searchIndex.load(3L, "Sem Relação", "x@teste.com");
+        searchIndex.finishLoading();
+        when(repository.findAllById(List.of(2L, 1L))).thenReturn(List.of(user, second));
+
+        // Palavra inteira antes de prefixo; a ordem do índice prevalece sobre a do banco
+        List<UserResponse> result = useCase.search("nome", 10);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(UserResponse::getId).toList());
+    }
+
+    @Test
+    void testSearch_rejectsShortQueryAndUnloadedIndex() {
+        assertThrows(BadRequestException.class, () -> useCase.search(" á ", 10));
+        assertThrows(ServiceUnavailableException.class, () -> useCase.search("nome", 10));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testExportAll_streamsEveryRowToSink() {
+        User second = new User(2L, "Outro", "outro", "outro@teste.com", "outro@teste.com", "+55 11 99999-0001", 5511999990001L, LocalDate.of(1990, 1, 1), UserType.VIEWER, 0L);
+        when(transactionTemplate.getTransactionManager()).thenReturn(mock(PlatformTransactionManager.class));
+        when(repository.streamAll()).thenReturn(Stream.of(user, second));
+        List<UserDTO> exported = new ArrayList<>();
+
+        long count = useCase.exportAll(exported::add);
+
+        assertEquals(2, count);
+        assertEquals(List.of(1L, 2L), exported.stream().map(UserDTO::getId).toList());
+    }
+
     @Test
     void testFindById_found() {
         when(repository.findById(1L)).thenReturn(Optional.of(user));
@@ -68,6 +262,55 @@ class UserUseCaseTest {
         assertEquals(user.getFullName(), result.getFullName());
     }
 
+    @Test
+    void testFindById_cacheHitSkipsRepository() {
+        UserDTO cached = new UserDTO(1L, "Em Cache", "cache@teste.com", "+55 11 99999-0000", LocalDate.of(1990, 1, 1), UserType.ADMIN, null);
+        when(userCache.get(1L)).thenReturn(cached);
+
+        UserDTO result = useCase.findById(1L);
+
+        assertSame(cached, result);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testFindById_missPopulatesCache() {
+        when(userCache.stamp(1L)).thenReturn(7L);
+        when(repository.findById(1L)).thenReturn(Optional.of(user));
+
+        UserDTO result = useCase.findById(1L);
+
+        verify(userCache).put(1L, result, 7L);
+    }
+
+    @Test
+    void testFindAllById_keepsRequestedOrderAndSkipsCachedIds() {
+        User second = new User(2L, "Outro", "outro", "outro@teste.com", "outro@teste.com", "+55 11 99999-0001", 5511999990001L, LocalDate.of(1990, 1, 1), UserType.VIEWER, 0L);
+        UserDTO cached = new UserDTO(3L, "Em Cache", "cache@teste.com", "+55 11 99999-0000", LocalDate.of(1990, 1, 1), UserType.ADMIN, 0L);
+        when(userCache.get(anyLong())).thenAnswer(inv -> inv.getArgument(0).equals(3L) ? cached : null);
+        when(repository.findAllById(List.of(2L, 1L, 9L))).thenReturn(List.of(user, second));
+
+        List<UserDTO> result = useCase.findAllById(List.of(2L, 3L, 1L, 9L, 2L));
+
+        assertEquals(List.of(2L, 3L, 1L), result.stream().map(UserDTO::getId).toList());
+        verify(repository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void testFindByEmail_usesNormalizedEmail() {
+        UserRow row = new UserRow(1L, "Nome Teste", "email@teste.com", "+55 11 99999-0000", LocalDate.of(1990, 1, 1), UserType.ADMIN, "nome teste");
+        when(repository.findByEmailNormalized("email@teste.com")).thenReturn(Optional.of(row));
+
+        assertEquals(1L, useCase.findByEmail("  Email@Teste.COM ").getId());
+    }
+
+    @Test
+    void testFindByEmail_notFound() {
+        when(repository.findByEmailNormalized("nada@teste.com")).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> useCase.findByEmail("nada@teste.com"));
+    }
+
     @Test
     void testFindById_notFound() {
         when(repository.findById(2L)).thenReturn(Optional.empty());
@@ -87,36 +330,106 @@ class UserUseCaseTest {
 
     @Test
     void testUpdate_found() {
-        UserDTO newDto = new UserDTO(null, "Novo Nome", "novo@email.com", "+55 11 88888-0000", LocalDate.of(1991, 2, 2), UserType.EDITOR);
+        runTransactionCallbacks();
+        UserDTO newDto = new UserDTO(null, "Novo Nome", "novo@email.com", "+55 11 88888-0000", LocalDate.of(1991, 2, 2), UserType.EDITOR, 3L);
 
-        when(repository.findById(1L)).thenReturn(Optional.of(user));
-        when(repository.save(any(User.class))).thenReturn(user);
+        when(repository.updateChangedFields(1L, 3L, newDto)).thenReturn(1);
 
         UserDTO result = useCase.update(1L, newDto);
 
         assertEquals("novo@email.com", result.getEmail());
         assertEquals("Novo Nome", result.getFullName());
+        assertEquals(4L, result.getVersion());
+        verify(repository, never()).findById(any());
+        verify(repository, never()).save(any());
+        verify(userCache).evict(1L);
+    }
+
+    @Test
+    void testUpdate_withoutIfMatchReturnsTheVersionWritten() {
+        runTransactionCallbacks();
+        when(repository.findStatsRowForUpdate(1L))
+                .thenReturn(Optional.of(new UserStatsRow(1L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 6L)));
+        when(repository.updateChangedFields(1L, null, dto)).thenReturn(1);
+
+        // A versão gravada é a da linha travada + 1, sem releitura
+        assertEquals(7L, useCase.update(1L, dto).getVersion());
     }
 
     @Test
     void testUpdate_notFound() {
-        when(repository.findById(1L)).thenReturn(Optional.empty());
+        runTransactionCallbacks();
+        when(repository.updateChangedFields(1L, null, dto)).thenReturn(0);
 
         assertThrows(UserNotFoundException.class, () -> useCase.update(1L, dto));
     }
 
     @Test
-    void testDelete_found() {
+    void testUpdate_staleVersionIsConflict() {
+        runTransactionCallbacks();
+        dto.setVersion(1L);
+        when(repository.updateChangedFields(1L, 1L, dto)).thenReturn(0);
         when(repository.existsById(1L)).thenReturn(true);
-        doNothing().when(repository).deleteById(1L);
+
+        assertThrows(UserVersionConflictException.class, () -> useCase.update(1L, dto));
+        verify(userCache, never()).evict(any());
+    }
+
+    @Test
+    void testPatch_returnsReloadedUser() {
+        runTransactionCallbacks();
+        UserDTO changes = UserDTO.builder().fullName("Só o Nome").build();
+        when(repository.updateChangedFields(1L, null, changes)).thenReturn(1);
+        when(repository.findById(1L)).thenReturn(Optional.of(user));
+
+        UserDTO result = useCase.patch(1L, changes);
+
+        assertEquals(user.getEmail(), result.getEmail());
+        verify(userCache).evict(1L);
+    }
+
+    @Test
+    void testDelete_found() {
+        when(repository.deleteDirectlyById(1L)).thenReturn(1);
+        when(userCache.get(1L)).thenReturn(UserDTO.builder()
+                .id(1L).userType(UserType.ADMIN).birthDate(LocalDate.of(1990, 1, 1)).build());
+        userStats.add(UserType.ADMIN, LocalDate.of(1990, 1, 1));
 
         assertDoesNotThrow(() -> useCase.delete(1L));
+        verify(userCache).evict(1L);
+        assertEquals(0, userStats.stats().getByType().get(UserType.ADMIN));
     }
 
     @Test
     void testDelete_notFound() {
-        when(repository.existsById(2L)).thenReturn(false);
+        when(repository.deleteDirectlyById(2L)).thenReturn(0);
 
         assertThrows(UserNotFoundException.class, () -> useCase.delete(2L));
+        verify(userCache, never()).evict(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeleteAll_reportsMissingIds() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.getArgument(0, TransactionCallback.class).doInTransaction(mock(TransactionStatus.class)));
+        when(repository.findStatsRowsForUpdate(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new UserStatsRow(1L, UserType.ADMIN, LocalDate.of(1990, 1, 1), 0L),
+                new UserStatsRow(3L, UserType.VIEWER, LocalDate.of(2001, 5, 5), 0L)));
+
+        BulkDeleteDTO result = useCase.deleteAll(List.of(1L, 2L, 3L, 1L));
+
+        assertEquals(2, result.getDeleted());
+        assertEquals(List.of(2L), result.getMissing());
+        verify(repository).deleteDirectlyByIdIn(List.of(1L, 3L));
+        verify(userCache).evict(1L);
+        verify(userCache).evict(3L);
+    }
+
+    // Executa os callbacks do TransactionTemplate na própria chamada, como uma transação que sempre confirma
+    @SuppressWarnings("unchecked")
+    private void runTransactionCallbacks() {
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.getArgument(0, TransactionCallback.class).doInTransaction(mock(TransactionStatus.class)));
     }
 }
@@ -0,0 +1,46 @@
+package gerenciar.usuario.desafio.domain.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhoneNumbersTest {
+
+    @Test
+    void testParseApiFormat() {
+        assertEquals(5511999999999L, PhoneNumbers.parse("+55 11 99999-9999"));
+        assertEquals(551133334444L, PhoneNumbers.parse("+55 11 3333-4444"));
+        assertEquals(35121123456789L, PhoneNumbers.parse("+351 21 12345-6789"));
+    }
+
+    @Test
+    void testParseRejectsAnythingOutsideTheFormat() {
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse(""));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("11999999999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("+5511999999999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("+5555 11 99999-9999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("+55 1 99999-9999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("+55 11 999-9999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("+55 11 999999-9999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("+55 11 99999-99999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("+55 11 99999 9999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("+55 11 99999-999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parse("+05 11 99999-9999"));
+    }
+
+    @Test
+    void testParseLenientAcceptsCompactE164() {
+        assertEquals(5511999999999L, PhoneNumbers.parseLenient("+5511999999999"));
+        assertEquals(5511999999999L, PhoneNumbers.parseLenient(" 5511999999999"));
+        assertEquals(5511999999999L, PhoneNumbers.parseLenient("+55 11 99999-9999"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parseLenient("+55-11"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.parseLenient("+1234567890123456"));
+    }
+
+    @Test
+    void testToE164() {
+        assertEquals(5511999999999L, PhoneNumbers.toE164("+55 11 99999-9999"));
+        assertNull(PhoneNumbers.toE164("11999999999"));
+        assertNull(PhoneNumbers.toE164(null));
+    }
+}
@@ -51,4 +51,11 @@ class PhoneValidatorTest {
         assertEquals("Formato inválido. Use: +55 11 99999-9999", violations.iterator().next().getMessage());
     }
 
+    @Test
+    void testTooShortPhone() {
+        var obj = new PhoneTestClass("+5 11 9999-9999");
+        var violations = validator.validate(obj);
+        assertFalse(violations.isEmpty());
+        assertEquals("Tamanho inválido para telefone. Verifique se está no padrão internacional.", violations.iterator().next().getMessage());
+    }
 }
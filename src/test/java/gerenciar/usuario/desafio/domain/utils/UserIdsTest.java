@@ -0,0 +1,39 @@
+package gerenciar.usuario.desafio.domain.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserIdsTest {
+
+    @AfterEach
+    void resetNode() {
+        UserIds.useNode(0);
+    }
+
+    @Test
+    void testIdsAreUniqueIncreasingAndFitInJavaScriptNumbers() {
+        Set<Long> seen = new HashSet<>();
+        long previous = 0;
+        // Bem mais que 256 por milissegundo, forçando o gerador a avançar além do relógio
+        for (int i = 0; i < 100_000; i++) {
+            long id = UserIds.next();
+            assertTrue(id > previous);
+            assertTrue(id < (1L << 53));
+            assertTrue(seen.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void testNodeIsEmbeddedInTheId() {
+        UserIds.useNode(9);
+
+        assertEquals(9, UserIds.nodeOf(UserIds.next()));
+        assertThrows(IllegalArgumentException.class, () -> UserIds.useNode(UserIds.MAX_NODE + 1));
+    }
+}
@@ -0,0 +1,34 @@
+package gerenciar.usuario.desafio.port.output;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementCounterTest {
+
+    private final StatementCounter counter = new StatementCounter();
+
+    @Test
+    void testClassifiesByLeadingKeyword() {
+        assertEquals(StatementCounter.Kind.SELECT, StatementCounter.kindOf("  select u1_0.id from users u1_0"));
+        assertEquals(StatementCounter.Kind.SELECT, StatementCounter.kindOf("(SELECT 1)"));
+        assertEquals(StatementCounter.Kind.INSERT, StatementCounter.kindOf("insert into users values (?)"));
+        assertEquals(StatementCounter.Kind.UPDATE, StatementCounter.kindOf("UPDATE users set version=version+1"));
+        assertEquals(StatementCounter.Kind.DELETE, StatementCounter.kindOf("delete from users where id=?"));
+        assertEquals(StatementCounter.Kind.OTHER, StatementCounter.kindOf("call next value for seq"));
+    }
+
+    @Test
+    void testSnapshotsMeasureNestedWindows() {
+        StatementCounter.Snapshot outer = StatementCounter.snapshot();
+        counter.inspect("select 1");
+        StatementCounter.Snapshot inner = StatementCounter.snapshot();
+        counter.inspect("delete from users");
+
+        assertEquals(1, StatementCounter.snapshot().since(inner).total());
+        StatementCounter.Snapshot all = StatementCounter.snapshot().since(outer);
+        assertEquals(1, all.get(StatementCounter.Kind.SELECT));
+        assertEquals(1, all.get(StatementCounter.Kind.DELETE));
+        assertEquals(2, all.total());
+    }
+}
@@ -0,0 +1,76 @@
+package gerenciar.usuario.desafio.port.output.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import gerenciar.usuario.desafio.domain.exception.DeadlineExceededException;
+import gerenciar.usuario.desafio.domain.utils.Deadlines;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineDataSourceTest {
+
+    private final DeadlineDataSource dataSource = new DeadlineDataSource(h2());
+
+    @AfterEach
+    void clearDeadline() {
+        Deadlines.clear();
+    }
+
+    @Test
+    void testStatementsGetRemainingTimeAsQueryTimeout() throws Exception {
+        Deadlines.start(Duration.ofMillis(2500));
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+            assertEquals(3, statement.getQueryTimeout());
+        }
+    }
+
+    @Test
+    void testWithoutDeadlineNothingChanges() throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1")) {
+            assertEquals(0, statement.getQueryTimeout());
+        }
+    }
+
+    @Test
+    void testExpiredDeadlineNeverReachesTheDatabase() throws Exception {
+        Deadlines.start(Duration.ofMillis(200));
+        try (Connection connection = dataSource.getConnection()) {
+            Thread.sleep(250);
+            assertThrows(DeadlineExceededException.class, () -> connection.prepareStatement("select 1"));
+        }
+
+        assertThrows(DeadlineExceededException.class, dataSource::getConnection);
+    }
+
+    @Test
+    void testWaitForTheHikariPoolStopsAtTheDeadline() throws Exception {
+        assertTrue(HikariBoundedWait.isAvailable());
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setDataSource(h2());
+        hikari.setMaximumPoolSize(1);
+        hikari.setConnectionTimeout(5000);
+        try (hikari; Connection held = new DeadlineDataSource(hikari).getConnection()) {
+            Deadlines.start(Duration.ofMillis(300));
+
+            long start = System.nanoTime();
+            assertThrows(DeadlineExceededException.class, new DeadlineDataSource(hikari)::getConnection);
+            assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+        }
+    }
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:deadline;DB_CLOSE_DELAY=-1");
+        h2.setUser("sa");
+        return h2;
+    }
+}
@@ -0,0 +1,88 @@
+package gerenciar.usuario.desafio.port.output.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+
+    @AfterEach
+    void clearTransaction() {
+        ReadAfterWrite.end();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testRoutesByTransactionReadOnlyFlag() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, Duration.ofMinutes(1));
+
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.currentTarget());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.currentTarget());
+    }
+
+    @Test
+    void testClientReadsStickToPrimaryAfterItsCommittedWrite() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, Duration.ofMinutes(1));
+        long[] returnedToClient = new long[1];
+        ReadAfterWrite client = ReadAfterWrite.begin(0, millis -> returnedToClient[0] = millis);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.currentTarget());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        commitWrite(routing);
+
+        assertTrue(returnedToClient[0] > 0);
+        assertEquals(returnedToClient[0], client.lastWriteMillis());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.currentTarget());
+    }
+
+    @Test
+    void testOneClientsWriteDoesNotPinAnotherClientsReads() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, Duration.ofMinutes(1));
+        ReadAfterWrite clientA = ReadAfterWrite.begin(0, millis -> { });
+        commitWrite(routing);
+        long clientALastWrite = clientA.lastWriteMillis();
+        ReadAfterWrite.end();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReadAfterWrite.begin(0, millis -> { });
+        assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.currentTarget());
+        ReadAfterWrite.end();
+
+        assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.currentTarget());
+
+        ReadAfterWrite.begin(clientALastWrite, millis -> { });
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.currentTarget());
+    }
+
+    @Test
+    void testZeroWindowDisablesStickiness() {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, Duration.ZERO);
+        ReadAfterWrite.begin(System.currentTimeMillis(), millis -> { });
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.Target.REPLICA, routing.currentTarget());
+    }
+
+    private static void commitWrite(ReplicaRoutingDataSource routing) {
+        TransactionSynchronizationManager.initSynchronization();
+        assertEquals(ReplicaRoutingDataSource.Target.PRIMARY, routing.currentTarget());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,158 @@
+package gerenciar.usuario.desafio.port.output.datasource;
+
+import com.jayway.jsonpath.JsonPath;
+import gerenciar.usuario.desafio.adapter.input.config.ReadAfterWriteFilter;
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.domain.exception.UserNotFoundException;
+import gerenciar.usuario.desafio.port.input.IUserUseCase;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Dois H2 em memória fazem o papel de primário e réplica. Sem replicação entre eles, dá para ver de qual banco
+ * veio cada leitura. As chamadas diretas ao use case não têm cliente, então não ficam presas ao primário; a
+ * leitura após escrita é testada pela API, com o cookie de cada cliente.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "techmanage.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "techmanage.datasource.replica.sticky-window=1m",
+        "techmanage.cache.user.max-size=0"
+})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReplicaRoutingIntegrationTest {
+
+    @Autowired
+    private IUserUseCase userUseCase;
+
+    @Autowired
+    private ReplicaRoutingDataSource routing;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    void copySchemaToReplica() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        List<String> ddl = primary.queryForList("SCRIPT NODATA", String.class);
+        ddl.forEach(replica::execute);
+    }
+
+    @BeforeEach
+    void cleanUp() {
+        primary.update("delete from users");
+        replica.update("delete from users");
+    }
+
+    @Test
+    void testWritesGoToPrimaryAndReadsToReplica() {
+        UserDTO created = userUseCase.create(user("primario@email.com", UserType.ADMIN));
+
+        assertEquals(1, primary.queryForObject("select count(*) from users", Integer.class));
+        assertEquals(0, replica.queryForObject("select count(*) from users", Integer.class));
+        // Fora de uma requisição não há cliente a prender no primário; a réplica (sem replicação aqui) não tem o usuário
+        assertThrows(UserNotFoundException.class, () -> userUseCase.findById(created.getId()));
+        assertTrue(userUseCase.findByUserType(UserType.ADMIN).isEmpty());
+    }
+
+    @Test
+    void testReadOnlyMethodsReadFromReplica() {
+        replica.update("insert into users (id, full_name, name_normalized, email, email_normalized, phone, phonee164, "
+                        + "birth_date, user_type, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                900_001L, "Só na Réplica", "so na replica", "replica@email.com", "replica@email.com",
+                "+55 11 97777-1111", 5511977771111L, LocalDate.of(1990, 1, 1), UserType.VIEWER.name());
+        long replicaBefore = routing.replicaConnections();
+
+        assertEquals("Só na Réplica", userUseCase.findById(900_001L).getFullName());
+        assertEquals(1, userUseCase.findByUserType(UserType.VIEWER).size());
+        assertEquals(900_001L, userUseCase.findByEmail("REPLICA@email.com").getId());
+        assertEquals(1, userUseCase.findPage(null, 10).getItems().size());
+        assertTrue(routing.replicaConnections() >= replicaBefore + 4);
+    }
+
+    @Test
+    void testUpdateRunsOnPrimary() {
+        UserDTO created = userUseCase.create(user("atualizar@email.com", UserType.EDITOR));
+
+        UserDTO changes = new UserDTO();
+        changes.setFullName("Nome Novo");
+        UserDTO patched = userUseCase.patch(created.getId(), changes);
+
+        // A releitura do PATCH roda na transação de escrita, portanto no primário
+        assertEquals("Nome Novo", patched.getFullName());
+        assertEquals("Nome Novo", primary.queryForObject(
+                "select full_name from users where id = ?", String.class, created.getId()));
+    }
+
+    @Test
+    void testWriteOnlyPinsTheWritingClientToPrimary() throws Exception {
+        String body = """
+                {"fullName": "Cliente A", "email": "cliente.a@email.com", "phone": "+55 11 95555-0000",
+                 "birthDate": "1990-01-01", "userType": "VIEWER"}""";
+        MvcResult created = mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(cookie().exists(ReadAfterWriteFilter.COOKIE))
+                .andReturn();
+        Cookie lastWrite = created.getResponse().getCookie(ReadAfterWriteFilter.COOKIE);
+        Number id = JsonPath.read(created.getResponse().getContentAsString(), "$.result.id");
+
+        // Cliente B, sem o cookie, lê da réplica, que ainda não tem o usuário
+        mockMvc.perform(get("/api/users/" + id))
+                .andExpect(status().isNotFound());
+
+        // Cliente A devolve o cookie e lê do primário
+        mockMvc.perform(get("/api/users/" + id).cookie(lastWrite))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("cliente.a@email.com"));
+    }
+
+    private static UserDTO user(String email, UserType type) {
+        UserDTO dto = new UserDTO();
+        dto.setFullName("Usuário Roteado");
+        dto.setEmail(email);
+        dto.setPhone("+55 11 96666-0000");
+        dto.setBirthDate(LocalDate.of(1991, 1, 1));
+        dto.setUserType(type);
+        return dto;
+    }
+}
@@ -0,0 +1,320 @@
+package gerenciar.usuario.desafio.port.output.shard;
+
+import gerenciar.usuario.desafio.adapter.input.dto.BatchItemDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.BulkDeleteDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.CursorPage;
+import gerenciar.usuario.desafio.adapter.input.dto.UserDTO;
+import gerenciar.usuario.desafio.adapter.input.dto.UserFilter;
+import gerenciar.usuario.desafio.adapter.input.response.UserResponse;
+import gerenciar.usuario.desafio.domain.entity.UserType;
+import gerenciar.usuario.desafio.domain.exception.DuplicateEmailException;
+import gerenciar.usuario.desafio.domain.usecase.UserUseCase;
+import gerenciar.usuario.desafio.port.input.IUserUseCase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Três H2 em memória como shards. O esquema vem de {@code shard-schema.sql}, aplicado por cada URL, e o filtro de
+ * e-mails fica desligado para a unicidade sempre passar pela consulta aos shards e pelas reservas de e-mail.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "techmanage.shards.urls="
+                + "jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:shard-schema.sql',"
+                + "jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:shard-schema.sql',"
+                + "jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:shard-schema.sql'",
+        "techmanage.email-filter.expected-insertions=0",
+        "techmanage.cache.user.max-size=0",
+        "techmanage.backfill.name-normalized=true"
+})
+class ShardingIntegrationTest {
+
+    @Autowired
+    private IUserUseCase userUseCase;
+
+    @Autowired
+    private UserUseCase useCase;
+
+    @Autowired
+    private UserShards shards;
+
+    @Autowired
+    private ShardRoutingDataSource routing;
+
+    private final List<JdbcTemplate> shardJdbc = new ArrayList<>();
+
+    @BeforeEach
+    void cleanUp() {
+        shardJdbc.clear();
+        for (int i = 0; i < shards.count(); i++) {
+            JdbcTemplate jdbc = new JdbcTemplate(routing.shard(i));
+            jdbc.update("delete from users");
+            jdbc.update("delete from user_emails");
+            shardJdbc.add(jdbc);
+        }
+    }
+
+    @Test
+    void testUsersAreStoredOnTheShardOfTheirId() {
+        List<BatchItemDTO> created = userUseCase.createAll(users(30, UserType.VIEWER));
+
+        int total = 0;
+        for (int i = 0; i < shards.count(); i++) {
+            List<Long> ids = shardJdbc.get(i).queryForList("select id from users", Long.class);
+            for (Long id : ids) {
+                assertEquals(i, shards.shardOf(id));
+            }
+            assertFalse(ids.isEmpty(), "shard " + i + " sem usuários");
+            total += ids.size();
+        }
+        assertEquals(30, total);
+        assertTrue(created.stream().allMatch(item -> item.getStatus() == BatchItemDTO.Status.CREATED));
+    }
+
+    @Test
+    void testSingleIdOperationsRouteToOneShard() {
+        UserDTO created = userUseCase.create(user("unico@email.com", UserType.EDITOR));
+
+        assertEquals("unico@email.com", userUseCase.findById(created.getId()).getEmail());
+
+        UserDTO changes = new UserDTO();
+        changes.setFullName("Nome Alterado");
+        assertEquals("Nome Alterado", userUseCase.patch(created.getId(), changes).getFullName());
+
+        userUseCase.delete(created.getId());
+        for (JdbcTemplate jdbc : shardJdbc) {
+            assertEquals(0, jdbc.queryForObject("select count(*) from users", Integer.class));
+        }
+    }
+
+    @Test
+    void testListsFanOutAndMergeInIdOrder() {
+        userUseCase.createAll(users(20, UserType.VIEWER));
+        userUseCase.createAll(List.of(user("admin@email.com", UserType.ADMIN)));
+
+        List<UserDTO> viewers = userUseCase.findByUserType(UserType.VIEWER);
+        assertEquals(20, viewers.size());
+        assertSortedById(viewers.stream().map(UserDTO::getId).toList());
+        assertEquals(21, userUseCase.findAll().size());
+
+        List<Long> walked = new ArrayList<>();
+        Long cursor = null;
+        do {
+            CursorPage<UserResponse> page = userUseCase.findPage(cursor, 7);
+            page.getItems().forEach(item -> walked.add(item.getId()));
+            cursor = page.getNextAfterId();
+        } while (cursor != null);
+        assertEquals(21, walked.size());
+        assertSortedById(walked);
+
+        assertEquals(21, userUseCase.exportAll(dto -> { }));
+    }
+
+    @Test
+    void testEmailUniquenessIsCheckedOnEveryShard() {
+        UserDTO first = userUseCase.create(user("duplicado@email.com", UserType.VIEWER));
+        assertEquals(shards.shardOfEmail("duplicado@email.com"), shards.shardOf(first.getId()));
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(DuplicateEmailException.class,
+                    () -> userUseCase.create(user("Duplicado@Email.com", UserType.ADMIN)));
+        }
+        assertEquals("duplicado@email.com", userUseCase.findByEmail("DUPLICADO@email.com").getEmail());
+
+        // Depois da exclusão, a reserva antiga é assumida pelo próximo cadastro
+        userUseCase.delete(first.getId());
+        assertNotNull(userUseCase.create(user("duplicado@email.com", UserType.ADMIN)).getId());
+    }
+
+    @Test
+    void testConcurrentCreatesOfTheSameEmailKeepOne() throws Exception {
+        for (int round = 0; round < 10; round++) {
+            String email = "corrida" + round + "@email.com";
+            List<Object> outcomes = race(8, () -> userUseCase.create(user(email, UserType.VIEWER)));
+
+            assertEquals(1, outcomes.stream().filter(UserDTO.class::isInstance).count(), "rodada " + round);
+            assertTrue(outcomes.stream().allMatch(o -> o instanceof UserDTO || o instanceof DuplicateEmailException),
+                    outcomes.toString());
+            assertEquals(1, countOnAllShards(email));
+        }
+    }
+
+    @Test
+    void testConcurrentEmailChangesOnDifferentShardsKeepOne() throws Exception {
+        // Dois usuários em shards diferentes disputam, ao mesmo tempo, um e-mail de um terceiro shard
+        String target = emailOnShard(2, "alvo");
+        UserDTO a = userUseCase.create(user(emailOnShard(0, "a"), UserType.VIEWER));
+        UserDTO b = userUseCase.create(user(emailOnShard(1, "b"), UserType.VIEWER));
+
+        List<Long> ids = List.of(a.getId(), b.getId());
+        AtomicInteger next = new AtomicInteger();
+        List<Object> outcomes = race(2, () -> {
+            UserDTO changes = new UserDTO();
+            changes.setEmail(target);
+            return userUseCase.patch(ids.get(next.getAndIncrement()), changes);
+        });
+
+        assertEquals(1, outcomes.stream().filter(UserDTO.class::isInstance).count(), outcomes.toString());
+        assertEquals(1, countOnAllShards(target));
+        assertThrows(DuplicateEmailException.class, () -> userUseCase.create(user(target, UserType.ADMIN)));
+    }
+
+    @Test
+    void testMultiIdOperationsSplitByShard() {
+        List<Long> ids = userUseCase.createAll(users(12, UserType.VIEWER)).stream()
+                .map(item -> item.getUser().getId())
+                .toList();
+        List<Long> requested = new ArrayList<>(ids.subList(0, 6));
+        requested.add(1L);
+
+        assertEquals(ids.subList(0, 6), userUseCase.findAllById(requested).stream().map(UserDTO::getId).toList());
+
+        BulkDeleteDTO result = userUseCase.deleteAll(requested);
+        assertEquals(6, result.getDeleted());
+        assertEquals(List.of(1L), result.getMissing());
+        assertEquals(6, userUseCase.findAll().size());
+    }
+
+    @Test
+    void testFilterMergesShardPagesInTheRequestedOrder() {
+        List<UserDTO> users = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            UserDTO dto = user("filtro" + i + "@email.com", UserType.VIEWER);
+            dto.setFullName("Nome " + (char) ('i' - i));
+            users.add(dto);
+        }
+        userUseCase.createAll(users);
+
+        List<String> walked = new ArrayList<>();
+        UserFilter filter = UserFilter.builder().namePrefix("nome").sort(UserFilter.Sort.NAME).build();
+        CursorPage<UserResponse> page;
+        do {
+            page = userUseCase.filter(filter, 4);
+            page.getItems().forEach(item -> walked.add(item.getFullName()));
+            filter.setAfterId(page.getNextAfterId());
+            filter.setAfterKey(page.getNextAfterKey());
+        } while (page.hasNext());
+
+        assertEquals(List.of("Nome a", "Nome b", "Nome c", "Nome d", "Nome e", "Nome f", "Nome g", "Nome h",
+                "Nome i"), walked);
+    }
+
+    @Test
+    void testAccentedNamesPageInOneOrderAcrossShardsAfterTheBackfill() {
+        List<String> names = List.of("Óscar", "Ana", "Íris", "Eva", "Ábner", "Otto", "Élio", "Ivo");
+        List<UserDTO> users = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            UserDTO dto = user(emailOnShard(i % shards.count(), "acento" + i + "-"), UserType.VIEWER);
+            dto.setFullName(names.get(i));
+            users.add(dto);
+        }
+        userUseCase.createAll(users);
+        // Como o antigo backfill em SQL: minúsculas, mas com os acentos
+        for (JdbcTemplate jdbc : shardJdbc) {
+            jdbc.update("update users set name_normalized = lower(full_name)");
+        }
+
+        assertEquals(4, useCase.backfillNameNormalized());
+
+        List<String> walked = new ArrayList<>();
+        UserFilter filter = UserFilter.builder().sort(UserFilter.Sort.NAME).build();
+        CursorPage<UserResponse> page;
+        do {
+            page = userUseCase.filter(filter, 3);
+            page.getItems().forEach(item -> walked.add(item.getFullName()));
+            filter.setAfterId(page.getNextAfterId());
+            filter.setAfterKey(page.getNextAfterKey());
+        } while (page.hasNext());
+
+        assertEquals(List.of("Ábner", "Ana", "Élio", "Eva", "Íris", "Ivo", "Óscar", "Otto"), walked);
+        assertEquals(List.of("Ábner", "Ana"), userUseCase.filter(UserFilter.builder().namePrefix("a")
+                .sort(UserFilter.Sort.NAME).build(), 10).getItems().stream().map(UserResponse::getFullName).toList());
+    }
+
+    // Dispara as chamadas juntas e devolve o resultado ou a exceção de cada uma
+    private static List<Object> race(int callers, Supplier<Object> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Object>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return call.get();
+                    } catch (RuntimeException ex) {
+                        return ex;
+                    }
+                }));
+            }
+            start.countDown();
+            List<Object> outcomes = new ArrayList<>();
+            for (Future<Object> future : futures) {
+                outcomes.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return outcomes;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int countOnAllShards(String email) {
+        int count = 0;
+        for (JdbcTemplate jdbc : shardJdbc) {
+            count += jdbc.queryForObject("select count(*) from users where email_normalized = ?", Integer.class, email);
+        }
+        return count;
+    }
+
+    private String emailOnShard(int shard, String prefix) {
+        for (int i = 0; ; i++) {
+            String email = prefix + i + "@email.com";
+            if (shards.shardOfEmail(email) == shard) {
+                return email;
+            }
+        }
+    }
+
+    private static void assertSortedById(List<Long> ids) {
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i), "fora de ordem na posição " + i);
+        }
+    }
+
+    private static List<UserDTO> users(int count, UserType type) {
+        List<UserDTO> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            users.add(user(type.name().toLowerCase() + i + "@email.com", type));
+        }
+        return users;
+    }
+
+    private static UserDTO user(String email, UserType type) {
+        UserDTO dto = new UserDTO();
+        dto.setFullName("Usuário Distribuído");
+        dto.setEmail(email);
+        dto.setPhone("+55 11 95555-0000");
+        dto.setBirthDate(LocalDate.of(1992, 6, 1));
+        dto.setUserType(type);
+        return dto;
+    }
+}
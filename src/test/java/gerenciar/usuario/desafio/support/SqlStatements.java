@@ -0,0 +1,38 @@
+package gerenciar.usuario.desafio.support;
+
+import gerenciar.usuario.desafio.port.output.StatementCounter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Conta os comandos SQL executados por um trecho de teste, para travar a quantidade de consultas de cada fluxo
+ * (e pegar N+1 assim que aparecer). Precisa rodar na mesma thread que executa o SQL, como no MockMvc.
+ */
+public final class SqlStatements {
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private SqlStatements() {
+    }
+
+    public static StatementCounter.Snapshot count(Action action) throws Exception {
+        StatementCounter.Snapshot before = StatementCounter.snapshot();
+        action.run();
+        return StatementCounter.snapshot().since(before);
+    }
+
+    /**
+     * Verifica a quantidade exata de cada tipo de comando; os demais tipos devem ser zero.
+     */
+    public static void assertStatements(StatementCounter.Snapshot counts, long selects, long inserts, long updates, long deletes) {
+        String actual = counts.toString();
+        assertEquals(selects, counts.get(StatementCounter.Kind.SELECT), "selects em " + actual);
+        assertEquals(inserts, counts.get(StatementCounter.Kind.INSERT), "inserts em " + actual);
+        assertEquals(updates, counts.get(StatementCounter.Kind.UPDATE), "updates em " + actual);
+        assertEquals(deletes, counts.get(StatementCounter.Kind.DELETE), "deletes em " + actual);
+        assertEquals(0, counts.get(StatementCounter.Kind.OTHER), "outros em " + actual);
+    }
+}
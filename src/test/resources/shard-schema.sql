@@ -0,0 +1,23 @@
+-- Esquema de cada shard nos testes de sharding (o ddl-auto do Hibernate só alcança o shard 0)
+create table if not exists users (
+    id bigint not null primary key,
+    full_name varchar(255) not null,
+    name_normalized varchar(255) not null,
+    email varchar(255) not null,
+    email_normalized varchar(255) not null,
+    phone varchar(255) not null,
+    phonee164 bigint,
+    birth_date date not null,
+    user_type varchar(255) not null,
+    version bigint not null,
+    constraint UK_user_email_normalized unique (email_normalized)
+);
+create index if not exists IDX_user_type on users (user_type);
+create index if not exists IDX_user_phone_e164 on users (phonee164);
+create index if not exists IDX_user_type_birth_date on users (user_type, birth_date);
+create index if not exists IDX_user_birth_date on users (birth_date);
+create index if not exists IDX_user_name_normalized on users (name_normalized);
+create table if not exists user_emails (
+    email_normalized varchar(255) not null primary key,
+    user_id bigint not null
+);